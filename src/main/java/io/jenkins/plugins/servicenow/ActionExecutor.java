@@ -0,0 +1,40 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.ClassLoaderSanityThreadPoolExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor of the plugin performing blocking work of actions not bound to any executor of the build (requests of actions,
+ * reporting of results, cancellations of actions) for asynchronous and parallel steps. The work is not done by the shared
+ * {@link jenkins.util.Timer} of Jenkins, so slow instances never delay housekeeping tasks of Jenkins. At most
+ * {@link #THREADS} tasks are run at the same time, next ones wait in the queue.
+ */
+final class ActionExecutor {
+
+    /**
+     * Maximum number of threads performing actions of all builds.
+     */
+    static final int THREADS = 8;
+
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        final ThreadPoolExecutor executor = new ClassLoaderSanityThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamingThreadFactory(new DaemonThreadFactory(), "ServiceNow action executor"));
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR = executor;
+    }
+
+    private ActionExecutor() {
+    }
+
+    static ExecutorService get() {
+        return EXECUTOR;
+    }
+}
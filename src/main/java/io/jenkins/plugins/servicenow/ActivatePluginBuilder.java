@@ -48,9 +48,7 @@ public class ActivatePluginBuilder extends ProgressBuilder {
     }
 
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
-
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Activate the plugin " + this.pluginId);
 
         Result serviceNowResult = null;
@@ -64,37 +62,34 @@ public class ActivatePluginBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex.getMessage());
         }
 
-        if(serviceNowResult != null) {
-
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nPlugin activation DONE.");
-                            result = true;
-                        } else {
-                            taskListener.getLogger().println("\nPlugin activation DONE but failed: " + serviceNowResult.getStatusMessage());
-                            result = false;
-                        }
-                    }
-                } else { // SUCCESS
-                    if(serviceNowResult.getPercentComplete() == 100) {
-                        if(StringUtils.isNotBlank(serviceNowResult.getStatusMessage())) {
-                            taskListener.getLogger().println("Plugin activation DONE but with message: " + serviceNowResult.getStatusMessage());
-                        }
-                        result = true;
-                    } else {
-                        taskListener.getLogger().println("Plugin activation DONE but not completed! Details: " + serviceNowResult.toString());
-                        result = false;
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nPlugin activation DONE.");
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("\nPlugin activation DONE but failed: " + serviceNowResult.getStatusMessage());
+                    result = false;
+                }
+            }
+        } else if(serviceNowResult != null) {
+            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { // SUCCESS
+                if(Integer.valueOf(100).equals(serviceNowResult.getPercentComplete())) {
+                    if(StringUtils.isNotBlank(serviceNowResult.getStatusMessage())) {
+                        taskListener.getLogger().println("Plugin activation DONE but with message: " + serviceNowResult.getStatusMessage());
                     }
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("Plugin activation DONE but not completed! Details: " + serviceNowResult.toString());
+                    result = false;
                 }
             } else { // serve result with the status FAILED
                 LOG.error("Activate plugin request replied with failure: " + serviceNowResult);
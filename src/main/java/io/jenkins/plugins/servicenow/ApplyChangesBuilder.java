@@ -23,6 +23,7 @@ import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.net.UnknownHostException;
+import java.util.Map;
 
 /**
  * Build step responsible for applying changes from a remote source control to a specified local application.
@@ -68,6 +69,11 @@ public class ApplyChangesBuilder extends ProgressBuilder {
         this.branchName = branchName;
     }
 
+    @Override
+    protected Map<String, String> getTraceAttributes() {
+        return applicationAttributes(this.appScope, null);
+    }
+
     @Override
     protected void setupBuilderParameters(EnvVars environment) {
         super.setupBuilderParameters(environment);
@@ -105,9 +111,7 @@ public class ApplyChangesBuilder extends ProgressBuilder {
     }
 
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
-
+    protected Result startAction(Run<?, ?> run, @NonNull TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Apply changes");
 
         Result serviceNowResult = null;
@@ -122,29 +126,26 @@ public class ApplyChangesBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex.getMessage());
         }
 
-        if(serviceNowResult != null) {
-
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null && ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                        //taskListener.getLogger().println(serviceNowResult.toString());
-                        taskListener.getLogger().println("\nChanges applied.");
-                        result = true;
-                    } else {
-                        String message = serviceNowResult != null ? serviceNowResult.getStatusMessage() : "[no message]";
-                        taskListener.getLogger().println("\nAction DONE but failed: " + message);
-                        result = false;
-                    }
-                }
-            } else { // serve result with the status FAILED
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null && ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                //taskListener.getLogger().println(serviceNowResult.toString());
+                taskListener.getLogger().println("\nChanges applied.");
+                result = true;
+            } else {
+                String message = serviceNowResult != null ? serviceNowResult.getStatusMessage() : "[no message]";
+                taskListener.getLogger().println("\nAction DONE but failed: " + message);
+                result = false;
+            }
+        } else if(serviceNowResult != null) {
+            if(ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { // serve result with the status FAILED
                 LOG.error("Apply changes request replied with failure: " + serviceNowResult);
                 String errorDetail = this.buildErrorDetailFromFailedResponse(serviceNowResult);
                 taskListener.getLogger().println("Error occurred when 'apply changes' action was requested: " + errorDetail);
@@ -1,9 +1,11 @@
 package io.jenkins.plugins.servicenow;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Extension;
 import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.AbstractProject;
 import hudson.model.ParameterValue;
 import hudson.model.Run;
@@ -14,6 +16,8 @@ import io.jenkins.plugins.servicenow.api.ServiceNowApiException;
 import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition;
 import io.jenkins.plugins.servicenow.utils.Validator;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -24,11 +28,15 @@ import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Build step responsible for publishing the specified application and all of its artifacts to the application repository.
@@ -40,13 +48,23 @@ public class BatchInstallBuilder extends ProgressBuilder {
 
     private static final String DEFAULT_MANIFEST_FILE = "now_batch_manifest.json";
 
+    /**
+     * Separator of rollback ids of chunks of the batch in the parameter <code>batchRollbackId</code>.
+     */
+    static final String ROLLBACK_ID_SEPARATOR = ",";
+
     private String batchName;
     private String packages;
     private String notes;
     private String file;
     private Boolean useFile = Boolean.FALSE;
+    private Boolean skipInstalledPackages;
+    private Integer chunkSize;
+    private Integer maxParallelChunks;
 
     private String rollbackId;
+    private transient String resultsUrl;
+    private transient boolean batchSkipped;
 
     @DataBoundConstructor
     public BatchInstallBuilder(final String credentialsId) {
@@ -101,10 +119,180 @@ public class BatchInstallBuilder extends ProgressBuilder {
         this.useFile = useFile;
     }
 
+    public Boolean getSkipInstalledPackages() {
+        return skipInstalledPackages;
+    }
+
+    /**
+     * @param skipInstalledPackages If true, installed versions of all applications of the batch are read from the instance
+     *                              first and applications already installed in the requested version are removed from
+     *                              the batch. The batch is not sent at all if no package remains.
+     */
+    @DataBoundSetter
+    public void setSkipInstalledPackages(Boolean skipInstalledPackages) {
+        this.skipInstalledPackages = skipInstalledPackages;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize Maximum number of packages installed by one batch. Bigger batches are split into chunks
+     *                  installed as separate batches (empty - all packages are installed by one batch).
+     */
+    @DataBoundSetter
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Integer getMaxParallelChunks() {
+        return maxParallelChunks;
+    }
+
+    /**
+     * @param maxParallelChunks Maximum number of chunks of the batch installed at the same time
+     *                          (empty - {@link Constants#MAX_PARALLEL_BATCH_CHUNKS}, one after another).
+     *                          Chunks installed in parallel must not depend on each other.
+     */
+    @DataBoundSetter
+    public void setMaxParallelChunks(Integer maxParallelChunks) {
+        this.maxParallelChunks = maxParallelChunks;
+    }
+
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
+    public void perform(@NonNull Run<?, ?> run, @NonNull FilePath filePath, @NonNull Launcher launcher,
+            @NonNull TaskListener taskListener) throws InterruptedException, IOException {
+        if(this.chunkSize == null || this.chunkSize < 1) {
+            super.perform(run, filePath, launcher, taskListener);
+            return;
+        }
+
+        final EnvVars environment = run.getEnvironment(taskListener);
+        setupBuilderParameters(environment);
+        if(getClientFactory() == null) {
+            ServiceNowModule.getInjector().injectMembers(this);
+        }
+        this.workspace = filePath;
+        if(this.useFile && StringUtils.isBlank(this.file)) {
+            this.setFile(DEFAULT_MANIFEST_FILE);
+        }
+
+        String name = this.batchName;
+        String batchNotes = this.notes;
+        JSONArray batchPackages;
+        try {
+            if(this.useFile) {
+                final String payload = getJsonManifestFromFile(run, taskListener);
+                final JSONObject manifest = StringUtils.isNotBlank(payload) ? JSONObject.fromObject(payload) : new JSONObject();
+                name = manifest.optString("name", StringUtils.EMPTY);
+                batchNotes = manifest.optString("notes", StringUtils.EMPTY);
+                batchPackages = manifest.optJSONArray("packages");
+            } else {
+                batchPackages = JSONArray.fromObject(getPackages());
+            }
+        } catch(IOException | RuntimeException ex) {
+            LOG.warn("Packages of the batch cannot be split into chunks", ex);
+            batchPackages = null;
+        }
+        if(batchPackages == null || batchPackages.size() <= this.chunkSize) {
+            // one batch is enough (errors of the manifest are reported by the batch install)
+            super.perform(run, filePath, launcher, taskListener);
+            return;
+        }
+        final PrintStream logger = taskListener.getLogger();
+        this.batchSkipped = false;
+        if(Boolean.TRUE.equals(this.skipInstalledPackages)) {
+            // packages are removed before the batch is split, so the chunks keep the order of remaining packages
+            setRestClient(createRestClient(run));
+            batchPackages = removeInstalledPackages(batchPackages, logger);
+            if(batchPackages.isEmpty()) {
+                skipBatch();
+                logger.println("\nPackages installation SKIPPED: all packages are already installed.");
+                storeParametersForNextSteps(run);
+                return;
+            }
+        }
+
+        final List<BatchInstallBuilder> builders = new ArrayList<>();
+        final int chunks = (batchPackages.size() + this.chunkSize - 1) / this.chunkSize;
+        for(int i = 0; i < chunks; i++) {
+            final JSONArray chunk = new JSONArray();
+            chunk.addAll(batchPackages.subList(i * this.chunkSize, Math.min((i + 1) * this.chunkSize, batchPackages.size())));
+            builders.add(createChunkBuilder(name + " [" + (i + 1) + "/" + chunks + "]", chunk, batchNotes));
+        }
+        final int maxParallel = this.maxParallelChunks != null && this.maxParallelChunks > 0 ?
+                this.maxParallelChunks : Constants.MAX_PARALLEL_BATCH_CHUNKS;
+        logger.println("\nSTART: ServiceNow - Batch Install of " + batchPackages.size() + " packages in " + chunks +
+                " chunks, " + maxParallel + " at the same time");
+
+        // chunks installed one after another can depend on previous chunks, so they are not installed after a failure
+        final List<ParallelActions.Outcome<BatchInstallBuilder>> outcomes = new ParallelActions<>(builders, maxParallel, maxParallel == 1)
+                .perform(run, filePath, environment, retrieveProgressCheckIntervalParameter(environment), logger,
+                        outcome -> logger.println("\n=== Batch " + outcome.getBuilder().getBatchName() + " ===" + outcome.getOutput()));
+
+        final List<String> rollbackIds = new ArrayList<>();
+        int failed = 0;
+        int skipped = 0;
+        logger.println("\nBatch installation summary:");
+        for(ParallelActions.Outcome<BatchInstallBuilder> outcome : outcomes) {
+            final BatchInstallBuilder chunkBuilder = outcome.getBuilder();
+            if(StringUtils.isNotBlank(chunkBuilder.rollbackId)) {
+                rollbackIds.add(chunkBuilder.rollbackId);
+            }
+            if(outcome.isSkipped()) {
+                skipped++;
+            } else if(!outcome.isSuccess()) {
+                failed++;
+            }
+            logger.println(String.format("\t%s: %s (rollback id: %s)", chunkBuilder.getBatchName(),
+                    outcome.isSuccess() ? "DONE" : (outcome.isSkipped() ? "SKIPPED (previous chunk failed)" : "FAILED"),
+                    StringUtils.defaultIfBlank(chunkBuilder.rollbackId, "-")));
+        }
+        // chunks are rolled back by the batch rollback step in the reverse order
+        this.rollbackId = rollbackIds.isEmpty() ? null : String.join(ROLLBACK_ID_SEPARATOR, rollbackIds);
+
+        storeParametersForNextSteps(run);
+
+        if(failed > 0) {
+            throw new AbortException("Batch installation failed for " + failed + " of " + chunks + " chunk(s)" +
+                    (skipped > 0 ? ", " + skipped + " chunk(s) not installed" : StringUtils.EMPTY));
+        }
+    }
+
+    @Override
+    String getAsyncUnsupportedReason() {
+        return this.chunkSize != null && this.chunkSize > 0 ?
+                "Installation of the batch in chunks ('chunkSize') is not supported by snAsync, use snBatchInstall." : null;
+    }
+
+    /**
+     * @return Build step installing the chunk of packages as a separate batch (with the configuration of this build step).
+     */
+    BatchInstallBuilder createChunkBuilder(final String name, final JSONArray chunk, final String chunkNotes) {
+        final BatchInstallBuilder builder = new BatchInstallBuilder(getCredentialsId());
+        builder.setUrl(getUrl());
+        builder.setOauthCredentialsId(getOauthCredentialsId());
+        builder.setApiVersion(getApiVersion());
+        builder.setProgressTimeout(getProgressTimeout());
+        builder.setPriority(isPriority());
+        builder.setClientFactory(getClientFactory());
+        builder.setBatchName(name);
+        builder.setPackages(chunk.toString());
+        builder.setNotes(chunkNotes);
+        return builder;
+    }
+
+    /**
+     * @return Rollback ids of all batches installed by the build step (one per chunk), in the order of installation.
+     */
+    List<String> getRollbackIds() {
+        return StringUtils.isBlank(this.rollbackId) ? Collections.emptyList() :
+                Arrays.asList(StringUtils.split(this.rollbackId, ROLLBACK_ID_SEPARATOR));
+    }
 
+    @Override
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         if(this.useFile && StringUtils.isBlank(this.file)) {
             this.setFile(DEFAULT_MANIFEST_FILE);
         }
@@ -115,7 +303,9 @@ public class BatchInstallBuilder extends ProgressBuilder {
         taskListener.getLogger().println(" param[batchName]: " + this.batchName);
         taskListener.getLogger().println(" param[notes]: " + this.notes);
         taskListener.getLogger().println(" param[packages]: " + this.packages);
+        taskListener.getLogger().println(" param[skipInstalledPackages]: " + this.skipInstalledPackages);
 
+        this.batchSkipped = false;
         Result serviceNowResult = null;
         try {
             serviceNowResult = executeBatchInstall(run, taskListener);
@@ -130,31 +320,37 @@ public class BatchInstallBuilder extends ProgressBuilder {
             if(LOG.isDebugEnabled()) {
                 LOG.debug("Response from 'batch install' call: " + serviceNowResult.toString());
             }
+            if(isInProgress(serviceNowResult)) {
+                this.rollbackId = getRollbackBatchVersion(serviceNowResult);
+                this.resultsUrl = getResultsUrl(serviceNowResult);
+            }
+        }
 
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    this.rollbackId = getRollbackBatchVersion(serviceNowResult);
-                    final String resultsUrl = getResultsUrl(serviceNowResult);
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nPackages installation DONE.");
-                            result = true;
-                        } else {
-                            taskListener.getLogger().println("\nPackages installation DONE but failed: " + serviceNowResult.getStatusMessage());
-                            taskListener.getLogger().println("Check following link for details: " + resultsUrl);
-                            result = false;
-                        }
-                    }
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        if(this.batchSkipped) {
+            taskListener.getLogger().println("\nPackages installation SKIPPED: all packages are already installed.");
+            return true;
+        }
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nPackages installation DONE.");
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("\nPackages installation DONE but failed: " + serviceNowResult.getStatusMessage());
+                    taskListener.getLogger().println("Check following link for details: " + this.resultsUrl);
+                    result = false;
                 }
-            } else { // serve result with the status FAILED
+            }
+        } else if(serviceNowResult != null) {
+            if(ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { // serve result with the status FAILED
                 LOG.error("'Batch install' request replied with failure: " + serviceNowResult);
                 String errorDetail = this.buildErrorDetailFromFailedResponse(serviceNowResult);
                 taskListener.getLogger().println("Error occurred when 'batch install' was requested: " + errorDetail);
@@ -167,12 +363,96 @@ public class BatchInstallBuilder extends ProgressBuilder {
     }
 
     private Result executeBatchInstall(Run<?, ?> run, TaskListener taskListener) throws URISyntaxException, InterruptedException, IOException {
+        final boolean skipInstalled = Boolean.TRUE.equals(this.skipInstalledPackages);
         if(this.useFile) {
             String payload = getJsonManifestFromFile(run, taskListener);
+            if(skipInstalled && StringUtils.isNotBlank(payload)) {
+                final JSONObject manifest = JSONObject.fromObject(payload);
+                final JSONArray remainingPackages = removeInstalledPackages(manifest.optJSONArray("packages"), taskListener.getLogger());
+                if(remainingPackages.isEmpty()) {
+                    return skipBatch();
+                }
+                manifest.put("packages", remainingPackages);
+                payload = manifest.toString();
+            }
             return getRestClient().batchInstall(payload);
         } else {
-            return getRestClient().batchInstall(batchName, packages, notes);
+            String batchPackages = this.packages;
+            if(skipInstalled && StringUtils.isNotBlank(batchPackages)) {
+                final JSONArray remainingPackages = removeInstalledPackages(JSONArray.fromObject(batchPackages), taskListener.getLogger());
+                if(remainingPackages.isEmpty()) {
+                    return skipBatch();
+                }
+                batchPackages = remainingPackages.toString();
+            }
+            return getRestClient().batchInstall(batchName, batchPackages, notes);
+        }
+    }
+
+    private Result skipBatch() {
+        this.batchSkipped = true;
+        this.rollbackId = null;
+        final Result skippedResult = new Result();
+        skippedResult.setStatus(ActionStatus.SUCCESSFUL.getStatus());
+        skippedResult.setStatusMessage("All packages of the batch are already installed.");
+        return skippedResult;
+    }
+
+    /**
+     * Removes applications already installed in the requested version from the list of packages of the batch.
+     * Installed versions of all applications are read by bulk queries, plugins and packages without the requested
+     * version are always kept.
+     *
+     * @return Packages to install.
+     */
+    private JSONArray removeInstalledPackages(final JSONArray batchPackages, final PrintStream logger) {
+        final JSONArray remainingPackages = new JSONArray();
+        if(batchPackages == null || batchPackages.isEmpty()) {
+            return remainingPackages;
         }
+        final List<String> applicationIds = new ArrayList<>();
+        for(Object batchPackage : batchPackages) {
+            if(isApplicationWithVersion(batchPackage)) {
+                applicationIds.add(((JSONObject) batchPackage).getString("id"));
+            }
+        }
+
+        Map<String, String> installedVersions = Collections.emptyMap();
+        if(!applicationIds.isEmpty()) {
+            try {
+                installedVersions = getRestClient().getInstalledAppVersions(applicationIds);
+            } catch(ServiceNowApiException ex) {
+                logger.format("Error occurred when installed versions of applications were read: '%s' [details: '%s']. All packages will be installed.%n", ex.getMessage(), ex.getDetail());
+            } catch(RuntimeException ex) {
+                logger.println("Installed versions of applications cannot be read: " + ex.getMessage() + ". All packages will be installed.");
+            }
+        }
+
+        int skipped = 0;
+        for(Object batchPackage : batchPackages) {
+            if(isApplicationWithVersion(batchPackage)) {
+                final JSONObject application = (JSONObject) batchPackage;
+                final String requestedVersion = application.getString("requested_version").trim();
+                if(requestedVersion.equals(StringUtils.trimToEmpty(installedVersions.get(application.getString("id"))))) {
+                    logger.println("Package " + application.getString("id") + " is already installed in the version " + requestedVersion + ". SKIPPED.");
+                    skipped++;
+                    continue;
+                }
+            }
+            remainingPackages.add(batchPackage);
+        }
+        logger.println("Packages to install: " + remainingPackages.size() + " (skipped as already installed: " + skipped + ").");
+        return remainingPackages;
+    }
+
+    private static boolean isApplicationWithVersion(final Object batchPackage) {
+        if(!(batchPackage instanceof JSONObject)) {
+            return false;
+        }
+        final JSONObject json = (JSONObject) batchPackage;
+        return "application".equals(json.optString("type")) &&
+                StringUtils.isNotBlank(json.optString("id")) &&
+                StringUtils.isNotBlank(json.optString("requested_version"));
     }
 
     private String getJsonManifestFromFile(Run<?, ?> run, TaskListener taskListener) throws IOException, InterruptedException {
@@ -246,6 +526,27 @@ public class BatchInstallBuilder extends ProgressBuilder {
             return FormValidation.ok();
         }
 
+        public FormValidation doCheckChunkSize(@QueryParameter String value) {
+            return checkPositiveInteger(value);
+        }
+
+        public FormValidation doCheckMaxParallelChunks(@QueryParameter String value) {
+            return checkPositiveInteger(value);
+        }
+
+        private static FormValidation checkPositiveInteger(final String value) {
+            if(StringUtils.isNotBlank(value)) {
+                try {
+                    if(Integer.parseInt(value.trim()) < 1) {
+                        return FormValidation.error(Messages.BatchInstallBuilder_DescriptorImpl_errors_positiveInteger());
+                    }
+                } catch(NumberFormatException ex) {
+                    return FormValidation.error(Messages.BatchInstallBuilder_DescriptorImpl_errors_positiveInteger());
+                }
+            }
+            return FormValidation.ok();
+        }
+
         @Override
         public boolean isApplicable(Class<? extends AbstractProject> aClass) {
             return true;
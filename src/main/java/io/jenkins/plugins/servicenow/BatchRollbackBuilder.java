@@ -1,7 +1,10 @@
 package io.jenkins.plugins.servicenow;
 
+import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.AbstractProject;
 import hudson.model.Run;
 import hudson.model.TaskListener;
@@ -24,7 +27,10 @@ import org.kohsuke.stapler.QueryParameter;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import javax.servlet.ServletException;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Build step initiates a rollback of a specified application to a specified version.
@@ -50,10 +56,73 @@ public class BatchRollbackBuilder extends ProgressBuilder {
         this.rollbackId = rollbackId;
     }
 
+    /**
+     * Rolls back all batches if the rollback id contains ids of many batches (chunks of one batch installation),
+     * one after another in the reverse order of their installation.
+     */
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
+    public void perform(@NonNull Run<?, ?> run, @NonNull FilePath filePath, @NonNull Launcher launcher,
+            @NonNull TaskListener taskListener) throws InterruptedException, IOException {
+        final EnvVars environment = run.getEnvironment(taskListener);
+        setupBuilderParameters(environment);
+        final String[] rollbackIds = StringUtils.split(StringUtils.defaultString(this.rollbackId), BatchInstallBuilder.ROLLBACK_ID_SEPARATOR);
+        if(rollbackIds.length < 2) {
+            super.perform(run, filePath, launcher, taskListener);
+            return;
+        }
+        if(getClientFactory() == null) {
+            ServiceNowModule.getInjector().injectMembers(this);
+        }
+
+        final PrintStream logger = taskListener.getLogger();
+        logger.println("\nSTART: ServiceNow - Batch Rollback of " + rollbackIds.length + " batches (in the reverse order)");
+        final List<BatchRollbackBuilder> builders = new ArrayList<>();
+        for(int i = rollbackIds.length - 1; i >= 0; i--) {
+            builders.add(createBatchBuilder(rollbackIds[i].trim()));
+        }
+        final List<ParallelActions.Outcome<BatchRollbackBuilder>> outcomes = new ParallelActions<>(builders, 1)
+                .perform(run, filePath, environment, retrieveProgressCheckIntervalParameter(environment), logger,
+                        outcome -> logger.println("\n=== Batch " + outcome.getBuilder().getRollbackId() + " ===" + outcome.getOutput()));
+
+        int failed = 0;
+        logger.println("\nBatch rollback summary:");
+        for(ParallelActions.Outcome<BatchRollbackBuilder> outcome : outcomes) {
+            if(!outcome.isSuccess()) {
+                failed++;
+            }
+            logger.println(String.format("\t%s: %s", outcome.getBuilder().getRollbackId(), outcome.isSuccess() ? "DONE" : "FAILED"));
+        }
+
+        storeParametersForNextSteps(run);
+
+        if(failed > 0) {
+            throw new AbortException("Batch rollback failed for " + failed + " of " + rollbackIds.length + " batch(es)");
+        }
+    }
+
+    @Override
+    String getAsyncUnsupportedReason() {
+        return StringUtils.contains(this.rollbackId, BatchInstallBuilder.ROLLBACK_ID_SEPARATOR) ?
+                "Rollback of many batches (chunks of one batch installation) is not supported by snAsync, use snBatchRollback." : null;
+    }
+
+    /**
+     * @return Build step rolling back one batch (with the configuration of this build step).
+     */
+    BatchRollbackBuilder createBatchBuilder(final String batchRollbackId) {
+        final BatchRollbackBuilder builder = new BatchRollbackBuilder(getCredentialsId());
+        builder.setUrl(getUrl());
+        builder.setOauthCredentialsId(getOauthCredentialsId());
+        builder.setApiVersion(getApiVersion());
+        builder.setProgressTimeout(getProgressTimeout());
+        builder.setPriority(isPriority());
+        builder.setClientFactory(getClientFactory());
+        builder.setRollbackId(batchRollbackId);
+        return builder;
+    }
 
+    @Override
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Batch Rollback (batch id: " + this.rollbackId + ")");
         if(StringUtils.isBlank(this.rollbackId) && getGlobalSNParams() == null) {
             taskListener.getLogger().println("WARNING: ServiceNow parameter '" + ServiceNowParameterDefinition.PARAMS_NAMES.batchRollbackId + "' is empty.\n" +
@@ -74,37 +143,34 @@ public class BatchRollbackBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex.getMessage());
         }
 
-        if(serviceNowResult != null) {
-
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nBatch rollback DONE.");
-                            result = true;
-                        } else {
-                            taskListener.getLogger().println("\nBatch rollback DONE but failed: " + serviceNowResult.getStatusMessage());
-                            result = false;
-                        }
-                    }
-                } else { //SUCCESS
-                    if(serviceNowResult.getPercentComplete() == 100) {
-                        if(StringUtils.isNotBlank(serviceNowResult.getStatusMessage())) {
-                            taskListener.getLogger().println("Batch rollback DONE but with message: " + serviceNowResult.getStatusMessage());
-                        }
-                        result = true;
-                    } else {
-                        taskListener.getLogger().println("Batch rollback DONE but not completed! Details: " + serviceNowResult.toString());
-                        result = false;
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nBatch rollback DONE.");
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("\nBatch rollback DONE but failed: " + serviceNowResult.getStatusMessage());
+                    result = false;
+                }
+            }
+        } else if(serviceNowResult != null) {
+            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { //SUCCESS
+                if(Integer.valueOf(100).equals(serviceNowResult.getPercentComplete())) {
+                    if(StringUtils.isNotBlank(serviceNowResult.getStatusMessage())) {
+                        taskListener.getLogger().println("Batch rollback DONE but with message: " + serviceNowResult.getStatusMessage());
                     }
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("Batch rollback DONE but not completed! Details: " + serviceNowResult.toString());
+                    result = false;
                 }
             } else { // serve result with the status FAILED
                 LOG.error("Batch Rollback request replied with failure: " + serviceNowResult);
@@ -5,6 +5,7 @@ public interface BuildParameters {
     String instanceUrl = "instanceUrl";
     String apiVersion = "apiVersion";
     String credentials = "credentials";
+    String oauthCredentials = "oauthCredentials";
     String appSysId = "appSysId";
     String branchName = "branchName";
     String appScope = "appScope";
@@ -12,7 +13,10 @@ public interface BuildParameters {
     String resultId = "result_id";
 
     String progressCheckInterval = "progressCheckInterval";
+    String progressCheckStrategy = "progressCheckStrategy";
 
     String publishedAppVersion = "publishedAppVersion";
     String rollbackAppVersion = "rollbackAppVersion";
+    String appInstallSkipped = "appInstallSkipped";
+    String appPublishSkipped = "appPublishSkipped";
 }
@@ -8,4 +8,35 @@ public final class Constants {
      * Interval in milliseconds between next progress check (ServiceNow API call).
      */
     public static final int PROGRESS_CHECK_INTERVAL = 5000;
+
+    /**
+     * Default time in minutes after which waiting for the progress of an action is given up (0 - no limit).
+     */
+    public static final int PROGRESS_TIMEOUT = 0;
+
+    /**
+     * Default number of instances the application is installed to at the same time by one build step.
+     */
+    public static final int MAX_PARALLEL_TARGETS = 4;
+
+    /**
+     * Default number of chunks of a batch installed at the same time (see {@link BatchInstallBuilder#setChunkSize(Integer)}).
+     * Chunks are installed one after another, so packages can depend on packages of previous chunks.
+     */
+    public static final int MAX_PARALLEL_BATCH_CHUNKS = 1;
+
+    /**
+     * Number of records of test results read from the instance at once when the JUnit report is generated.
+     */
+    public static final int TEST_RESULTS_PAGE_SIZE = 200;
+
+    /**
+     * Number of findings of instance scan read from the instance at once.
+     */
+    public static final int SCAN_FINDINGS_PAGE_SIZE = 500;
+
+    /**
+     * Number of previous builds looked through for the last published version of an application with its content hash.
+     */
+    public static final int PUBLISHED_CONTENT_LOOKUP_BUILDS = 100;
 }
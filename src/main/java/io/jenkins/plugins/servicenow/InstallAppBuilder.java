@@ -1,7 +1,10 @@
 package io.jenkins.plugins.servicenow;
 
+import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.*;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Builder;
@@ -22,13 +25,21 @@ import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Build step used for installation of an application.
+ * The application can be installed to many instances at once (see {@link #setTargets(List)}).
+ * The installation can be skipped if the instance already runs the version to install (see {@link #setSkipIfInstalled(Boolean)}).
  * See API documentation: https://developer.servicenow.com/dev.do#!/reference/api/orlando/rest/cicd-api#cicd-POST-app_repo-install?navFilter=sn_cicd
  */
 public class InstallAppBuilder extends ProgressBuilder {
@@ -41,12 +52,29 @@ public class InstallAppBuilder extends ProgressBuilder {
     private String rollbackAppVersion;
     private String baseAppVersion;
     private Boolean baseAppAutoUpgrade;
+    private Boolean skipIfInstalled;
 
     /**
      * duplicated variable for <code>appVersion</code>, because in <code>appVersion</code> must stay original value
      */
     private String appVersionToInstall;
 
+    private List<InstallTarget> targets;
+    private Integer maxParallelTargets;
+    /**
+     * Rollback versions by identifiers of target instances, produced when the application is installed to many instances.
+     */
+    private transient Map<String, String> targetRollbackVersions;
+    /**
+     * Identifiers of target instances the installation was skipped for (the version was already installed).
+     */
+    private transient List<String> skippedTargets;
+    /**
+     * Key of the installation in {@link InstallationRegistry} (until the installation is finished).
+     */
+    private transient String installationKey;
+    private transient boolean installSkipped;
+
     @DataBoundConstructor
     public InstallAppBuilder(final String credentialsId) {
         super(credentialsId);
@@ -97,10 +125,135 @@ public class InstallAppBuilder extends ProgressBuilder {
         this.baseAppVersion = baseAppVersion;
     }
 
+    public Boolean getSkipIfInstalled() {
+        return skipIfInstalled;
+    }
+
+    /**
+     * @param skipIfInstalled If true, the installed version of the application is read from the instance first and
+     *                        the installation is skipped if it is the version to install. The version is not checked
+     *                        while other builds of this Jenkins install the application to the instance.
+     */
+    @DataBoundSetter
+    public void setSkipIfInstalled(Boolean skipIfInstalled) {
+        this.skipIfInstalled = skipIfInstalled;
+    }
+
+    public List<InstallTarget> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @param targets Instances the application is installed to instead of the instance of the build step
+     *                (every one with its own credentials). Installations are performed concurrently.
+     */
+    @DataBoundSetter
+    public void setTargets(List<InstallTarget> targets) {
+        this.targets = targets;
+    }
+
+    public Integer getMaxParallelTargets() {
+        return maxParallelTargets;
+    }
+
+    /**
+     * @param maxParallelTargets Maximum number of target instances the application is installed to at the same time
+     *                           (empty - {@link Constants#MAX_PARALLEL_TARGETS}).
+     */
+    @DataBoundSetter
+    public void setMaxParallelTargets(Integer maxParallelTargets) {
+        this.maxParallelTargets = maxParallelTargets;
+    }
+
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
+    public void perform(@NonNull Run<?, ?> run, @NonNull FilePath filePath, @NonNull Launcher launcher,
+            @NonNull TaskListener taskListener) throws InterruptedException, IOException {
+        if(this.targets == null || this.targets.isEmpty()) {
+            super.perform(run, filePath, launcher, taskListener);
+            return;
+        }
+
+        final EnvVars environment = run.getEnvironment(taskListener);
+        setupBuilderParameters(environment);
+        if(getClientFactory() == null) {
+            ServiceNowModule.getInjector().injectMembers(this);
+        }
+        final int maxParallel = this.maxParallelTargets != null && this.maxParallelTargets > 0 ?
+                this.maxParallelTargets : Constants.MAX_PARALLEL_TARGETS;
+        final PrintStream logger = taskListener.getLogger();
+        logger.println("\nSTART: ServiceNow - Install the specified application (version: " +
+                Optional.ofNullable(this.appVersionToInstall).orElse("the latest") + ") to " + this.targets.size() +
+                " instances, " + maxParallel + " at the same time");
+
+        final List<InstallAppBuilder> builders = this.targets.stream().map(this::createTargetBuilder).collect(Collectors.toList());
+        final List<ParallelActions.Outcome<InstallAppBuilder>> outcomes = new ParallelActions<>(builders, maxParallel)
+                .perform(run, filePath, environment, retrieveProgressCheckIntervalParameter(environment), logger,
+                        outcome -> logger.println("\n=== Instance " + outcome.getBuilder().getUrl() + " ===" + outcome.getOutput()));
+
+        this.targetRollbackVersions = new LinkedHashMap<>();
+        this.skippedTargets = new ArrayList<>();
+        int failed = 0;
+        logger.println("\nInstallation summary:");
+        for(int i = 0; i < this.targets.size(); i++) {
+            final InstallTarget target = this.targets.get(i);
+            final ParallelActions.Outcome<InstallAppBuilder> outcome = outcomes.get(i);
+            final String rollbackVersion = outcome.getBuilder().rollbackAppVersion;
+            if(StringUtils.isNotBlank(rollbackVersion)) {
+                this.targetRollbackVersions.put(target.getId(), rollbackVersion);
+            }
+            if(outcome.getBuilder().installSkipped) {
+                this.skippedTargets.add(target.getId());
+            }
+            if(!outcome.isSuccess()) {
+                failed++;
+            }
+            logger.println(String.format("\t%s: %s (rollback version: %s)", target,
+                    outcome.isSuccess() ? (outcome.getBuilder().installSkipped ? "SKIPPED (already installed)" : "DONE") : "FAILED",
+                    StringUtils.defaultIfBlank(rollbackVersion, "-")));
+        }
+
+        storeParametersForNextSteps(run);
+
+        if(failed > 0) {
+            throw new AbortException("Installation failed on " + failed + " of " + this.targets.size() + " instance(s)");
+        }
+    }
+
+    @Override
+    String getAsyncUnsupportedReason() {
+        return this.targets != null && !this.targets.isEmpty() ?
+                "Installation to target instances ('targets') is not supported by snAsync, use snInstallApp." : null;
+    }
+
+    /**
+     * @return Build step installing the application (as configured in this build step) to the target instance.
+     */
+    InstallAppBuilder createTargetBuilder(final InstallTarget target) {
+        final InstallAppBuilder builder = new InstallAppBuilder(target.getCredentialsId());
+        builder.setUrl(target.getUrl());
+        builder.setOauthCredentialsId(target.getOauthCredentialsId());
+        builder.setApiVersion(getApiVersion());
+        builder.setProgressTimeout(getProgressTimeout());
+        builder.setPriority(isPriority());
+        builder.setClientFactory(getClientFactory());
+        builder.setAppScope(this.appScope);
+        builder.setAppSysId(this.appSysId);
+        builder.setAppVersion(this.appVersionToInstall);
+        builder.setBaseAppVersion(this.baseAppVersion);
+        builder.setBaseAppAutoUpgrade(this.baseAppAutoUpgrade);
+        builder.setSkipIfInstalled(this.skipIfInstalled);
+        return builder;
+    }
 
+    /**
+     * @return Rollback versions by identifiers of target instances (see {@link InstallTarget#getId()}).
+     */
+    Map<String, String> getTargetRollbackVersions() {
+        return this.targetRollbackVersions != null ? this.targetRollbackVersions : Collections.emptyMap();
+    }
+
+    @Override
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Install the specified application (version: " + Optional.ofNullable(this.appVersionToInstall).orElse("the latest") + ")");
         if(StringUtils.isBlank(this.appVersionToInstall) && getGlobalSNParams() == null) {
             taskListener.getLogger().println("WARNING: Parameter '" + BuildParameters.publishedAppVersion + "' is empty.\n" +
@@ -112,6 +265,16 @@ public class InstallAppBuilder extends ProgressBuilder {
                     "3) lack of additional String Parameter defined for the build with the name " + BuildParameters.publishedAppVersion);
         }
 
+        this.installSkipped = false;
+        this.installationKey = InstallationRegistry.key(getInstanceHost(), this.appScope, this.appSysId);
+        final boolean onlyInstallation = InstallationRegistry.get().register(this.installationKey);
+        if(Boolean.TRUE.equals(this.skipIfInstalled) && isInstalled(taskListener.getLogger(), onlyInstallation)) {
+            this.installSkipped = true;
+            final Result skippedResult = new Result();
+            skippedResult.setStatus(ActionStatus.SUCCESSFUL.getStatus());
+            skippedResult.setStatusMessage("The version " + this.appVersionToInstall + " is already installed.");
+            return skippedResult;
+        }
 
         Result serviceNowResult = null;
         try {
@@ -133,30 +296,77 @@ public class InstallAppBuilder extends ProgressBuilder {
             if(LOG.isDebugEnabled()) {
                 LOG.debug("Response from 'install app' call: " + serviceNowResult.toString());
             }
+            if(isInProgress(serviceNowResult)) {
+                this.rollbackAppVersion = (String)getValue(serviceNowResult, ResponseUnboundParameters.rollbackAppVersion);
+            }
+        }
 
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    this.rollbackAppVersion = (String)getValue(serviceNowResult, ResponseUnboundParameters.rollbackAppVersion);
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nApplication installed with rollback version " + this.rollbackAppVersion);
-                            taskListener.getLogger().println("Installation DONE.");
-                            result = true;
-                        } else {
-                            taskListener.getLogger().println("\nInstallation DONE but failed: " + serviceNowResult.getStatusMessage());
-                            result = false;
-                        }
-                    }
+        return serviceNowResult;
+    }
+
+    /**
+     * @param onlyInstallation True if no other build of this Jenkins installs the application to the instance now.
+     * @return True if the version to install is already installed on the instance.
+     */
+    private boolean isInstalled(final PrintStream logger, final boolean onlyInstallation) {
+        if(StringUtils.isBlank(this.appVersionToInstall)) {
+            logger.println("The installed version is not checked: the version to install is not specified.");
+            return false;
+        }
+        if(!onlyInstallation) {
+            logger.println("The installed version is not checked: another build is installing the application to the instance at the moment.");
+            return false;
+        }
+        try {
+            final String installedVersion = getRestClient().getInstalledAppVersion(this.appScope, this.appSysId);
+            if(this.appVersionToInstall.trim().equals(StringUtils.trimToEmpty(installedVersion))) {
+                logger.println("The version " + installedVersion + " of the application is already installed on the instance. Installation SKIPPED.");
+                return true;
+            }
+            logger.println("Installed version of the application: " + StringUtils.defaultIfBlank(installedVersion, "none"));
+        } catch(ServiceNowApiException ex) {
+            logger.format("Error occurred when the installed version of the application was read: '%s' [details: '%s'].%n", ex.getMessage(), ex.getDetail());
+        } catch(RuntimeException ex) {
+            logger.println("The installed version of the application cannot be read: " + ex.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    protected void actionEnded() {
+        // completeAction is not called if the action is aborted or checking of its progress fails
+        releaseInstallation();
+    }
+
+    private synchronized void releaseInstallation() {
+        if(this.installationKey != null) {
+            InstallationRegistry.get().unregister(this.installationKey);
+            this.installationKey = null;
+        }
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        releaseInstallation();
+        if(this.installSkipped) {
+            return true;
+        }
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nApplication installed with rollback version " + this.rollbackAppVersion);
+                    taskListener.getLogger().println("Installation DONE.");
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("\nInstallation DONE but failed: " + serviceNowResult.getStatusMessage());
+                    result = false;
                 }
-            } else { // serve result with the status FAILED
+            }
+        } else if(serviceNowResult != null) {
+            if(ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { // serve result with the status FAILED
                 LOG.error("Install app request replied with failure: " + serviceNowResult);
                 String errorDetail = this.buildErrorDetailFromFailedResponse(serviceNowResult);
                 taskListener.getLogger().println("Error occurred when installation of the application was requested: " + errorDetail);
@@ -168,6 +378,11 @@ public class InstallAppBuilder extends ProgressBuilder {
         return result;
     }
 
+    @Override
+    protected Map<String, String> getTraceAttributes() {
+        return applicationAttributes(this.appScope, this.appVersionToInstall);
+    }
+
     @Override
     protected void setupBuilderParameters(EnvVars environment) {
         super.setupBuilderParameters(environment);
@@ -223,6 +438,16 @@ public class InstallAppBuilder extends ProgressBuilder {
             }
             LOG.info("Store following rollback version in case of tests failure: " + this.rollbackAppVersion);
         }
+        if(this.installSkipped) {
+            parameters.add(new StringParameterValue(BuildParameters.appInstallSkipped, Boolean.TRUE.toString()));
+        }
+        if(this.skippedTargets != null) {
+            this.skippedTargets.forEach(targetId ->
+                    parameters.add(new StringParameterValue(BuildParameters.appInstallSkipped + "_" + targetId, Boolean.TRUE.toString())));
+        }
+        // rollback versions of target instances, e.g. rollbackAppVersion_emea
+        getTargetRollbackVersions().forEach((targetId, version) ->
+                parameters.add(new StringParameterValue(BuildParameters.rollbackAppVersion + "_" + targetId, version)));
 
         return parameters;
     }
@@ -240,6 +465,19 @@ public class InstallAppBuilder extends ProgressBuilder {
             return FormValidation.ok();
         }
 
+        public FormValidation doCheckMaxParallelTargets(@QueryParameter String value) {
+            if(StringUtils.isNotBlank(value)) {
+                try {
+                    if(Integer.parseInt(value.trim()) < 1) {
+                        return FormValidation.error(Messages.InstallAppBuilder_DescriptorImpl_errors_maxParallelTargets());
+                    }
+                } catch(NumberFormatException ex) {
+                    return FormValidation.error(Messages.InstallAppBuilder_DescriptorImpl_errors_maxParallelTargets());
+                }
+            }
+            return FormValidation.ok();
+        }
+
         @Override
         public boolean isApplicable(Class<? extends AbstractProject> aClass) {
             return true;
@@ -0,0 +1,100 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.servicenow.utils.Validator;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+
+/**
+ * Instance the application is installed to by {@link InstallAppBuilder} (one of many instances installed at once).
+ */
+public class InstallTarget extends AbstractDescribableImpl<InstallTarget> {
+
+    private final String url;
+    private final String credentialsId;
+    private String oauthCredentialsId;
+    private String name;
+
+    @DataBoundConstructor
+    public InstallTarget(final String url, final String credentialsId) {
+        this.url = url;
+        this.credentialsId = credentialsId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getCredentialsId() {
+        return credentialsId;
+    }
+
+    public String getOauthCredentialsId() {
+        return oauthCredentialsId;
+    }
+
+    @DataBoundSetter
+    public void setOauthCredentialsId(String oauthCredentialsId) {
+        this.oauthCredentialsId = Util.fixEmptyAndTrim(oauthCredentialsId);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name Short name of the instance (e.g. <code>emea</code>) used in names of build parameters produced for the instance.
+     *             The host name of the instance is used if the name is empty.
+     */
+    @DataBoundSetter
+    public void setName(String name) {
+        this.name = Util.fixEmptyAndTrim(name);
+    }
+
+    /**
+     * @return Name of the instance or its host name, with characters other than letters, digits and underscores
+     * replaced by underscores (so it can be a part of the name of an environment variable).
+     */
+    public String getId() {
+        String id = this.name;
+        if(StringUtils.isBlank(id)) {
+            try {
+                id = URI.create(StringUtils.trimToEmpty(this.url)).getHost();
+            } catch(IllegalArgumentException ex) {
+                id = null;
+            }
+        }
+        return StringUtils.defaultIfBlank(id, "instance").replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    @Override
+    public String toString() {
+        return StringUtils.isNotBlank(this.name) ? this.name + " (" + this.url + ")" : this.url;
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<InstallTarget> {
+
+        public FormValidation doCheckUrl(@QueryParameter String value) {
+            if(StringUtils.isBlank(value) || !Validator.validateInstanceUrl(value)) {
+                return FormValidation.error(Messages.ServiceNowBuilder_DescriptorImpl_errors_wrongUrl());
+            }
+            return FormValidation.ok();
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.InstallTarget_DescriptorImpl_DisplayName();
+        }
+    }
+}
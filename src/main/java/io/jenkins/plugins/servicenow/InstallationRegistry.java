@@ -0,0 +1,53 @@
+package io.jenkins.plugins.servicenow;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Installations of applications currently performed by build steps of this Jenkins, by instance and application.
+ * The version of an application read from an instance is up to date only if no other build is installing
+ * the application to the instance at the same time, so {@link InstallAppBuilder} skips the installation
+ * of an already installed version only if its installation is the only one registered here.
+ */
+final class InstallationRegistry {
+
+    private static final InstallationRegistry INSTANCE = new InstallationRegistry();
+
+    private final Map<String, Integer> installations = new ConcurrentHashMap<>();
+
+    InstallationRegistry() {
+    }
+
+    static InstallationRegistry get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Key of installations of the application (identified by the system id or by the scope) to the instance.
+     */
+    static String key(final String instance, final String appScope, final String appSysId) {
+        return StringUtils.defaultString(instance) + "|" + StringUtils.defaultIfBlank(appSysId, appScope);
+    }
+
+    /**
+     * Registers the installation of the application, it must be unregistered once it is finished.
+     *
+     * @return True if no other installation of the application to the instance is in progress.
+     */
+    boolean register(final String key) {
+        return this.installations.merge(key, 1, Integer::sum) == 1;
+    }
+
+    void unregister(final String key) {
+        this.installations.computeIfPresent(key, (installation, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * @return Number of installations of the application to the instance in progress.
+     */
+    int getInstallations(final String key) {
+        return this.installations.getOrDefault(key, 0);
+    }
+}
@@ -3,6 +3,7 @@ package io.jenkins.plugins.servicenow;
 import com.google.inject.Inject;
 import hudson.EnvVars;
 import hudson.Extension;
+import hudson.FilePath;
 import hudson.model.AbstractProject;
 import hudson.model.Run;
 import hudson.model.TaskListener;
@@ -14,6 +15,7 @@ import io.jenkins.plugins.servicenow.api.ActionStatus;
 import io.jenkins.plugins.servicenow.api.ServiceNowApiException;
 import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.instancescan.ScanAction;
+import io.jenkins.plugins.servicenow.instancescan.ScanFindingsReport;
 import io.jenkins.plugins.servicenow.instancescan.ScanParameters;
 import io.jenkins.plugins.servicenow.instancescan.ScanType;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition;
@@ -30,8 +32,12 @@ import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +45,8 @@ import java.util.Set;
 /**
  * Build step responsible for instance scan as well as getting progress and results of runs.
  * See API documentation: https://developer.servicenow.com/dev.do#!/reference/api/quebec/....
+ * Findings of the scan can be written to a SARIF report and can fail the build step
+ * (see {@link #setFindingsReport(String)}, {@link #setMaxFindings(Integer)} and {@link #setFailOnPriority(String)}).
  */
 public class InstanceScanBuilder extends ProgressBuilder {
 
@@ -50,6 +58,9 @@ public class InstanceScanBuilder extends ProgressBuilder {
     private String comboSysId;
     private String suiteSysId;
     private String requestBody;
+    private String findingsReport;
+    private Integer maxFindings;
+    private String failOnPriority;
 
     private Set<ScanAction> scanExecutions;
 
@@ -112,6 +123,50 @@ public class InstanceScanBuilder extends ProgressBuilder {
         this.requestBody = requestBody;
     }
 
+    public String getFindingsReport() {
+        return findingsReport;
+    }
+
+    /**
+     * @param findingsReport Path of the SARIF report with findings of the scan, relative to the workspace (empty - no report).
+     */
+    @DataBoundSetter
+    public void setFindingsReport(String findingsReport) {
+        this.findingsReport = findingsReport;
+    }
+
+    public Integer getMaxFindings() {
+        return maxFindings;
+    }
+
+    /**
+     * @param maxFindings Maximum number of findings of the scan, the build step fails if there are more of them (empty - no limit).
+     */
+    @DataBoundSetter
+    public void setMaxFindings(Integer maxFindings) {
+        this.maxFindings = maxFindings;
+    }
+
+    public String getFailOnPriority() {
+        return failOnPriority;
+    }
+
+    /**
+     * @param failOnPriority Name of the priority ({@link ScanFindingsReport.Priority}), the build step fails if there is
+     *                       any finding of this priority or a higher one (empty - findings do not fail the build step).
+     *                       The name is case-insensitive.
+     * @throws IllegalArgumentException if the name is not a name of any priority
+     */
+    @DataBoundSetter
+    public void setFailOnPriority(String failOnPriority) {
+        final String name = StringUtils.upperCase(StringUtils.trimToNull(failOnPriority), Locale.ROOT);
+        if(name != null && Arrays.stream(ScanFindingsReport.Priority.values()).noneMatch(priority -> priority.name().equals(name))) {
+            throw new IllegalArgumentException("Unknown priority '" + failOnPriority + "'! Use one of "
+                    + Arrays.toString(ScanFindingsReport.Priority.values()) + ".");
+        }
+        this.failOnPriority = name;
+    }
+
     @Inject
     public void setScanExecutions(Set<ScanAction> scanExecutions) {
         this.scanExecutions = scanExecutions;
@@ -135,9 +190,7 @@ public class InstanceScanBuilder extends ProgressBuilder {
     }
 
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
-
+    protected Result startAction(Run<?, ?> run, @NonNull TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Instance scan");
         taskListener.getLogger().println("Scan type: " + this.scanType);
         taskListener.getLogger().println(" param[target table]: " + this.targetTable);
@@ -169,36 +222,33 @@ public class InstanceScanBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex.getMessage());
         }
 
-        if(serviceNowResult != null) {
-
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null && ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                        taskListener.getLogger().println("\nInstance scan executed with message: '" + serviceNowResult.getStatusMessage() + "'.");
-                        result = true;
-                    } else {
-                        String message = serviceNowResult != null ? serviceNowResult.getStatusMessage() : "[no message]";
-                        String errorMsg = serviceNowResult != null ? serviceNowResult.getError() : StringUtils.EMPTY;
-                        taskListener.getLogger().println("\nAction DONE but failed: '" + message + "'.");
-                        if(StringUtils.isNotBlank(errorMsg)) {
-                            taskListener.getLogger().println("Error message in the response from ServiceNow instance: '" + errorMsg + "'.");
-                        }
-                        result = false;
-                    }
-
-                    getResultLink(serviceNowResult).ifPresent(resultLink -> {
-                        taskListener.getLogger().println("Link with results after scan: " + resultLink);
-                    });
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null && ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                taskListener.getLogger().println("\nInstance scan executed with message: '" + serviceNowResult.getStatusMessage() + "'.");
+                result = processFindings(taskListener, serviceNowResult);
+            } else {
+                String message = serviceNowResult != null ? serviceNowResult.getStatusMessage() : "[no message]";
+                String errorMsg = serviceNowResult != null ? serviceNowResult.getError() : StringUtils.EMPTY;
+                taskListener.getLogger().println("\nAction DONE but failed: '" + message + "'.");
+                if(StringUtils.isNotBlank(errorMsg)) {
+                    taskListener.getLogger().println("Error message in the response from ServiceNow instance: '" + errorMsg + "'.");
                 }
-            } else { // serve result with the status FAILED
+                result = false;
+            }
+
+            getResultLink(serviceNowResult).ifPresent(resultLink -> {
+                taskListener.getLogger().println("Link with results after scan: " + resultLink);
+            });
+        } else if(serviceNowResult != null) {
+            if(ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { // serve result with the status FAILED
                 LOG.error("Instance scan request replied with failure: " + serviceNowResult);
                 String errorDetail = this.buildErrorDetailFromFailedResponse(serviceNowResult);
                 taskListener.getLogger().println("Error occurred when instance scan was requested: " + errorDetail);
@@ -210,6 +260,72 @@ public class InstanceScanBuilder extends ProgressBuilder {
         return result;
     }
 
+    /**
+     * Streams findings of the scan into the SARIF report (if configured) and checks them against thresholds.
+     *
+     * @return <code>false</code> if findings cannot be read or they exceed one of thresholds.
+     */
+    private boolean processFindings(@NonNull TaskListener taskListener, final Result serviceNowResult) {
+        if(StringUtils.isBlank(this.findingsReport) && this.maxFindings == null && this.failOnPriority == null) {
+            return true;
+        }
+        final PrintStream logger = taskListener.getLogger();
+        final String scanResultId = serviceNowResult.getLinks() != null && serviceNowResult.getLinks().getResults() != null ?
+                serviceNowResult.getLinks().getResults().getId() : null;
+        if(StringUtils.isBlank(scanResultId)) {
+            logger.println("Findings of the scan cannot be read: the instance did not return the id of the scan result.");
+            return false;
+        }
+
+        final ScanFindingsReport.Summary summary;
+        try {
+            final ScanFindingsReport report = new ScanFindingsReport(getRestClient(), Constants.SCAN_FINDINGS_PAGE_SIZE);
+            if(StringUtils.isNotBlank(this.findingsReport) && this.workspace != null) {
+                final FilePath reportFile = this.workspace.child(this.findingsReport.trim());
+                final FilePath reportDirectory = reportFile.getParent();
+                if(reportDirectory != null) {
+                    reportDirectory.mkdirs();
+                }
+                try(OutputStream output = reportFile.write()) {
+                    summary = report.write(scanResultId, output);
+                }
+                logger.println("Findings of the scan written to " + this.findingsReport.trim());
+            } else {
+                if(StringUtils.isNotBlank(this.findingsReport)) {
+                    logger.println("Report of findings is not written: the build step has no workspace.");
+                }
+                summary = report.write(scanResultId, OutputStream.nullOutputStream());
+            }
+        } catch(ServiceNowApiException ex) {
+            logger.format("Error occurred when findings of the scan were read: '%s' [details: '%s'].%n", ex.getMessage(), ex.getDetail());
+            return false;
+        } catch(IOException ex) {
+            LOG.error("Findings of the scan cannot be written", ex);
+            logger.println("Findings of the scan cannot be written: " + ex.getMessage());
+            return false;
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.println("Reading of findings of the scan was interrupted.");
+            return false;
+        }
+        logger.println("Instance scan found " + summary);
+
+        boolean result = true;
+        if(this.maxFindings != null && summary.getTotal() > this.maxFindings) {
+            logger.println("The number of findings " + summary.getTotal() + " exceeds the limit " + this.maxFindings + ".");
+            result = false;
+        }
+        if(this.failOnPriority != null) {
+            final ScanFindingsReport.Priority priority = ScanFindingsReport.Priority.valueOf(this.failOnPriority);
+            final int count = summary.getCountAtLeast(priority);
+            if(count > 0) {
+                logger.println("There are " + count + " finding(s) of the priority " + CustomMessages.translatePriority(priority) + " or higher.");
+                result = false;
+            }
+        }
+        return result;
+    }
+
     private Optional<String> getResultLink(final Result serviceNowResult) {
         if(serviceNowResult != null && serviceNowResult.getLinks() != null && serviceNowResult.getLinks().getResults() != null) {
             return Optional.of(serviceNowResult.getLinks().getResults().getUrl());
@@ -295,6 +411,24 @@ public class InstanceScanBuilder extends ProgressBuilder {
             return items;
         }
 
+        public ListBoxModel doFillFailOnPriorityItems() {
+            ListBoxModel items = new ListBoxModel();
+            items.add(Messages.InstanceScanBuilder_FailOnPriority_none(), StringUtils.EMPTY);
+
+            for(ScanFindingsReport.Priority priority : ScanFindingsReport.Priority.values()) {
+                items.add(CustomMessages.translatePriority(priority), priority.name());
+            }
+
+            return items;
+        }
+
+        public FormValidation doCheckMaxFindings(@QueryParameter String value) {
+            if(StringUtils.isNotBlank(value) && !StringUtils.isNumeric(value.trim())) {
+                return FormValidation.error(Messages.InstanceScanBuilder_DescriptorImpl_errors_maxFindings());
+            }
+            return FormValidation.ok();
+        }
+
         @Override
         public boolean isApplicable(Class<? extends AbstractProject> aClass) {
             return true;
@@ -321,6 +455,17 @@ public class InstanceScanBuilder extends ProgressBuilder {
 
             return message;
         }
+
+        public static String translatePriority(ScanFindingsReport.Priority priority) {
+            String message = priority.name();
+            try {
+                message = holder.format("InstanceScanBuilder.Priority." + priority.name());
+            } catch(MissingResourceException ex) {
+                InstanceScanBuilder.LOG.error("No translation!", ex);
+            }
+
+            return message;
+        }
     }
 
 }
@@ -0,0 +1,279 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.servicenow.api.InstanceLimiter;
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.apache.commons.lang.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Performs actions of several build steps concurrently, at most <code>maxParallel</code> of them at the same time.
+ * Every action goes through the same stages as the action of {@link ProgressStep} (the permit of {@link InstanceLimiter},
+ * the request of the action, progress checks by the shared {@link io.jenkins.plugins.servicenow.api.ProgressPoller}),
+ * so no thread is blocked while instances work on the actions. Only the calling thread waits for all of them.
+ * <p>
+ * The output of every action is collected separately and reported at once when the action is finished,
+ * so outputs of actions are not interleaved in the build log.
+ * <p>
+ * Actions depending on previous ones (e.g. chunks of a batch installed in order) can be stopped after the first failure:
+ * actions not started yet are then skipped.
+ *
+ * @param <T> Type of build steps performing the actions.
+ */
+final class ParallelActions<T extends ProgressBuilder> {
+
+    private final List<T> builders;
+    private final int maxParallel;
+    private final boolean stopOnFailure;
+
+    private final Map<T, Future<?>> tasks = new ConcurrentHashMap<>();
+    private final Set<T> canceledActions = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped;
+    private volatile boolean failed;
+
+    /**
+     * @param builders    Build steps with the configuration of the actions (prepared by {@link ProgressBuilder#prepare} here).
+     * @param maxParallel Maximum number of actions performed at the same time (at least one).
+     */
+    ParallelActions(final List<T> builders, final int maxParallel) {
+        this(builders, maxParallel, false);
+    }
+
+    /**
+     * @param builders      Build steps with the configuration of the actions (prepared by {@link ProgressBuilder#prepare} here).
+     * @param maxParallel   Maximum number of actions performed at the same time (at least one).
+     * @param stopOnFailure If true, no other action is started after an action failed (running ones are finished).
+     */
+    ParallelActions(final List<T> builders, final int maxParallel, final boolean stopOnFailure) {
+        this.builders = new ArrayList<>(builders);
+        this.maxParallel = Math.max(1, maxParallel);
+        this.stopOnFailure = stopOnFailure;
+    }
+
+    /**
+     * Outcome of the action of one build step.
+     */
+    static final class Outcome<T> {
+        private final T builder;
+        private final boolean success;
+        private final boolean skipped;
+        private final String output;
+        private final Throwable error;
+
+        private Outcome(final T builder, final boolean success, final String output, final Throwable error) {
+            this(builder, success, false, output, error);
+        }
+
+        private Outcome(final T builder, final boolean success, final boolean skipped, final String output,
+                final Throwable error) {
+            this.builder = builder;
+            this.success = success;
+            this.skipped = skipped;
+            this.output = output;
+            this.error = error;
+        }
+
+        /**
+         * @return Outcome of the action not started because a previous action failed.
+         */
+        private static <T> Outcome<T> skipped(final T builder) {
+            return new Outcome<>(builder, false, true, StringUtils.EMPTY, null);
+        }
+
+        T getBuilder() {
+            return builder;
+        }
+
+        boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * @return True if the action was not started because a previous action failed (see stop on failure).
+         */
+        boolean isSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return Output of the build step (what the step would print to the build log).
+         */
+        String getOutput() {
+            return output;
+        }
+
+        /**
+         * @return Error thrown by the build step or null.
+         */
+        Throwable getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Performs all actions and waits until they are finished. If the waiting thread is interrupted, actions not started
+     * yet are skipped and running ones are canceled on their instances.
+     *
+     * @param onOutcome Called with the outcome of every action as soon as the action is finished (from any thread).
+     * @return Outcomes in the order of build steps.
+     */
+    List<Outcome<T>> perform(final Run<?, ?> run, final FilePath workspace, final EnvVars environment,
+            final int progressCheckInterval, final PrintStream logger, final Consumer<Outcome<T>> onOutcome)
+            throws InterruptedException {
+        @SuppressWarnings("unchecked")
+        final Outcome<T>[] outcomes = new Outcome[this.builders.size()];
+        final Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for(int i = 0; i < this.builders.size(); i++) {
+            pending.add(i);
+        }
+
+        final List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        for(int i = 0; i < Math.min(this.maxParallel, this.builders.size()); i++) {
+            lanes.add(nextAction(pending, outcomes, run, workspace, environment, progressCheckInterval, onOutcome));
+        }
+        try {
+            CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0])).get();
+        } catch(InterruptedException ex) {
+            stop(logger);
+            throw ex;
+        } catch(ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    private CompletableFuture<Void> nextAction(final Queue<Integer> pending, final Outcome<T>[] outcomes,
+            final Run<?, ?> run, final FilePath workspace, final EnvVars environment, final int progressCheckInterval,
+            final Consumer<Outcome<T>> onOutcome) {
+        final Integer index = pending.poll();
+        if(index == null || this.stopped) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if(this.failed) {
+            // the action depends on the failed one
+            outcomes[index] = Outcome.skipped(this.builders.get(index));
+            return nextAction(pending, outcomes, run, workspace, environment, progressCheckInterval, onOutcome);
+        }
+        return performAction(this.builders.get(index), run, workspace, environment, progressCheckInterval)
+                .thenCompose(outcome -> {
+                    outcomes[index] = outcome;
+                    if(this.stopOnFailure && !outcome.isSuccess()) {
+                        this.failed = true;
+                    }
+                    onOutcome.accept(outcome);
+                    return nextAction(pending, outcomes, run, workspace, environment, progressCheckInterval, onOutcome);
+                });
+    }
+
+    private CompletableFuture<Outcome<T>> performAction(final T builder, final Run<?, ?> run, final FilePath workspace,
+            final EnvVars environment, final int progressCheckInterval) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final TaskListener listener = new StreamTaskListener(output, StandardCharsets.UTF_8);
+
+        final CompletableFuture<InstanceLimiter.Permit> permitRequest;
+        try {
+            builder.prepare(run, workspace, environment);
+            permitRequest = builder.requestPermit(listener.getLogger());
+        } catch(RuntimeException ex) {
+            builder.endTrace(ex);
+            return CompletableFuture.completedFuture(new Outcome<>(builder, false, getOutput(output, ex), ex));
+        }
+        this.tasks.put(builder, permitRequest);
+
+        return permitRequest
+                .thenComposeAsync(permit -> startAction(builder, run, listener, progressCheckInterval)
+                        .whenComplete((success, ex) -> permit.release()), ActionExecutor.get())
+                .handle((success, ex) -> {
+                    this.tasks.remove(builder);
+                    final Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    builder.endTrace(error);
+                    return new Outcome<>(builder, error == null && Boolean.TRUE.equals(success), getOutput(output, error), error);
+                });
+    }
+
+    private CompletableFuture<Boolean> startAction(final T builder, final Run<?, ?> run, final TaskListener listener,
+            final int progressCheckInterval) {
+        if(this.stopped) {
+            return CompletableFuture.completedFuture(false);
+        }
+        try {
+            final Result serviceNowResult = builder.startAction(run, listener);
+            if(!ProgressBuilder.isInProgress(serviceNowResult)) {
+                builder.traceResult(serviceNowResult, null);
+                return CompletableFuture.completedFuture(builder.completeAction(run, listener, serviceNowResult, false));
+            }
+            listener.getLogger().format("Checking progress");
+            final CompletableFuture<Result> progress = builder.watchProgress(listener.getLogger(), progressCheckInterval);
+            this.tasks.put(builder, progress);
+            if(this.stopped) {
+                progress.cancel(false);
+                // stop() did not know the action requested at the same time, it must not keep running on the instance
+                cancelAction(builder, listener.getLogger());
+            }
+            // results are reported by the action executor to keep threads of the poller for progress checks only
+            return progress.handleAsync((result, ex) -> {
+                builder.traceResult(result, ex);
+                if(ex instanceof TimeoutException) {
+                    listener.getLogger().println("\nThe action was not finished within " + builder.retrieveProgressTimeout() + " minute(s).");
+                    builder.cancelAction(listener.getLogger());
+                    return builder.completeAction(run, listener, null, true);
+                }
+                if(ex != null) {
+                    throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+                }
+                return builder.completeAction(run, listener, result, true);
+            }, ActionExecutor.get());
+        } catch(RuntimeException ex) {
+            final CompletableFuture<Boolean> failure = new CompletableFuture<>();
+            failure.completeExceptionally(ex);
+            return failure;
+        }
+    }
+
+    private void stop(final PrintStream logger) {
+        this.stopped = true;
+        this.tasks.forEach((builder, task) -> {
+            builder.abortTrace(null);
+            task.cancel(false);
+            if(builder.getRestClient() != null && StringUtils.isNotBlank(builder.getRestClient().getLastActionProgressUrl())) {
+                // instances should not keep working on actions of the aborted build
+                cancelAction(builder, logger);
+            }
+        });
+    }
+
+    /**
+     * Cancels the action on its instance once (both stop() and the request of the action can find it).
+     */
+    private void cancelAction(final T builder, final PrintStream logger) {
+        if(this.canceledActions.add(builder)) {
+            builder.cancelAction(logger);
+        }
+    }
+
+    private static String getOutput(final ByteArrayOutputStream output, final Throwable error) {
+        final String text = output.toString(StandardCharsets.UTF_8);
+        return error != null ? text + "\n" + error : text;
+    }
+}
@@ -1,20 +1,27 @@
 package io.jenkins.plugins.servicenow;
 
-import com.google.inject.Guice;
 import com.google.inject.Inject;
 import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.FilePath;
 import hudson.Launcher;
+import hudson.Util;
 import hudson.model.ParameterValue;
 import hudson.model.ParametersAction;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.tasks.Builder;
 import io.jenkins.plugins.servicenow.api.ActionStatus;
+import io.jenkins.plugins.servicenow.api.InstanceLimiter;
+import io.jenkins.plugins.servicenow.api.PollingStrategy;
+import io.jenkins.plugins.servicenow.api.PollingStrategyType;
+import io.jenkins.plugins.servicenow.api.ProgressPoller;
 import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
 import io.jenkins.plugins.servicenow.api.model.Result;
+import io.jenkins.plugins.servicenow.metrics.ServiceNowMetrics;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition;
+import io.jenkins.plugins.servicenow.tracing.ServiceNowTracing;
+import io.jenkins.plugins.servicenow.tracing.StepTrace;
 import jenkins.tasks.SimpleBuildStep;
 import net.sf.json.JSONObject;
 import org.apache.commons.collections.CollectionUtils;
@@ -25,8 +32,19 @@ import org.springframework.util.StopWatch;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.net.URI;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Base class of other build step classes checking a progress of the CI/CD function associated with a passed-in progress ID.
@@ -36,7 +54,10 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
 
     private String url;
     private String credentialsId;
+    private String oauthCredentialsId;
     private String apiVersion;
+    private Integer progressTimeout;
+    private boolean priority;
 
     private JSONObject globalSNParams;
 
@@ -48,6 +69,12 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
      * There is no need to serialize the field.
      */
     private transient ServiceNowAPIClient restClient;
+    private transient PollingStrategyType pollingStrategyType;
+    /**
+     * Trace of the action performed by the build step and the final status of the action reported to the trace.
+     */
+    private transient volatile StepTrace trace;
+    private transient volatile String finalStatus;
 
     public ProgressBuilder(final String credentialsId) {
         super();
@@ -72,6 +99,19 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         return this.credentialsId;
     }
 
+    public String getOauthCredentialsId() {
+        return oauthCredentialsId;
+    }
+
+    /**
+     * @param oauthCredentialsId Credentials with client ID (user name) and client secret (password) of OAuth application
+     *                           registered in the instance. If they are set, requests are authorized with OAuth tokens.
+     */
+    @DataBoundSetter
+    public void setOauthCredentialsId(String oauthCredentialsId) {
+        this.oauthCredentialsId = Util.fixEmptyAndTrim(oauthCredentialsId);
+    }
+
     @DataBoundSetter
     public void setApiVersion(String apiVersion) {
         this.apiVersion = apiVersion;
@@ -81,6 +121,32 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         return apiVersion;
     }
 
+    public Integer getProgressTimeout() {
+        return progressTimeout;
+    }
+
+    /**
+     * @param progressTimeout Time in minutes after which waiting for the action is given up and the action is canceled
+     *                        (0 - no limit, empty - the value from the global configuration is used).
+     */
+    @DataBoundSetter
+    public void setProgressTimeout(Integer progressTimeout) {
+        this.progressTimeout = progressTimeout;
+    }
+
+    public boolean isPriority() {
+        return priority;
+    }
+
+    /**
+     * @param priority True if the action should be performed before actions of other builds waiting for the same instance
+     *                 (e.g. production deployment).
+     */
+    @DataBoundSetter
+    public void setPriority(boolean priority) {
+        this.priority = priority;
+    }
+
     public JSONObject getGlobalSNParams() {
         return globalSNParams;
     }
@@ -108,18 +174,22 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
-        this.workspace = filePath;
-
-        setupBuilderParameters(run.getEnvironment(taskListener));
-
-        if(this.clientFactory == null) {
-            Guice.createInjector(new ServiceNowModule()).injectMembers(this);
-        }
-
-        this.restClient = (ServiceNowAPIClient) this.clientFactory.create(run, url, credentialsId);
+        prepare(run, filePath, run.getEnvironment(taskListener));
         final Integer progressCheckInterval = retrieveProgressCheckIntervalParameter(run.getEnvironment((taskListener)));
 
-        boolean success = perform(run, taskListener, progressCheckInterval);
+        boolean success;
+        try {
+            final InstanceLimiter.Permit permit = acquirePermit(taskListener.getLogger());
+            try {
+                success = perform(run, taskListener, progressCheckInterval);
+            } finally {
+                permit.release();
+            }
+        } catch(InterruptedException | RuntimeException ex) {
+            endTrace(ex);
+            throw ex;
+        }
+        endTrace(null);
 
         stopWatch.stop();
         Long durationInMillis = stopWatch.getTotalTimeMillis();
@@ -132,18 +202,128 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         taskListener.getLogger().println(String.format("Elapsed Time: %s ([%f] seconds)", time, stopWatch.getTotalTimeSeconds()));
 
 
+        storeParametersForNextSteps(run);
+
+        if(Thread.interrupted()) {
+            throw new InterruptedException("The build was aborted while waiting for the ServiceNow action.");
+        }
+        if(!success) {
+            throw new AbortException("Build Failed");
+        }
+    }
+
+    /**
+     * Prepares the builder to perform the action: resolves parameters of the build and initializes the REST client.
+     *
+     * @param run         Current build.
+     * @param filePath    Workspace of the build (can be null if the build step is not run on any node).
+     * @param environment Environment variables of the build.
+     */
+    void prepare(@NonNull Run<?, ?> run, FilePath filePath, @NonNull EnvVars environment) {
+        this.workspace = filePath;
+
+        setupBuilderParameters(environment);
+
+        this.restClient = createRestClient(run);
+        this.pollingStrategyType = retrievePollingStrategyType(environment);
+        startTrace();
+    }
+
+    /**
+     * Creates the REST client of the instance configured for the build step (parameters must be already set up).
+     */
+    ServiceNowAPIClient createRestClient(@NonNull Run<?, ?> run) {
+        if(this.clientFactory == null) {
+            ServiceNowModule.getInjector().injectMembers(this);
+        }
+        return (ServiceNowAPIClient) (StringUtils.isBlank(this.oauthCredentialsId) ?
+                this.clientFactory.create(run, url, credentialsId) :
+                this.clientFactory.create(run, url, credentialsId, oauthCredentialsId));
+    }
+
+    /**
+     * Starts the trace of the action, requests of the REST client are traced as its children.
+     */
+    private void startTrace() {
+        this.finalStatus = null;
+        this.trace = StepTrace.start(getStepType(), getInstanceHost());
+        if(this.restClient != null) {
+            this.restClient.setTraceContext(this.trace.getContext());
+        }
+    }
+
+    /**
+     * Reports the final result of the action to the trace.
+     *
+     * @param serviceNowResult Last result of the action (can be null if the action failed).
+     * @param error            Error of waiting for the action (e.g. {@link TimeoutException}) or null.
+     */
+    void traceResult(final Result serviceNowResult, final Throwable error) {
+        this.finalStatus = getFinalStatus(serviceNowResult, error);
+    }
+
+    /**
+     * Ends the trace of the action with its final status (next calls are ignored). It is called however the action ends
+     * (finished, failed, timed out or aborted), so resources held by the action are released here as well.
+     *
+     * @param error Error of the build step or null.
+     */
+    void endTrace(final Throwable error) {
+        try {
+            final StepTrace currentTrace = this.trace;
+            if(currentTrace != null) {
+                final String status = this.finalStatus;
+                currentTrace.end(status != null ? status : getFinalStatus(null, error), getTraceAttributes(), error);
+            }
+        } finally {
+            actionEnded();
+        }
+    }
+
+    /**
+     * Called once the action is over in any way (also when the build is aborted or checking of the progress fails),
+     * e.g. to release resources held by the action. It can be called more than once.
+     */
+    protected void actionEnded() {
+        // nothing to do here
+    }
+
+    /**
+     * Ends the trace of the action aborted with the build.
+     */
+    void abortTrace(final Throwable cause) {
+        this.finalStatus = "ABORTED";
+        endTrace(cause);
+    }
+
+    /**
+     * @return Attributes of the trace known once the action is finished (e.g. the scope and the version of the application).
+     */
+    protected Map<String, String> getTraceAttributes() {
+        return Collections.emptyMap();
+    }
+
+    protected static Map<String, String> applicationAttributes(final String appScope, final String appVersion) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(ServiceNowTracing.APP_SCOPE, appScope);
+        attributes.put(ServiceNowTracing.APP_VERSION, appVersion);
+        return attributes;
+    }
+
+    /**
+     * Passes parameters produced by the build step (e.g. published application version) to next build steps.
+     *
+     * @param run Current build.
+     */
+    void storeParametersForNextSteps(@NonNull Run<?, ?> run) {
         List<ParameterValue> buildVariablesForNextSteps = this.setupParametersAfterBuildStep();
         if(run.getAction(ParametersAction.class) != null && CollectionUtils.isNotEmpty(buildVariablesForNextSteps)) {
             ParametersAction newAction = run.getAction(ParametersAction.class).createUpdated(buildVariablesForNextSteps);
             run.addOrReplaceAction(newAction);
         }
-
-        if(!success) {
-            throw new AbortException("Build Failed");
-        }
     }
 
-    private int retrieveProgressCheckIntervalParameter(EnvVars environment) {
+    int retrieveProgressCheckIntervalParameter(EnvVars environment) {
         Integer parameter = null;
         try {
             parameter = getGlobalSNParams() != null && getGlobalSNParams().getOrDefault(ServiceNowParameterDefinition.PARAMS_NAMES.progressCheckInterval, null) != null ?
@@ -155,7 +335,205 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         return parameter == null ? Constants.PROGRESS_CHECK_INTERVAL : parameter.intValue();
     }
 
-    protected abstract boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval);
+    /**
+     * Performs the action and waits (blocking current thread) until the progress of the action is finished.
+     *
+     * @return True if the action was finished successfully.
+     */
+    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
+        Result serviceNowResult = startAction(run, taskListener);
+
+        if(isInProgress(serviceNowResult)) {
+            taskListener.getLogger().format("Checking progress");
+            try {
+                serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
+            } catch(InterruptedException e) {
+                serviceNowResult = null;
+                taskListener.getLogger().println("\nThe build was aborted.");
+                cancelAction(taskListener.getLogger());
+                // the build is finished as aborted once the result is reported
+                Thread.currentThread().interrupt();
+            }
+            return completeAction(run, taskListener, serviceNowResult, true);
+        }
+
+        traceResult(serviceNowResult, null);
+        return completeAction(run, taskListener, serviceNowResult, false);
+    }
+
+    /**
+     * Creates new strategy of checking the progress of the action, depending on the type configured in ServiceNow Parameters
+     * or in the build variable {@link BuildParameters#progressCheckStrategy}.
+     *
+     * @param progressCheckInterval Interval in milliseconds between progress checks configured for the build.
+     */
+    PollingStrategy createPollingStrategy(final int progressCheckInterval) {
+        return Optional.ofNullable(this.pollingStrategyType).orElse(PollingStrategyType.fixed).create(progressCheckInterval);
+    }
+
+    private PollingStrategyType retrievePollingStrategyType(EnvVars environment) {
+        final String parameter = getGlobalSNParams() != null && getGlobalSNParams().has(ServiceNowParameterDefinition.PARAMS_NAMES.progressCheckStrategy) ?
+                getGlobalSNParams().getString(ServiceNowParameterDefinition.PARAMS_NAMES.progressCheckStrategy) :
+                environment.get(BuildParameters.progressCheckStrategy);
+        return PollingStrategyType.fromString(parameter);
+    }
+
+    /**
+     * @return Time in minutes after which waiting for the action is given up: the value of the build step
+     * or the default one from the global configuration (0 - no limit).
+     */
+    int retrieveProgressTimeout() {
+        if(this.progressTimeout != null) {
+            return Math.max(0, this.progressTimeout);
+        }
+        final ServiceNowGlobalConfiguration configuration = ServiceNowGlobalConfiguration.get();
+        return configuration != null ? configuration.getProgressTimeout() : Constants.PROGRESS_TIMEOUT;
+    }
+
+    /**
+     * Requests the permit to perform the action on the instance from {@link InstanceLimiter}.
+     * The time spent in the queue of the instance is reported to the build log.
+     *
+     * @return Future completed with the permit that must be released when the action is finished.
+     */
+    CompletableFuture<InstanceLimiter.Permit> requestPermit(final PrintStream logger) {
+        final CompletableFuture<InstanceLimiter.Permit> permit = InstanceLimiter.get().acquire(getUrl(), isPriority());
+        final ServiceNowMetrics metrics = ServiceNowMetrics.get();
+        if(metrics.isEnabled()) {
+            final String host = getInstanceHost();
+            final String stepType = getStepType();
+            permit.thenAccept(acquiredPermit -> metrics.recordQueueWait(host, stepType, acquiredPermit.getWaitTime()));
+        }
+        final StepTrace currentTrace = this.trace;
+        if(!permit.isDone()) {
+            if(currentTrace != null) {
+                currentTrace.startQueue();
+                permit.whenComplete((acquiredPermit, ex) -> currentTrace.endQueue());
+            }
+            logger.println("Waiting for the instance " + getUrl() + " (too many actions of other builds)" +
+                    (isPriority() ? " with the priority" : StringUtils.EMPTY));
+            // the original future is returned, so the caller can leave the queue by cancelling it
+            permit.thenAccept(acquiredPermit -> logger.println(String.format("Waited %.1f seconds in the queue of the instance.",
+                    acquiredPermit.getWaitTime() / 1000.0)));
+        }
+        return permit;
+    }
+
+    private InstanceLimiter.Permit acquirePermit(final PrintStream logger) throws InterruptedException {
+        final CompletableFuture<InstanceLimiter.Permit> permit = requestPermit(logger);
+        try {
+            return permit.get();
+        } catch(InterruptedException ex) {
+            if(!permit.cancel(false)) {
+                permit.thenAccept(InstanceLimiter.Permit::release);
+            }
+            throw ex;
+        } catch(ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Registers the last requested action in {@link ProgressPoller}. The returned future is completed exceptionally
+     * with {@link TimeoutException} if the action is not finished within the progress timeout.
+     */
+    CompletableFuture<Result> watchProgress(final PrintStream logger, final int progressCheckInterval) {
+        if(restClient == null) {
+            throw new IllegalStateException("Service Now REST client was not initialized!");
+        }
+        final AtomicInteger polls = new AtomicInteger();
+        final long start = System.currentTimeMillis();
+        final CompletableFuture<Result> progress = ProgressPoller.get().watch(restClient,
+                createPollingStrategy(progressCheckInterval), progressCheckInterval, () -> {
+                    polls.incrementAndGet();
+                    logger.print(".");
+                });
+        final int timeout = retrieveProgressTimeout();
+        final CompletableFuture<Result> watchedProgress = timeout > 0 ? progress.orTimeout(timeout, TimeUnit.MINUTES) : progress;
+        final ServiceNowMetrics metrics = ServiceNowMetrics.get();
+        if(metrics.isEnabled()) {
+            watchedProgress.whenComplete((result, error) -> metrics.recordAction(getInstanceHost(), getStepType(),
+                    getFinalStatus(result, error), polls.get(), System.currentTimeMillis() - start));
+        }
+        return watchedProgress;
+    }
+
+    /**
+     * @return Type of the build step used in metrics and traces (e.g. <code>ApplyChanges</code>).
+     */
+    String getStepType() {
+        return StringUtils.removeEnd(getClass().getSimpleName(), "Builder");
+    }
+
+    /**
+     * @return Reason why the action cannot be performed by {@link ProgressStep} (e.g. options handled only by
+     * {@link #perform} of the build step, like many target instances) or null if it can be.
+     */
+    String getAsyncUnsupportedReason() {
+        return null;
+    }
+
+    String getInstanceHost() {
+        try {
+            return URI.create(StringUtils.trimToEmpty(getUrl())).getHost();
+        } catch(IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static String getFinalStatus(final Result result, final Throwable error) {
+        if(error instanceof TimeoutException) {
+            return "TIMEOUT";
+        }
+        if(error instanceof CancellationException || error instanceof InterruptedException) {
+            return "ABORTED";
+        }
+        final ActionStatus status = result != null ? ActionStatus.fromStatus(result.getStatus()) : null;
+        return status != null ? status.name() : "ERROR";
+    }
+
+    /**
+     * Cancels the last requested action on ServiceNow instance (e.g. when the build is aborted),
+     * so the instance does not work on the action nobody waits for.
+     */
+    void cancelAction(final PrintStream logger) {
+        if(restClient == null || StringUtils.isBlank(restClient.getLastActionProgressUrl())) {
+            return;
+        }
+        final String progressUrl = restClient.getLastActionProgressUrl();
+        try {
+            final Result result = restClient.cancelProgress();
+            logger.println("Cancellation of the action was requested: " + progressUrl +
+                    (result != null ? " [" + result.getStatusLabel() + "]" : StringUtils.EMPTY));
+        } catch(Exception ex) {
+            logger.println("The action could not be canceled (" + progressUrl + "): " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Requests the action from ServiceNow instance. Errors of the call are reported to the build log.
+     *
+     * @return Result of the request or null if the request failed.
+     */
+    protected abstract Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener);
+
+    /**
+     * Reports the final result of the action to the build log.
+     *
+     * @param serviceNowResult Last result of the action (can be null if checking of the progress failed).
+     * @param progressChecked  False if the result was returned right away by the request of the action
+     *                         (it is then either failed or already finished), true if it comes from the progress check.
+     * @return True if the action was finished successfully.
+     */
+    protected abstract boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked);
+
+    /**
+     * @return True if the result points to the action still processed by ServiceNow instance.
+     */
+    protected static boolean isInProgress(final Result serviceNowResult) {
+        return ProgressPoller.isInProgress(serviceNowResult);
+    }
 
     protected void setupBuilderParameters(EnvVars environment) {
         final String globalSNParams = environment.get(ServiceNowParameterDefinition.PARAMETER_NAME);
@@ -169,6 +547,9 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         if(StringUtils.isBlank(this.credentialsId)) {
             this.credentialsId = environment.get(BuildParameters.credentials);
         }
+        if(StringUtils.isBlank(this.oauthCredentialsId)) {
+            this.oauthCredentialsId = environment.get(BuildParameters.oauthCredentials);
+        }
 
         if(StringUtils.isBlank(this.apiVersion)) {
             this.apiVersion = environment.get(BuildParameters.apiVersion);
@@ -180,25 +561,32 @@ public abstract class ProgressBuilder extends Builder implements SimpleBuildStep
         return Collections.emptyList();
     }
 
+    /**
+     * Waits until the last requested action is finished. If the action exceeds the progress timeout,
+     * it is canceled on the instance and null is returned.
+     */
     protected Result checkProgress(PrintStream logger, int progressCheckInterval) throws InterruptedException {
-        if(restClient == null) {
-            throw new IllegalStateException("Service Now REST client was not initialized!");
-        }
-        Result result = null;
-        do {
-            logger.print(".");
-            result = restClient.checkProgress();
-            if(result != null) {
-                final int progress = result.getPercentComplete();
-                if(progress != 100) {
-                    Thread.sleep(progressCheckInterval);
-                }
+        final Future<Result> progress = watchProgress(logger, progressCheckInterval);
+        try {
+            final Result result = progress.get();
+            traceResult(result, null);
+            return result;
+        } catch(InterruptedException ex) {
+            progress.cancel(false);
+            traceResult(null, ex);
+            throw ex;
+        } catch(ExecutionException ex) {
+            traceResult(null, ex.getCause());
+            if(ex.getCause() instanceof TimeoutException) {
+                logger.println("\nThe action was not finished within " + retrieveProgressTimeout() + " minute(s).");
+                cancelAction(logger);
+                return null;
             }
-        } while(result != null &&
-                !ActionStatus.FAILED.getStatus().equals(result.getStatus()) &&
-                !ActionStatus.SUCCESSFUL.getStatus().equals(result.getStatus()));
-
-        return result;
+            if(ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
     }
 
     protected String buildErrorDetailFromFailedResponse(Result serviceNowResult) {
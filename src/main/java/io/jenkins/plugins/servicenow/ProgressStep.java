@@ -0,0 +1,270 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Descriptor;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.Builder;
+import io.jenkins.plugins.servicenow.api.InstanceLimiter;
+import io.jenkins.plugins.servicenow.api.ProgressPoller;
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Pipeline step performing any of ServiceNow build steps asynchronously. The action is requested by the action executor of the plugin
+ * and its progress is checked by {@link ProgressPoller}, so neither an executor nor a thread is blocked while ServiceNow instance works.
+ * The step can be used outside of the node block, e.g.:
+ * <pre>
+ * snAsync(builder: [$class: 'InstallAppBuilder', credentialsId: 'credentials', url: 'https://instance.service-now.com', appScope: 'x_app'])
+ * </pre>
+ */
+public class ProgressStep extends Step {
+
+    private final ProgressBuilder builder;
+
+    @DataBoundConstructor
+    public ProgressStep(ProgressBuilder builder) {
+        this.builder = builder;
+    }
+
+    public ProgressBuilder getBuilder() {
+        return builder;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new Execution(this.builder, context);
+    }
+
+    static final class Execution extends StepExecution {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Logger LOG = LogManager.getLogger(Execution.class);
+
+        /**
+         * The builder keeps the state of the action only in memory, the action cannot be continued after restart of Jenkins.
+         */
+        private final transient ProgressBuilder builder;
+        private transient volatile Future<?> task;
+        private transient volatile boolean stopped;
+        private transient volatile InstanceLimiter.Permit permit;
+        private transient boolean cancelRequested;
+
+        private volatile String progressUrl;
+
+        Execution(ProgressBuilder builder, StepContext context) {
+            super(context);
+            this.builder = builder;
+        }
+
+        @Override
+        public boolean start() throws Exception {
+            final Run<?, ?> run = getContext().get(Run.class);
+            final TaskListener taskListener = getContext().get(TaskListener.class);
+            final EnvVars environment = getContext().get(EnvVars.class);
+            final FilePath workspace = getContext().get(FilePath.class);
+
+            this.task = ActionExecutor.get().submit(() -> requestAction(run, taskListener, environment, workspace));
+            return false;
+        }
+
+        private void requestAction(Run<?, ?> run, TaskListener taskListener, EnvVars environment, FilePath workspace) {
+            try {
+                this.builder.prepare(run, workspace, environment);
+                final String unsupportedReason = this.builder.getAsyncUnsupportedReason();
+                if(unsupportedReason != null) {
+                    fail(new AbortException(unsupportedReason));
+                    return;
+                }
+                final int progressCheckInterval = this.builder.retrieveProgressCheckIntervalParameter(environment);
+
+                final CompletableFuture<InstanceLimiter.Permit> permitRequest = this.builder.requestPermit(taskListener.getLogger());
+                this.task = permitRequest;
+                permitRequest.thenAcceptAsync(acquiredPermit -> startAction(run, taskListener, progressCheckInterval, acquiredPermit), ActionExecutor.get());
+            } catch(Throwable ex) {
+                fail(ex);
+            }
+        }
+
+        private void startAction(Run<?, ?> run, TaskListener taskListener, int progressCheckInterval, InstanceLimiter.Permit acquiredPermit) {
+            this.permit = acquiredPermit;
+            if(this.stopped) {
+                releasePermit();
+                return;
+            }
+            try {
+                final Result serviceNowResult = this.builder.startAction(run, taskListener);
+                if(ProgressBuilder.isInProgress(serviceNowResult)) {
+                    this.progressUrl = this.builder.getRestClient().getLastActionProgressUrl();
+                    if(this.stopped) {
+                        // the step was stopped while the action was requested, so stop() did not know the action yet
+                        releasePermit();
+                        cancelAction(taskListener);
+                        return;
+                    }
+                    taskListener.getLogger().format("Checking progress");
+                    waitForProgress(run, taskListener, progressCheckInterval);
+                } else {
+                    this.builder.traceResult(serviceNowResult, null);
+                    complete(run, this.builder.completeAction(run, taskListener, serviceNowResult, false));
+                }
+            } catch(Throwable ex) {
+                releasePermit();
+                fail(ex);
+            }
+        }
+
+        private void waitForProgress(Run<?, ?> run, TaskListener taskListener, int progressCheckInterval) {
+            final CompletableFuture<Result> progress = this.builder.watchProgress(taskListener.getLogger(), progressCheckInterval);
+            this.task = progress;
+            if(this.stopped) {
+                progress.cancel(false);
+            }
+            // the result is reported by the action executor to keep threads of the poller for progress checks only
+            progress.whenCompleteAsync((serviceNowResult, ex) -> {
+                if(progress.isCancelled()) {
+                    return;
+                }
+                releasePermit();
+                this.builder.traceResult(serviceNowResult, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                try {
+                    if(ex instanceof TimeoutException) {
+                        taskListener.getLogger().println("\nThe action was not finished within " +
+                                this.builder.retrieveProgressTimeout() + " minute(s).");
+                        this.builder.cancelAction(taskListener.getLogger());
+                        complete(run, this.builder.completeAction(run, taskListener, null, true));
+                    } else if(ex != null) {
+                        fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                    } else {
+                        complete(run, this.builder.completeAction(run, taskListener, serviceNowResult, true));
+                    }
+                } catch(Throwable completionEx) {
+                    fail(completionEx);
+                }
+            }, ActionExecutor.get());
+        }
+
+        private void complete(Run<?, ?> run, boolean success) {
+            releasePermit();
+            this.builder.endTrace(null);
+            if(this.stopped) {
+                return;
+            }
+            this.builder.storeParametersForNextSteps(run);
+            if(success) {
+                getContext().onSuccess(null);
+            } else {
+                getContext().onFailure(new AbortException("Build Failed"));
+            }
+        }
+
+        @Override
+        public void stop(@NonNull Throwable cause) throws Exception {
+            this.stopped = true;
+            final Future<?> currentTask = this.task;
+            if(currentTask != null) {
+                currentTask.cancel(false);
+            }
+            releasePermit();
+            if(this.builder != null && StringUtils.isNotBlank(this.progressUrl)) {
+                // the instance should not keep working on the action of the aborted build
+                final TaskListener taskListener = getContext().get(TaskListener.class);
+                ActionExecutor.get().submit(() -> cancelAction(taskListener));
+            }
+            if(this.builder != null) {
+                this.builder.abortTrace(cause);
+            }
+            getContext().onFailure(cause);
+        }
+
+        /**
+         * Cancels the action on the instance once, both the stop of the step and the request of the action can find out
+         * that the action of the stopped step was started.
+         */
+        private void cancelAction(TaskListener taskListener) {
+            synchronized(this) {
+                if(this.cancelRequested) {
+                    return;
+                }
+                this.cancelRequested = true;
+            }
+            this.builder.cancelAction(taskListener.getLogger());
+        }
+
+        private void fail(Throwable ex) {
+            this.builder.endTrace(ex);
+            getContext().onFailure(ex);
+        }
+
+        private void releasePermit() {
+            final InstanceLimiter.Permit currentPermit = this.permit;
+            if(currentPermit != null) {
+                currentPermit.release();
+            }
+        }
+
+        @Override
+        public void onResume() {
+            LOG.warn("ServiceNow action cannot be resumed after restart of Jenkins [progress: " + this.progressUrl + "]");
+            getContext().onFailure(new AbortException("Jenkins was restarted while waiting for the ServiceNow action!" +
+                    (StringUtils.isNotBlank(this.progressUrl) ? " Check the progress of the action: " + this.progressUrl : StringUtils.EMPTY)));
+        }
+
+        @Override
+        public String getStatus() {
+            if(StringUtils.isNotBlank(this.progressUrl)) {
+                return "waiting for " + this.progressUrl;
+            }
+            return this.permit != null ? "requesting the action" : "waiting for the instance";
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public String getFunctionName() {
+            return "snAsync";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.ProgressStep_DescriptorImpl_DisplayName();
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(Run.class, TaskListener.class, EnvVars.class)));
+        }
+
+        public List<Descriptor<Builder>> getBuilderDescriptors() {
+            return Builder.all().stream()
+                    .filter(descriptor -> ProgressBuilder.class.isAssignableFrom(descriptor.clazz))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package io.jenkins.plugins.servicenow;
 
-import com.google.inject.Guice;
 import hudson.EnvVars;
 import hudson.Extension;
 import hudson.model.*;
@@ -9,6 +8,7 @@ import io.jenkins.plugins.servicenow.api.ActionStatus;
 import io.jenkins.plugins.servicenow.api.ServiceNowApiException;
 import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.application.ApplicationVersion;
+import io.jenkins.plugins.servicenow.application.PublishedAppContent;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition;
 import io.jenkins.plugins.servicenow.utils.Validator;
 import org.apache.commons.lang.StringUtils;
@@ -21,16 +21,19 @@ import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Build step responsible for publishing the specified application and all of its artifacts to the application repository.
  * See API documentation: https://developer.servicenow.com/dev.do#!/reference/api/orlando/rest/cicd-api#cicd-POST-app_repo-publish?navFilter=sn_cicd
+ * The version published by a previous build can be reused if the application did not change (see {@link #setSkipUnchanged(Boolean)}).
  */
 public class PublishAppBuilder extends ProgressBuilder {
 
@@ -43,8 +46,14 @@ public class PublishAppBuilder extends ProgressBuilder {
     private Boolean obtainVersionAutomatically = false;
     private Integer incrementBy;
     private Boolean isAppCustomization;
+    private Boolean skipUnchanged;
 
     private String calculatedAppVersion;
+    /**
+     * Hash of the content of the application in the workspace (if unchanged applications are not published).
+     */
+    private transient String contentHash;
+    private transient boolean publishSkipped;
 
     private ApplicationVersion applicationVersion;
 
@@ -116,24 +125,46 @@ public class PublishAppBuilder extends ProgressBuilder {
         isAppCustomization = appCustomization;
     }
 
+    public Boolean getSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    /**
+     * @param skipUnchanged If true, the hash of the content of the application in the workspace is stored with
+     *                      the published version and the version published by a previous build is reused
+     *                      (nothing is published) if the hash did not change.
+     */
+    @DataBoundSetter
+    public void setSkipUnchanged(Boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
     @Inject
     public void setApplicationVersion(ApplicationVersion applicationVersion) {
         this.applicationVersion = applicationVersion;
     }
 
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
-
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Publish the specified application");
 
         if(!validatePrerequisite(taskListener.getLogger())) {
-            return false;
+            return null;
+        }
+
+        this.contentHash = null;
+        this.publishSkipped = false;
+        if(Boolean.TRUE.equals(this.skipUnchanged) && reusePublishedVersion(run, taskListener.getLogger())) {
+            this.publishSkipped = true;
+            final Result skippedResult = new Result();
+            skippedResult.setStatus(ActionStatus.SUCCESSFUL.getStatus());
+            skippedResult.setStatusMessage("The version " + this.calculatedAppVersion + " is reused.");
+            return skippedResult;
         }
 
         calculateNextAppVersion(run, taskListener);
         if(StringUtils.isBlank(this.calculatedAppVersion)) {
-            return false;
+            return null;
         }
 
         Result serviceNowResult = null;
@@ -145,32 +176,88 @@ public class PublishAppBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex);
         }
 
-        if(serviceNowResult != null) {
-            if(LOG.isDebugEnabled()) {
-                LOG.debug("Response from 'publish app' call: " + serviceNowResult.toString());
-            }
+        if(serviceNowResult != null && LOG.isDebugEnabled()) {
+            LOG.debug("Response from 'publish app' call: " + serviceNowResult.toString());
+        }
 
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nPublishing DONE.");
-                            result = true;
-                        } else {
-                            taskListener.getLogger().println("\nPublishing DONE but failed: " + serviceNowResult.getStatusMessage());
-                            result = false;
-                        }
+        return serviceNowResult;
+    }
+
+    /**
+     * Compares the hash of the content of the application with the one stored by the last build that published
+     * the application and takes its version if they are the same.
+     *
+     * @return True if the application did not change and the version of the last build is reused.
+     */
+    private boolean reusePublishedVersion(Run<?, ?> run, PrintStream logger) {
+        if(this.workspace == null) {
+            logger.println("Content of the application is not checked: the build step has no workspace.");
+            return false;
+        }
+        if(this.applicationVersion == null) {
+            ServiceNowModule.getInjector().injectMembers(this);
+        }
+        try {
+            this.contentHash = this.applicationVersion.getContentHash(this.workspace, this.appScope);
+        } catch(IOException ex) {
+            logger.println("Content of the application is not checked: " + ex.getMessage());
+            LOG.warn("Content of the application cannot be hashed", ex);
+            this.contentHash = null;
+            return false;
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.println("Content of the application is not checked: hashing was interrupted.");
+            this.contentHash = null;
+            return false;
+        }
+        if(StringUtils.isBlank(this.contentHash)) {
+            logger.println("Content of the application is not checked: no file of the application was found in the workspace "
+                    + this.workspace.getRemote() + ".");
+            this.contentHash = null;
+            return false;
+        }
+
+        final PublishedAppContent lastPublished = PublishedAppContent.findLast(run, getInstanceHost(), getApplicationId(),
+                Constants.PUBLISHED_CONTENT_LOOKUP_BUILDS);
+        if(lastPublished != null && this.contentHash.equals(lastPublished.getContentHash())) {
+            this.calculatedAppVersion = lastPublished.getVersion();
+            logger.println("The application did not change since the version " + this.calculatedAppVersion +
+                    " was published. Publishing SKIPPED, the version is reused.");
+            return true;
+        }
+        logger.println("Content of the application changed since the last published version (hash: " + this.contentHash + ").");
+        return false;
+    }
+
+    private String getApplicationId() {
+        return StringUtils.defaultIfBlank(this.appSysId, this.appScope);
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        if(this.publishSkipped) {
+            // the reused version is stored again, so next builds find it even if older builds are discarded
+            run.addAction(new PublishedAppContent(getInstanceHost(), getApplicationId(), this.calculatedAppVersion, this.contentHash));
+            return true;
+        }
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nPublishing DONE.");
+                    if(this.contentHash != null) {
+                        run.addAction(new PublishedAppContent(getInstanceHost(), getApplicationId(), this.calculatedAppVersion, this.contentHash));
                     }
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("\nPublishing DONE but failed: " + serviceNowResult.getStatusMessage());
+                    result = false;
                 }
-            } else { // serve result with the status FAILED
+            }
+        } else if(serviceNowResult != null) {
+            if(ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { // serve result with the status FAILED
                 LOG.error("Publish app request replied with failure: " + serviceNowResult);
                 String errorDetail = this.buildErrorDetailFromFailedResponse(serviceNowResult);
                 taskListener.getLogger().println("Error occurred when publishing the application was requested: " + errorDetail);
@@ -182,6 +269,11 @@ public class PublishAppBuilder extends ProgressBuilder {
         return result;
     }
 
+    @Override
+    protected Map<String, String> getTraceAttributes() {
+        return applicationAttributes(this.appScope, this.calculatedAppVersion);
+    }
+
     @Override
     protected void setupBuilderParameters(EnvVars environment) {
         super.setupBuilderParameters(environment);
@@ -280,7 +372,7 @@ public class PublishAppBuilder extends ProgressBuilder {
             return null;
         }
         if(this.applicationVersion == null) {
-            Guice.createInjector(new ServiceNowModule()).injectMembers(this);
+            ServiceNowModule.getInjector().injectMembers(this);
         }
         final String currentVersion = this.applicationVersion.getVersion(workspacePath, this.appSysId, this.appScope);
         return getNextAppVersion(currentVersion);
@@ -336,6 +428,9 @@ public class PublishAppBuilder extends ProgressBuilder {
             }
             LOG.info("Store following published version to be installed: " + this.calculatedAppVersion);
         }
+        if(this.publishSkipped) {
+            parameters.add(new StringParameterValue(BuildParameters.appPublishSkipped, Boolean.TRUE.toString()));
+        }
         return parameters;
     }
 
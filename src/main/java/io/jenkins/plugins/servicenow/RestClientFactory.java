@@ -3,31 +3,140 @@ package io.jenkins.plugins.servicenow;
 import com.cloudbees.plugins.credentials.CredentialsProvider;
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
 import com.cloudbees.plugins.credentials.domains.DomainRequirement;
+import hudson.Extension;
 import hudson.model.Run;
+import hudson.model.listeners.RunListener;
 import hudson.util.Secret;
+import io.jenkins.plugins.servicenow.api.OAuthTokenProvider;
 import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
 import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Creates clients of ServiceNow instances.
+ * <p>
+ * Clients are cached for the build: the credentials are looked up once per build, instance and credentials,
+ * and following steps of the build get a client sharing them (and the authentication of the instance).
+ * The cache of the build is dropped when the build is finished.
+ */
 public class RestClientFactory implements RunFactory<ServiceNowAPIClient> {
 
+    private static final Logger LOG = LogManager.getLogger(RestClientFactory.class);
+
+    /**
+     * Clients of running builds (key: external identifier of the build, then instance and credentials).
+     */
+    private static final ConcurrentMap<String, ConcurrentMap<String, ServiceNowAPIClient>> CLIENTS = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the client of the instance. Parameters: api url, credentials identifier and optionally identifier
+     * of OAuth client credentials (client ID and client secret stored as user name and password).
+     */
     @Override
     public ServiceNowAPIClient create(Run run, String... parameters) {
-        if(parameters == null || parameters.length != 2) {
-            throw new IllegalArgumentException("Factory requires 2 parameters for api url and credentials identifier!");
+        if(parameters == null || parameters.length < 2 || parameters.length > 3) {
+            throw new IllegalArgumentException("Factory requires 2 parameters for api url and credentials identifier (and optional OAuth credentials identifier)!");
+        }
+        final String apiUrl = parameters[0];
+        final String credentialsId = parameters[1];
+        if(parameters.length == 3 && StringUtils.isNotBlank(parameters[2])) {
+            final String oauthCredentialsId = parameters[2];
+            return getClient(run, apiUrl + "|" + credentialsId + "|" + oauthCredentialsId,
+                    () -> createWithOAuth(run, apiUrl, credentialsId, oauthCredentialsId));
+        }
+        return getClient(run, apiUrl + "|" + credentialsId, () -> create(run, apiUrl, credentialsId));
+    }
+
+    /**
+     * Gets the client from the cache of the build or creates it (when the build does not have the client yet).
+     *
+     * @return New client sharing the set up of the cached one, or <code>null</code> if the client could not be created.
+     */
+    static ServiceNowAPIClient getClient(Run<?, ?> run, String key, Supplier<ServiceNowAPIClient> clientSupplier) {
+        final String runId = run != null ? run.getExternalizableId() : null;
+        if(runId == null) {
+            return clientSupplier.get();
         }
-        return create(run, parameters[0], parameters[1]);
+        final ServiceNowAPIClient cachedClient = CLIENTS.computeIfAbsent(runId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> clientSupplier.get());
+        // a client keeps the progress of its last action, so each step gets its own instance
+        return cachedClient != null ? new ServiceNowAPIClient(cachedClient) : null;
+    }
+
+    /**
+     * Removes clients cached for the build.
+     */
+    static void invalidate(Run<?, ?> run) {
+        final String runId = run.getExternalizableId();
+        if(runId != null) {
+            final Map<String, ServiceNowAPIClient> removed = CLIENTS.remove(runId);
+            if(removed != null) {
+                LOG.debug("Clients of the build were removed from the cache [" + runId + ", clients=" + removed.size() + "]");
+            }
+        }
+    }
+
+    /**
+     * @return Number of clients cached for the build.
+     */
+    static int getCachedClients(Run<?, ?> run) {
+        final Map<String, ServiceNowAPIClient> clients = CLIENTS.get(run.getExternalizableId());
+        return clients != null ? clients.size() : 0;
     }
 
     private ServiceNowAPIClient create(Run<?, ?> run, String apiUrl, String credentialsId) {
-        final StandardUsernamePasswordCredentials usernamePasswordCredentials =
-                CredentialsProvider.findCredentialById(credentialsId, StandardUsernamePasswordCredentials.class, run, new DomainRequirement());
+        final StandardUsernamePasswordCredentials usernamePasswordCredentials = findCredentials(run, credentialsId);
         ServiceNowAPIClient serviceNowAPIClient = null;
         if(usernamePasswordCredentials != null) {
             final Secret password = usernamePasswordCredentials.getPassword();
             serviceNowAPIClient = new ServiceNowAPIClient(apiUrl, usernamePasswordCredentials.getUsername(), password);
-        } else if (StringUtils.isNotBlank(credentialsId)){
-            throw new IllegalArgumentException("Following credentials were not found! [ID=" + credentialsId + "]");
         }
         return serviceNowAPIClient;
     }
+
+    private ServiceNowAPIClient createWithOAuth(Run<?, ?> run, String apiUrl, String credentialsId, String oauthCredentialsId) {
+        final StandardUsernamePasswordCredentials oauthCredentials = findCredentials(run, oauthCredentialsId);
+        // user credentials are optional, the client credentials grant is used without them
+        final StandardUsernamePasswordCredentials userCredentials = findCredentials(run, credentialsId);
+        final OAuthTokenProvider tokenProvider = new OAuthTokenProvider(apiUrl,
+                oauthCredentials.getUsername(), oauthCredentials.getPassword(),
+                userCredentials != null ? userCredentials.getUsername() : null,
+                userCredentials != null ? userCredentials.getPassword() : null);
+        return new ServiceNowAPIClient(apiUrl, tokenProvider);
+    }
+
+    private StandardUsernamePasswordCredentials findCredentials(Run<?, ?> run, String credentialsId) {
+        if(StringUtils.isBlank(credentialsId)) {
+            return null;
+        }
+        final StandardUsernamePasswordCredentials credentials =
+                CredentialsProvider.findCredentialById(credentialsId, StandardUsernamePasswordCredentials.class, run, new DomainRequirement());
+        if(credentials == null) {
+            throw new IllegalArgumentException("Following credentials were not found! [ID=" + credentialsId + "]");
+        }
+        return credentials;
+    }
+
+    /**
+     * Drops the cached clients when the build is finished (or deleted while running).
+     */
+    @Extension
+    public static class ClientCacheInvalidator extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onFinalized(Run<?, ?> run) {
+            invalidate(run);
+        }
+
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            invalidate(run);
+        }
+    }
 }
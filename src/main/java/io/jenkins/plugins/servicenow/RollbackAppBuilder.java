@@ -25,6 +25,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import javax.servlet.ServletException;
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.Map;
 
 /**
  * Build step initiates a rollback of a specified application to a specified version.
@@ -71,9 +72,7 @@ public class RollbackAppBuilder extends ProgressBuilder {
     }
 
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
-
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         taskListener.getLogger().println("\nSTART: ServiceNow - Roll back the specified application (downgrade version: " + this.rollbackAppVersion + ")");
         if(StringUtils.isBlank(this.rollbackAppVersion) && getGlobalSNParams() == null) {
             taskListener.getLogger().println("WARNING: Parameter '" + BuildParameters.rollbackAppVersion + "' is empty.\n" +
@@ -97,37 +96,34 @@ public class RollbackAppBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex.getMessage());
         }
 
-        if(serviceNowResult != null) {
-
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nApplication rollback DONE.");
-                            result = true;
-                        } else {
-                            taskListener.getLogger().println("\nApplication rollback DONE but failed: " + serviceNowResult.getStatusMessage());
-                            result = false;
-                        }
-                    }
-                } else { //SUCCESS
-                    if(serviceNowResult.getPercentComplete() == 100) {
-                        if(StringUtils.isNotBlank(serviceNowResult.getStatusMessage())) {
-                            taskListener.getLogger().println("Application rollback DONE but with message: " + serviceNowResult.getStatusMessage());
-                        }
-                        result = true;
-                    } else {
-                        taskListener.getLogger().println("Application rollback DONE but not completed! Details: " + serviceNowResult.toString());
-                        result = false;
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nApplication rollback DONE.");
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("\nApplication rollback DONE but failed: " + serviceNowResult.getStatusMessage());
+                    result = false;
+                }
+            }
+        } else if(serviceNowResult != null) {
+            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) { //SUCCESS
+                if(Integer.valueOf(100).equals(serviceNowResult.getPercentComplete())) {
+                    if(StringUtils.isNotBlank(serviceNowResult.getStatusMessage())) {
+                        taskListener.getLogger().println("Application rollback DONE but with message: " + serviceNowResult.getStatusMessage());
                     }
+                    result = true;
+                } else {
+                    taskListener.getLogger().println("Application rollback DONE but not completed! Details: " + serviceNowResult.toString());
+                    result = false;
                 }
             } else { // serve result with the status FAILED
                 LOG.error("Rollback app request replied with failure: " + serviceNowResult);
@@ -141,6 +137,11 @@ public class RollbackAppBuilder extends ProgressBuilder {
         return result;
     }
 
+    @Override
+    protected Map<String, String> getTraceAttributes() {
+        return applicationAttributes(this.appScope, this.rollbackAppVersion);
+    }
+
     @Override
     protected void setupBuilderParameters(EnvVars environment) {
         super.setupBuilderParameters(environment);
@@ -1,20 +1,27 @@
 package io.jenkins.plugins.servicenow;
 
+import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.AbstractProject;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Builder;
+import hudson.tasks.junit.JUnitResultArchiver;
 import hudson.util.FormValidation;
 import io.jenkins.plugins.servicenow.api.ActionStatus;
 import io.jenkins.plugins.servicenow.api.ResponseUnboundParameters;
 import io.jenkins.plugins.servicenow.api.ServiceNowApiException;
 import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition;
+import io.jenkins.plugins.servicenow.testresults.JUnitReportWriter;
 import io.jenkins.plugins.servicenow.utils.Validator;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.jenkinsci.Symbol;
@@ -23,7 +30,15 @@ import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Build step runs a specified automated test suite.
@@ -35,11 +50,20 @@ import java.text.MessageFormat;
  *     API doc for get results https://developer.servicenow.com/dev.do#!/reference/api/orlando/rest/cicd-api#cicd-GET-testsuite-results?navFilter=sn_cicd
  * </li>
  * </ul>
+ * Many test suites can be run in many test environments at once (see {@link #setTestSuites(List)} and
+ * {@link #setTestEnvironments(List)}), the verdict of the build step is then aggregated from all runs.
+ * Results of single tests can be written as a JUnit report and published with the build (see {@link #setJunitReport(String)}).
  */
 public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
 
     private static final Logger LOG = LogManager.getLogger(RunTestSuiteWithResultsBuilder.class);
 
+    /**
+     * Locks of builds publishing JUnit reports (by the externalizable id of the build), held only while a report is published.
+     * The monitor of the build itself is not used, it is locked by Jenkins core as well.
+     */
+    private static final ConcurrentMap<String, ReportLock> REPORT_LOCKS = new ConcurrentHashMap<>();
+
     private String browserName;
     private String browserVersion;
     private String osName;
@@ -48,6 +72,15 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
     private String testSuiteSysId;
     private String responseBodyFormat;
     private Boolean withResults;
+    private String junitReport;
+
+    private List<TestSuite> testSuites;
+    private List<TestEnvironment> testEnvironments;
+    private Integer maxParallelRuns;
+    /**
+     * Results of the test suite returned by the instance (if they were requested).
+     */
+    private transient Result testSuiteResults;
 
     @DataBoundConstructor
     public RunTestSuiteWithResultsBuilder(String credentialsId) {
@@ -126,10 +159,202 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
         this.withResults = withResults;
     }
 
+    public String getJunitReport() {
+        return junitReport;
+    }
+
+    /**
+     * @param junitReport Path of the JUnit report with results of tests, relative to the workspace (empty - no report).
+     *                    In the matrix of test suites the number of the run is added to the name of the file of every run.
+     */
+    @DataBoundSetter
+    public void setJunitReport(String junitReport) {
+        this.junitReport = junitReport;
+    }
+
+    public List<TestSuite> getTestSuites() {
+        return testSuites;
+    }
+
+    /**
+     * @param testSuites Test suites run in every test environment instead of the test suite of the build step.
+     */
+    @DataBoundSetter
+    public void setTestSuites(List<TestSuite> testSuites) {
+        this.testSuites = testSuites;
+    }
+
+    public List<TestEnvironment> getTestEnvironments() {
+        return testEnvironments;
+    }
+
+    /**
+     * @param testEnvironments Operating systems and browsers every test suite is run in, instead of the ones of the build step.
+     */
+    @DataBoundSetter
+    public void setTestEnvironments(List<TestEnvironment> testEnvironments) {
+        this.testEnvironments = testEnvironments;
+    }
+
+    public Integer getMaxParallelRuns() {
+        return maxParallelRuns;
+    }
+
+    /**
+     * @param maxParallelRuns Maximum number of test suite runs requested at the same time (empty - all runs of the matrix,
+     *                        the limit of concurrent actions of the instance still applies).
+     */
+    @DataBoundSetter
+    public void setMaxParallelRuns(Integer maxParallelRuns) {
+        this.maxParallelRuns = maxParallelRuns;
+    }
+
     @Override
-    protected boolean perform(Run<?, ?> run, @NonNull final TaskListener taskListener, final Integer progressCheckInterval) {
-        boolean result = false;
+    public void perform(@NonNull Run<?, ?> run, @NonNull FilePath filePath, @NonNull Launcher launcher,
+            @NonNull TaskListener taskListener) throws InterruptedException, IOException {
+        if(CollectionUtils.isEmpty(this.testSuites) && CollectionUtils.isEmpty(this.testEnvironments)) {
+            super.perform(run, filePath, launcher, taskListener);
+            return;
+        }
+
+        final EnvVars environment = run.getEnvironment(taskListener);
+        setupBuilderParameters(environment);
+        if(getClientFactory() == null) {
+            ServiceNowModule.getInjector().injectMembers(this);
+        }
+        final List<RunTestSuiteWithResultsBuilder> builders = createMatrix();
+        final int maxParallel = this.maxParallelRuns != null && this.maxParallelRuns > 0 ? this.maxParallelRuns : builders.size();
+        final PrintStream logger = taskListener.getLogger();
+        logger.printf("%nSTART: ServiceNow - Run the matrix of test suites: %d run(s), %d at the same time%n", builders.size(), maxParallel);
+
+        final List<ParallelActions.Outcome<RunTestSuiteWithResultsBuilder>> outcomes = new ParallelActions<>(builders, maxParallel)
+                .perform(run, filePath, environment, retrieveProgressCheckIntervalParameter(environment), logger,
+                        outcome -> logger.println("\n=== " + outcome.getBuilder().getRunName() + " ===" + outcome.getOutput()));
+
+        final int[] rollup = new int[4];
+        int failedRuns = 0;
+        logger.println("\nTEST SUITE matrix results");
+        for(ParallelActions.Outcome<RunTestSuiteWithResultsBuilder> outcome : outcomes) {
+            final RunTestSuiteWithResultsBuilder builder = outcome.getBuilder();
+            if(!outcome.isSuccess()) {
+                failedRuns++;
+            }
+            final String counts;
+            if(builder.testSuiteResults != null) {
+                final int[] runCounts = getRollupCounts(builder.testSuiteResults);
+                for(int i = 0; i < rollup.length; i++) {
+                    rollup[i] += runCounts[i];
+                }
+                counts = formatRollupCounts(runCounts);
+            } else {
+                counts = "no results";
+            }
+            logger.printf("\t%s: %s (%s)%n", builder.getRunName(), outcome.isSuccess() ? "PASSED" : "FAILED", counts);
+        }
+        logger.printf("\tTotal: %s%n", formatRollupCounts(rollup));
+        logger.printf("Verdict: %s (%d of %d run(s) failed)%n", failedRuns == 0 ? "PASSED" : "FAILED", failedRuns, outcomes.size());
+
+        storeParametersForNextSteps(run);
+
+        if(failedRuns > 0) {
+            throw new AbortException("Test suite matrix failed: " + failedRuns + " of " + outcomes.size() + " run(s) failed");
+        }
+    }
+
+    @Override
+    String getAsyncUnsupportedReason() {
+        return CollectionUtils.isNotEmpty(this.testSuites) || CollectionUtils.isNotEmpty(this.testEnvironments) ?
+                "Matrix of test suites and environments ('testSuites', 'testEnvironments') is not supported by snAsync, use snRunTestSuite." : null;
+    }
+
+    /**
+     * @return Build steps running every test suite in every test environment (the test suite or the environment
+     * of this build step is used if the list of them is empty).
+     */
+    List<RunTestSuiteWithResultsBuilder> createMatrix() {
+        final List<TestSuite> suites = CollectionUtils.isEmpty(this.testSuites) ?
+                Collections.singletonList(getTestSuite()) : this.testSuites;
+        final List<TestEnvironment> environments = CollectionUtils.isEmpty(this.testEnvironments) ?
+                Collections.singletonList(getTestEnvironment()) : this.testEnvironments;
+        final List<RunTestSuiteWithResultsBuilder> builders = new ArrayList<>(suites.size() * environments.size());
+        int runNumber = 0;
+        for(TestSuite suite : suites) {
+            for(TestEnvironment testEnvironment : environments) {
+                final RunTestSuiteWithResultsBuilder builder = new RunTestSuiteWithResultsBuilder(getCredentialsId());
+                builder.setUrl(getUrl());
+                builder.setOauthCredentialsId(getOauthCredentialsId());
+                builder.setApiVersion(getApiVersion());
+                builder.setProgressTimeout(getProgressTimeout());
+                builder.setPriority(isPriority());
+                builder.setClientFactory(getClientFactory());
+                builder.setWithResults(this.withResults);
+                builder.setResponseBodyFormat(this.responseBodyFormat);
+                builder.setTestSuiteName(suite.getTestSuiteName());
+                builder.setTestSuiteSysId(suite.getTestSuiteSysId());
+                builder.setOsName(testEnvironment.getOsName());
+                builder.setOsVersion(testEnvironment.getOsVersion());
+                builder.setBrowserName(testEnvironment.getBrowserName());
+                builder.setBrowserVersion(testEnvironment.getBrowserVersion());
+                builder.setJunitReport(getRunReport(this.junitReport, ++runNumber));
+                builders.add(builder);
+            }
+        }
+        return builders;
+    }
+
+    /**
+     * @return Path of the report with the number of the run added to the name of the file
+     * (e.g. <code>atf-results-2.xml</code> for <code>atf-results.xml</code>).
+     */
+    static String getRunReport(final String report, final int runNumber) {
+        if(StringUtils.isBlank(report)) {
+            return null;
+        }
+        final String path = report.trim();
+        final int extension = path.lastIndexOf('.');
+        return extension > Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) ?
+                path.substring(0, extension) + "-" + runNumber + path.substring(extension) :
+                path + "-" + runNumber;
+    }
 
+    private TestSuite getTestSuite() {
+        final TestSuite suite = new TestSuite();
+        suite.setTestSuiteName(this.testSuiteName);
+        suite.setTestSuiteSysId(this.testSuiteSysId);
+        return suite;
+    }
+
+    private TestEnvironment getTestEnvironment() {
+        final TestEnvironment testEnvironment = new TestEnvironment();
+        testEnvironment.setOsName(this.osName);
+        testEnvironment.setOsVersion(this.osVersion);
+        testEnvironment.setBrowserName(this.browserName);
+        testEnvironment.setBrowserVersion(this.browserVersion);
+        return testEnvironment;
+    }
+
+    String getRunName() {
+        return getTestSuite() + " [" + getTestEnvironment() + "]";
+    }
+
+    /**
+     * @return Numbers of successful, failed, skipped and erroneous tests rolled up in the results of the test suite.
+     */
+    private int[] getRollupCounts(final Result results) {
+        return new int[]{
+                NumberUtils.toInt(String.valueOf(getValue(results, ResponseUnboundParameters.TestResults.rolledupTestSuccessCount))),
+                NumberUtils.toInt(String.valueOf(getValue(results, ResponseUnboundParameters.TestResults.rolledupTestFailureCount))),
+                NumberUtils.toInt(String.valueOf(getValue(results, ResponseUnboundParameters.TestResults.rolledupTestSkipCount))),
+                NumberUtils.toInt(String.valueOf(getValue(results, ResponseUnboundParameters.TestResults.rolledupTestErrorCount)))
+        };
+    }
+
+    private static String formatRollupCounts(final int[] counts) {
+        return String.format("successful %d, failed %d, skipped %d, with error %d", counts[0], counts[1], counts[2], counts[3]);
+    }
+
+    @Override
+    protected Result startAction(Run<?, ?> run, @NonNull final TaskListener taskListener) {
         taskListener.getLogger().printf("%nSTART: ServiceNow - Run test suite '%s' [%s]", this.getTestSuiteName(), this.getTestSuiteSysId());
 
         Result serviceNowResult = null;
@@ -146,35 +371,32 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex);
         }
 
-        if(serviceNowResult != null) {
-            if(LOG.isDebugEnabled()) {
-                LOG.debug("Response from 'run test suite' call: " + serviceNowResult.toString());
-            }
+        if(serviceNowResult != null && LOG.isDebugEnabled()) {
+            LOG.debug("Response from 'run test suite' call: " + serviceNowResult.toString());
+        }
 
-            if(!ActionStatus.FAILED.getStatus().equals(serviceNowResult.getStatus())) {
-                if(!ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                    taskListener.getLogger().format("Checking progress");
-                    try {
-                        serviceNowResult = checkProgress(taskListener.getLogger(), progressCheckInterval);
-                    } catch(InterruptedException e) {
-                        serviceNowResult = null;
-                        e.printStackTrace();
-                        e.printStackTrace(taskListener.getLogger());
-                    }
-                    if(serviceNowResult != null) {
-                        if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
-                            taskListener.getLogger().println("\nTest suite DONE.");
-                            result = true;
-
-                            result &= generateTestResult(taskListener, serviceNowResult);
-                        } else {
-                            taskListener.getLogger().println("\nTest suite DONE but failed: " + serviceNowResult.getStatusMessage());
-                            result = false;
-                        }
-                    }
+        return serviceNowResult;
+    }
+
+    @Override
+    protected boolean completeAction(Run<?, ?> run, @NonNull final TaskListener taskListener,
+            final Result serviceNowResult, final boolean progressChecked) {
+        boolean result = false;
+
+        if(progressChecked) {
+            if(serviceNowResult != null) {
+                if(ActionStatus.SUCCESSFUL.getStatus().equals(serviceNowResult.getStatus())) {
+                    taskListener.getLogger().println("\nTest suite DONE.");
+                    result = true;
+
+                    result &= generateTestResult(taskListener, serviceNowResult);
+                    result &= generateJUnitReport(run, taskListener, serviceNowResult);
+                } else {
+                    taskListener.getLogger().println("\nTest suite DONE but failed: " + serviceNowResult.getStatusMessage());
+                    result = false;
                 }
             }
-        } else {
+        } else if(serviceNowResult == null) {
             taskListener.getLogger().println("Run test suite action failed. Check logs!");
         }
 
@@ -206,6 +428,75 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
         return true;
     }
 
+    /**
+     * Streams results of tests of the test suite run into the JUnit report in the workspace and publishes the report
+     * with the build.
+     */
+    private boolean generateJUnitReport(final Run<?, ?> run, @NonNull final TaskListener taskListener, final Result serviceNowResult) {
+        if(StringUtils.isBlank(this.junitReport)) {
+            return true;
+        }
+        final PrintStream logger = taskListener.getLogger();
+        if(this.workspace == null) {
+            logger.println("JUnit report is not generated: the build step has no workspace.");
+            return true;
+        }
+        final String testSuiteResultsId = serviceNowResult.getLinks() != null && serviceNowResult.getLinks().getResults() != null ?
+                serviceNowResult.getLinks().getResults().getId() : null;
+        if(StringUtils.isBlank(testSuiteResultsId)) {
+            logger.println("JUnit report is not generated: the instance did not return the id of test suite results.");
+            return false;
+        }
+
+        final String reportPath = this.junitReport.trim();
+        try {
+            final FilePath reportFile = this.workspace.child(reportPath);
+            final FilePath reportDirectory = reportFile.getParent();
+            if(reportDirectory != null) {
+                reportDirectory.mkdirs();
+            }
+            final JUnitReportWriter.Summary summary;
+            try(OutputStream output = reportFile.write()) {
+                summary = new JUnitReportWriter(getRestClient(), Constants.TEST_RESULTS_PAGE_SIZE)
+                        .write(testSuiteResultsId, getReportSuiteName(), output);
+            }
+            logger.println("JUnit report " + reportPath + ": " + summary);
+
+            final JUnitResultArchiver archiver = new JUnitResultArchiver(reportPath);
+            archiver.setAllowEmptyResults(true);
+            // runs of the matrix publish their reports to the same build at the same time
+            final String buildId = run.getExternalizableId();
+            final ReportLock lock = REPORT_LOCKS.compute(buildId, (key, current) -> {
+                final ReportLock reportLock = current != null ? current : new ReportLock();
+                reportLock.users++;
+                return reportLock;
+            });
+            try {
+                synchronized(lock) {
+                    archiver.perform(run, this.workspace, this.workspace.createLauncher(taskListener), taskListener);
+                }
+            } finally {
+                REPORT_LOCKS.computeIfPresent(buildId, (key, current) -> --current.users > 0 ? current : null);
+            }
+            return true;
+        } catch(ServiceNowApiException ex) {
+            logger.format("Error occurred when results of tests were read for the JUnit report: '%s' [details: '%s'].%n", ex.getMessage(), ex.getDetail());
+        } catch(IOException ex) {
+            logger.println("JUnit report " + reportPath + " cannot be generated: " + ex.getMessage());
+            LOG.error("JUnit report cannot be generated", ex);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.println("Generation of the JUnit report was interrupted.");
+        }
+        return false;
+    }
+
+    private String getReportSuiteName() {
+        final Object name = this.testSuiteResults != null ?
+                getValue(this.testSuiteResults, ResponseUnboundParameters.TestResults.name) : null;
+        return StringUtils.defaultIfBlank(name != null ? name.toString() : null, StringUtils.defaultIfBlank(this.testSuiteName, this.testSuiteSysId));
+    }
+
     private boolean performTestSuiteResults(final TaskListener taskListener, final String resultsId) {
         boolean result = false;
 
@@ -218,6 +509,7 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
             taskListener.getLogger().println(ex);
         }
 
+        this.testSuiteResults = serviceNowResult;
         if(serviceNowResult != null) {
             taskListener.getLogger().println("TEST SUITE results");
             taskListener.getLogger().println(formatTestResults(serviceNowResult));
@@ -253,6 +545,13 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
         );
     }
 
+    /**
+     * Lock of the build with the number of build steps using it (modified only within operations of the map).
+     */
+    private static final class ReportLock {
+        private int users;
+    }
+
     @Symbol("snRunTestSuite")
     @Extension
     public static final class DescriptorImpl extends BuildStepDescriptor<Builder> {
@@ -266,6 +565,13 @@ public class RunTestSuiteWithResultsBuilder extends ProgressBuilder {
             return FormValidation.ok();
         }
 
+        public FormValidation doCheckMaxParallelRuns(@QueryParameter String value) {
+            if(StringUtils.isNotBlank(value) && NumberUtils.toInt(value.trim()) < 1) {
+                return FormValidation.error(Messages.RunTestSuiteWithResultsBuilder_DescriptorImpl_errors_maxParallelRuns());
+            }
+            return FormValidation.ok();
+        }
+
         @Override
         public boolean isApplicable(Class<? extends AbstractProject> aClass) {
             return true;
@@ -0,0 +1,156 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.Extension;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.servicenow.api.InstanceLimiter;
+import io.jenkins.plugins.servicenow.api.ServiceNowHttpClientPool;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.Jenkins;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+/**
+ * Global settings of the plugin shared by all ServiceNow build steps (Manage Jenkins &gt; Configure System).
+ */
+@Extension
+@Symbol("serviceNowCICD")
+public class ServiceNowGlobalConfiguration extends GlobalConfiguration {
+
+    private int maxConnectionsPerInstance = ServiceNowHttpClientPool.DEFAULT_MAX_CONNECTIONS_PER_INSTANCE;
+    private int connectionKeepAlive = ServiceNowHttpClientPool.DEFAULT_KEEP_ALIVE;
+    private int connectionIdleTimeout = ServiceNowHttpClientPool.DEFAULT_IDLE_TIMEOUT;
+    private int progressTimeout = Constants.PROGRESS_TIMEOUT;
+    private int maxConcurrentActionsPerInstance = InstanceLimiter.DEFAULT_MAX_CONCURRENT_ACTIONS;
+    private int maxActionsPerMinutePerInstance = InstanceLimiter.DEFAULT_MAX_ACTIONS_PER_MINUTE;
+
+    public ServiceNowGlobalConfiguration() {
+        load();
+        applyConnectionPoolSettings();
+        applyInstanceLimits();
+    }
+
+    /**
+     * @return Global configuration of the plugin or null if Jenkins is not running (e.g. in unit tests).
+     */
+    public static ServiceNowGlobalConfiguration get() {
+        if(Jenkins.getInstanceOrNull() == null) {
+            return null;
+        }
+        return GlobalConfiguration.all().get(ServiceNowGlobalConfiguration.class);
+    }
+
+    public int getMaxConnectionsPerInstance() {
+        return maxConnectionsPerInstance;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnectionsPerInstance(int maxConnectionsPerInstance) {
+        this.maxConnectionsPerInstance = maxConnectionsPerInstance;
+        save();
+        applyConnectionPoolSettings();
+    }
+
+    public int getConnectionKeepAlive() {
+        return connectionKeepAlive;
+    }
+
+    @DataBoundSetter
+    public void setConnectionKeepAlive(int connectionKeepAlive) {
+        this.connectionKeepAlive = connectionKeepAlive;
+        save();
+        applyConnectionPoolSettings();
+    }
+
+    public int getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    @DataBoundSetter
+    public void setConnectionIdleTimeout(int connectionIdleTimeout) {
+        this.connectionIdleTimeout = connectionIdleTimeout;
+        save();
+        applyConnectionPoolSettings();
+    }
+
+    /**
+     * @return Time in minutes after which waiting for the progress of an action is given up (0 means no limit).
+     */
+    public int getProgressTimeout() {
+        return progressTimeout;
+    }
+
+    @DataBoundSetter
+    public void setProgressTimeout(int progressTimeout) {
+        this.progressTimeout = Math.max(0, progressTimeout);
+        save();
+    }
+
+    public int getMaxConcurrentActionsPerInstance() {
+        return maxConcurrentActionsPerInstance;
+    }
+
+    @DataBoundSetter
+    public void setMaxConcurrentActionsPerInstance(int maxConcurrentActionsPerInstance) {
+        this.maxConcurrentActionsPerInstance = Math.max(0, maxConcurrentActionsPerInstance);
+        save();
+        applyInstanceLimits();
+    }
+
+    public int getMaxActionsPerMinutePerInstance() {
+        return maxActionsPerMinutePerInstance;
+    }
+
+    @DataBoundSetter
+    public void setMaxActionsPerMinutePerInstance(int maxActionsPerMinutePerInstance) {
+        this.maxActionsPerMinutePerInstance = Math.max(0, maxActionsPerMinutePerInstance);
+        save();
+        applyInstanceLimits();
+    }
+
+    private void applyInstanceLimits() {
+        InstanceLimiter.get().configure(this.maxConcurrentActionsPerInstance, this.maxActionsPerMinutePerInstance);
+    }
+
+    private void applyConnectionPoolSettings() {
+        ServiceNowHttpClientPool.configure(this.maxConnectionsPerInstance, this.connectionKeepAlive, this.connectionIdleTimeout);
+    }
+
+    public FormValidation doCheckMaxConnectionsPerInstance(@QueryParameter Integer value) {
+        return checkPositive(value);
+    }
+
+    public FormValidation doCheckConnectionKeepAlive(@QueryParameter Integer value) {
+        return checkPositive(value);
+    }
+
+    public FormValidation doCheckConnectionIdleTimeout(@QueryParameter Integer value) {
+        return checkPositive(value);
+    }
+
+    public FormValidation doCheckProgressTimeout(@QueryParameter Integer value) {
+        return checkNotNegative(value);
+    }
+
+    public FormValidation doCheckMaxConcurrentActionsPerInstance(@QueryParameter Integer value) {
+        return checkNotNegative(value);
+    }
+
+    public FormValidation doCheckMaxActionsPerMinutePerInstance(@QueryParameter Integer value) {
+        return checkNotNegative(value);
+    }
+
+    private FormValidation checkNotNegative(Integer value) {
+        if(value == null || value < 0) {
+            return FormValidation.error(Messages.ServiceNowGlobalConfiguration_errors_negative());
+        }
+        return FormValidation.ok();
+    }
+
+    private FormValidation checkPositive(Integer value) {
+        if(value == null || value < 1) {
+            return FormValidation.error(Messages.ServiceNowGlobalConfiguration_errors_notPositive());
+        }
+        return FormValidation.ok();
+    }
+}
@@ -1,6 +1,8 @@
 package io.jenkins.plugins.servicenow;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
 import io.jenkins.plugins.servicenow.application.ApplicationVersion;
@@ -13,6 +15,14 @@ public class ServiceNowModule extends AbstractModule {
 
     private static final Logger LOG = LogManager.getLogger(ServiceNowModule.class);
 
+    /**
+     * @return Injector of the module shared by all build steps of the controller. It is created with the first use
+     * (bindings are stateless, so there is no reason to build them again for every build step).
+     */
+    public static Injector getInjector() {
+        return InjectorHolder.INJECTOR;
+    }
+
     @Override
     protected void configure() {
         bind(RunFactory.class).to(RestClientFactory.class).in(Singleton.class);
@@ -29,4 +39,8 @@ public class ServiceNowModule extends AbstractModule {
         scanExecutors.addBinding().to(SuiteScanOnUpdateSets.class);
 
     }
+
+    private static final class InjectorHolder {
+        private static final Injector INJECTOR = Guice.createInjector(new ServiceNowModule());
+    }
 }
@@ -0,0 +1,83 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Operating system and browser of the scheduled client test runner in which {@link RunTestSuiteWithResultsBuilder}
+ * runs every test suite of the matrix. Empty values match any runner.
+ */
+public class TestEnvironment extends AbstractDescribableImpl<TestEnvironment> {
+
+    private String osName;
+    private String osVersion;
+    private String browserName;
+    private String browserVersion;
+
+    @DataBoundConstructor
+    public TestEnvironment() {
+    }
+
+    public String getOsName() {
+        return osName;
+    }
+
+    @DataBoundSetter
+    public void setOsName(String osName) {
+        this.osName = Util.fixEmptyAndTrim(osName);
+    }
+
+    public String getOsVersion() {
+        return osVersion;
+    }
+
+    @DataBoundSetter
+    public void setOsVersion(String osVersion) {
+        this.osVersion = Util.fixEmptyAndTrim(osVersion);
+    }
+
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    @DataBoundSetter
+    public void setBrowserName(String browserName) {
+        this.browserName = Util.fixEmptyAndTrim(browserName);
+    }
+
+    public String getBrowserVersion() {
+        return browserVersion;
+    }
+
+    @DataBoundSetter
+    public void setBrowserVersion(String browserVersion) {
+        this.browserVersion = Util.fixEmptyAndTrim(browserVersion);
+    }
+
+    @Override
+    public String toString() {
+        final String os = Arrays.asList(this.osName, this.osVersion).stream().filter(Objects::nonNull).collect(Collectors.joining(" "));
+        final String browser = Arrays.asList(this.browserName, this.browserVersion).stream().filter(Objects::nonNull).collect(Collectors.joining(" "));
+        return StringUtils.defaultIfBlank(os, "any OS") + " / " + StringUtils.defaultIfBlank(browser, "any browser");
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<TestEnvironment> {
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.TestEnvironment_DescriptorImpl_DisplayName();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Automated test suite run by {@link RunTestSuiteWithResultsBuilder} in every test environment of the matrix.
+ */
+public class TestSuite extends AbstractDescribableImpl<TestSuite> {
+
+    private String testSuiteName;
+    private String testSuiteSysId;
+
+    @DataBoundConstructor
+    public TestSuite() {
+    }
+
+    public String getTestSuiteName() {
+        return testSuiteName;
+    }
+
+    @DataBoundSetter
+    public void setTestSuiteName(String testSuiteName) {
+        this.testSuiteName = Util.fixEmptyAndTrim(testSuiteName);
+    }
+
+    public String getTestSuiteSysId() {
+        return testSuiteSysId;
+    }
+
+    @DataBoundSetter
+    public void setTestSuiteSysId(String testSuiteSysId) {
+        this.testSuiteSysId = Util.fixEmptyAndTrim(testSuiteSysId);
+    }
+
+    @Override
+    public String toString() {
+        return StringUtils.defaultString(this.testSuiteName, this.testSuiteSysId);
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<TestSuite> {
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.TestSuite_DescriptorImpl_DisplayName();
+        }
+    }
+}
@@ -17,4 +17,16 @@ public enum ActionStatus {
         return status;
     }
 
+    /**
+     * @return Status with the given code returned by the API or null if the code is unknown.
+     */
+    public static ActionStatus fromStatus(String status) {
+        for(ActionStatus actionStatus : values()) {
+            if(actionStatus.status.equals(status)) {
+                return actionStatus;
+            }
+        }
+        return null;
+    }
+
 }
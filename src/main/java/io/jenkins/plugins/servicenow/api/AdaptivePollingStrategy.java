@@ -0,0 +1,65 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+
+/**
+ * Checks the progress depending on the estimated time of completion of the action.
+ * The rate of the progress is calculated from the values of 'percent_complete' returned so far and the next check
+ * is scheduled in the half of the estimated remaining time. So long running actions are checked rarely at the beginning
+ * and more often close to the end. Until the progress is reported, the configured interval is used and doubled with every
+ * check without any progress. The delay is always between {@link #MIN_DELAY} and {@link #MAX_DELAY}.
+ */
+public class AdaptivePollingStrategy implements PollingStrategy {
+
+    /**
+     * Minimal time in milliseconds between progress checks.
+     */
+    public static final long MIN_DELAY = 500;
+    /**
+     * Maximal time in milliseconds between progress checks.
+     */
+    public static final long MAX_DELAY = 60_000;
+
+    private final long initialDelay;
+
+    private long firstCheckTime = -1;
+    private int firstPercentComplete;
+    private long lastDelay;
+
+    public AdaptivePollingStrategy(int progressCheckInterval) {
+        this.initialDelay = limit(progressCheckInterval);
+    }
+
+    @Override
+    public long nextDelay(final Result result) {
+        return nextDelay(result, System.currentTimeMillis());
+    }
+
+    long nextDelay(final Result result, final long now) {
+        final int percentComplete = result.getPercentComplete() != null ?
+                Math.max(0, Math.min(100, result.getPercentComplete())) : 0;
+
+        if(this.firstCheckTime < 0) {
+            this.firstCheckTime = now;
+            this.firstPercentComplete = percentComplete;
+            this.lastDelay = this.initialDelay;
+            return this.lastDelay;
+        }
+
+        final int progress = percentComplete - this.firstPercentComplete;
+        final long elapsed = now - this.firstCheckTime;
+        if(progress <= 0 || elapsed <= 0) {
+            // no trend yet, back off
+            this.lastDelay = limit(this.lastDelay * 2);
+            return this.lastDelay;
+        }
+
+        final double remainingTime = (100 - percentComplete) * (double) elapsed / progress;
+        this.lastDelay = limit((long) (remainingTime / 2));
+        return this.lastDelay;
+    }
+
+    private static long limit(final long delay) {
+        return Math.max(MIN_DELAY, Math.min(MAX_DELAY, delay));
+    }
+}
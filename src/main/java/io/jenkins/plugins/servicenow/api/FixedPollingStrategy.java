@@ -0,0 +1,21 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+
+/**
+ * Checks the progress in the same interval all the time. The progress is checked right away if the instance
+ * reports the action 100% complete, but not finished yet.
+ */
+public class FixedPollingStrategy implements PollingStrategy {
+
+    private final int progressCheckInterval;
+
+    public FixedPollingStrategy(int progressCheckInterval) {
+        this.progressCheckInterval = Math.max(0, progressCheckInterval);
+    }
+
+    @Override
+    public long nextDelay(final Result result) {
+        return Integer.valueOf(100).equals(result.getPercentComplete()) ? 0 : this.progressCheckInterval;
+    }
+}
@@ -0,0 +1,286 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.client.utils.URIUtils;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controller-wide limiter of actions performed on ServiceNow instances (installations, test suites, scans etc.).
+ * Every instance has its own budget of actions running at the same time and of actions started within a minute.
+ * Builds waiting for the instance are served in the order they came (FIFO), builds with the priority (e.g. production
+ * deployments) are served before all others. Waiting does not block any thread, the permit is delivered by a future.
+ */
+public final class InstanceLimiter {
+
+    /**
+     * Default maximum number of actions running on one instance at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_ACTIONS = 5;
+    /**
+     * Default maximum number of actions started on one instance within a minute (0 - no limit).
+     */
+    public static final int DEFAULT_MAX_ACTIONS_PER_MINUTE = 0;
+
+    private static final long RATE_WINDOW = TimeUnit.MINUTES.toMillis(1);
+
+    private static final InstanceLimiter INSTANCE = new InstanceLimiter();
+
+    private final ConcurrentMap<String, InstanceBudget> instances = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile int maxConcurrentActions = DEFAULT_MAX_CONCURRENT_ACTIONS;
+    private volatile int maxActionsPerMinute = DEFAULT_MAX_ACTIONS_PER_MINUTE;
+
+    private InstanceLimiter() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "ServiceNow instance limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    public static InstanceLimiter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Applies new budgets to all instances. Builds already waiting are dispatched according to the new budgets.
+     *
+     * @param maxConcurrentActions Maximum number of actions running on one instance at the same time (0 - no limit).
+     * @param maxActionsPerMinute  Maximum number of actions started on one instance within a minute (0 - no limit).
+     */
+    public void configure(final int maxConcurrentActions, final int maxActionsPerMinute) {
+        this.maxConcurrentActions = Math.max(0, maxConcurrentActions);
+        this.maxActionsPerMinute = Math.max(0, maxActionsPerMinute);
+        this.instances.values().forEach(this::dispatch);
+    }
+
+    /**
+     * Requests the permit to perform an action on the instance. The permit must be released when the action is finished.
+     * The future can be cancelled to leave the queue.
+     *
+     * @param instanceUrl Url of the instance (or any end-point of the instance).
+     * @param priority    True if the action should be served before actions without the priority (e.g. production deployment).
+     * @return Future completed with the permit as soon as the budget of the instance allows it.
+     */
+    public CompletableFuture<Permit> acquire(final String instanceUrl, final boolean priority) {
+        final String instance = getInstance(instanceUrl);
+        final InstanceBudget budget = this.instances.computeIfAbsent(instance, InstanceBudget::new);
+        final Waiter waiter = new Waiter(priority);
+        synchronized(budget) {
+            (priority ? budget.priorityQueue : budget.queue).add(waiter);
+        }
+        dispatch(budget);
+        return waiter.future;
+    }
+
+    /**
+     * @return Snapshot of the statistics of all instances (sorted by instance url).
+     */
+    public Map<String, Statistics> getStatistics() {
+        final Map<String, Statistics> statistics = new TreeMap<>();
+        this.instances.values().forEach(budget -> {
+            synchronized(budget) {
+                statistics.put(budget.instance, new Statistics(budget.running,
+                        budget.priorityQueue.size() + budget.queue.size(), budget.permits, budget.totalWaitTime, budget.maxWaitTime));
+            }
+        });
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private void dispatch(final InstanceBudget budget) {
+        final List<Permit> granted = new ArrayList<>();
+        synchronized(budget) {
+            final long now = System.currentTimeMillis();
+            while(budget.running < this.maxConcurrentActions || this.maxConcurrentActions == 0) {
+                final Waiter waiter = nextWaiter(budget);
+                if(waiter == null) {
+                    break;
+                }
+                if(this.maxActionsPerMinute > 0) {
+                    while(!budget.startTimes.isEmpty() && budget.startTimes.peekFirst() <= now - RATE_WINDOW) {
+                        budget.startTimes.pollFirst();
+                    }
+                    if(budget.startTimes.size() >= this.maxActionsPerMinute) {
+                        // the waiter stays first in its lane until the oldest start leaves the window
+                        (waiter.priority ? budget.priorityQueue : budget.queue).addFirst(waiter);
+                        scheduleDispatch(budget, budget.startTimes.peekFirst() + RATE_WINDOW - now);
+                        break;
+                    }
+                    budget.startTimes.addLast(now);
+                }
+                budget.running++;
+                final long waitTime = now - waiter.requestTime;
+                budget.permits++;
+                budget.totalWaitTime += waitTime;
+                budget.maxWaitTime = Math.max(budget.maxWaitTime, waitTime);
+                granted.add(new Permit(budget, waiter, waitTime));
+            }
+        }
+        // futures are completed outside of the lock, their callbacks may request next permits
+        granted.forEach(permit -> {
+            if(!permit.waiter.future.complete(permit)) {
+                permit.release();
+            }
+        });
+    }
+
+    private static Waiter nextWaiter(final InstanceBudget budget) {
+        Waiter waiter;
+        do {
+            waiter = budget.priorityQueue.isEmpty() ? budget.queue.pollFirst() : budget.priorityQueue.pollFirst();
+        } while(waiter != null && waiter.future.isDone());
+        return waiter;
+    }
+
+    private void scheduleDispatch(final InstanceBudget budget, final long delay) {
+        if(budget.dispatchScheduled) {
+            return;
+        }
+        budget.dispatchScheduled = true;
+        this.scheduler.schedule(() -> {
+            synchronized(budget) {
+                budget.dispatchScheduled = false;
+            }
+            dispatch(budget);
+        }, Math.max(1, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void release(final InstanceBudget budget) {
+        synchronized(budget) {
+            budget.running--;
+        }
+        dispatch(budget);
+    }
+
+    private static String getInstance(final String instanceUrl) {
+        if(StringUtils.isBlank(instanceUrl)) {
+            return StringUtils.EMPTY;
+        }
+        try {
+            final HttpHost host = URIUtils.extractHost(URI.create(instanceUrl));
+            return host != null ? host.toURI() : instanceUrl;
+        } catch(IllegalArgumentException ex) {
+            return instanceUrl;
+        }
+    }
+
+    /**
+     * Permission to perform one action on the instance.
+     */
+    public final class Permit {
+        private final InstanceBudget budget;
+        private final Waiter waiter;
+        private final long waitTime;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(InstanceBudget budget, Waiter waiter, long waitTime) {
+            this.budget = budget;
+            this.waiter = waiter;
+            this.waitTime = waitTime;
+        }
+
+        public String getInstance() {
+            return this.budget.instance;
+        }
+
+        /**
+         * @return Time in milliseconds the action waited in the queue of the instance.
+         */
+        public long getWaitTime() {
+            return this.waitTime;
+        }
+
+        /**
+         * Returns the permit to the budget of the instance. Next calls do nothing.
+         */
+        public void release() {
+            if(this.released.compareAndSet(false, true)) {
+                InstanceLimiter.this.release(this.budget);
+            }
+        }
+    }
+
+    /**
+     * Statistics of one instance: current state of the queue and the time builds waited for permits.
+     */
+    public static final class Statistics {
+        private final int running;
+        private final int waiting;
+        private final long permits;
+        private final long totalWaitTime;
+        private final long maxWaitTime;
+
+        private Statistics(int running, int waiting, long permits, long totalWaitTime, long maxWaitTime) {
+            this.running = running;
+            this.waiting = waiting;
+            this.permits = permits;
+            this.totalWaitTime = totalWaitTime;
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public int getRunning() {
+            return running;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public long getPermits() {
+            return permits;
+        }
+
+        public long getTotalWaitTime() {
+            return totalWaitTime;
+        }
+
+        public long getMaxWaitTime() {
+            return maxWaitTime;
+        }
+    }
+
+    private static final class Waiter {
+        private final boolean priority;
+        private final long requestTime = System.currentTimeMillis();
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        private Waiter(boolean priority) {
+            this.priority = priority;
+        }
+    }
+
+    private static final class InstanceBudget {
+        private final String instance;
+        private final Deque<Waiter> priorityQueue = new ArrayDeque<>();
+        private final Deque<Waiter> queue = new ArrayDeque<>();
+        private final Deque<Long> startTimes = new ArrayDeque<>();
+        private int running;
+        private boolean dispatchScheduled;
+        private long permits;
+        private long totalWaitTime;
+        private long maxWaitTime;
+
+        private InstanceBudget(String instance) {
+            this.instance = instance;
+        }
+    }
+}
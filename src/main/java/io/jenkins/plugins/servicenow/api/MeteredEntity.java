@@ -0,0 +1,75 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Entity of a response counting bytes read from its content. The number of bytes is reported when the content is closed,
+ * so it does not matter whether the body is decoded from the stream or buffered (Content-Length is not required).
+ */
+class MeteredEntity extends HttpEntityWrapper {
+
+    private final LongConsumer bytesReceived;
+
+    MeteredEntity(final HttpEntity entity, final LongConsumer bytesReceived) {
+        super(entity);
+        this.bytesReceived = bytesReceived;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new CountingInputStream(super.getContent());
+    }
+
+    private final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+        private boolean closed;
+
+        private CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int value = super.read();
+            if(value >= 0) {
+                this.count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if(read > 0) {
+                this.count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if(!this.closed) {
+                    this.closed = true;
+                    bytesReceived.accept(this.count);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.jenkins.plugins.servicenow.api;
+
+import hudson.util.Secret;
+import io.jenkins.plugins.servicenow.api.model.TokenResponse;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static hudson.Util.removeTrailingSlash;
+
+/**
+ * Provides OAuth 2.0 access tokens of ServiceNow instance (end-point <code>/oauth_token.do</code>).
+ * The password grant is used when user credentials are given, otherwise the client credentials grant is used.
+ * <p>
+ * Tokens are cached in memory for the controller and shared by all clients of the same instance, OAuth client and user
+ * with the same secrets,
+ * so progress checks send only the request of the check. A token is refreshed before it expires (with the refresh token
+ * if the instance issued it), so requests do not wait for the instance rejecting an expired token.
+ */
+public class OAuthTokenProvider {
+
+    private static final Logger LOG = LogManager.getLogger(OAuthTokenProvider.class);
+
+    static final String TOKEN_ENDPOINT = "/oauth_token.do";
+    /**
+     * Lifetime of the token assumed when the instance does not return it (default lifetime of ServiceNow tokens).
+     */
+    static final long DEFAULT_EXPIRES_IN = TimeUnit.MINUTES.toSeconds(30);
+    /**
+     * Minimum time before the expiration when the token is refreshed.
+     */
+    static final long REFRESH_MARGIN = TimeUnit.MINUTES.toMillis(1);
+
+    private static final ConcurrentMap<String, Token> TOKENS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final String instanceUrl;
+    private final String clientId;
+    private final Secret clientSecret;
+    private final String username;
+    private final Secret password;
+    private final String cacheKey;
+
+    /**
+     * @param instanceUrl  URL of the instance.
+     * @param clientId     Client ID of the OAuth application registered in the instance.
+     * @param clientSecret Client secret of the OAuth application.
+     * @param username     User name for the password grant (blank to use the client credentials grant).
+     * @param password     User password for the password grant.
+     */
+    public OAuthTokenProvider(final String instanceUrl, final String clientId, final Secret clientSecret,
+            final String username, final Secret password) {
+        if(StringUtils.isBlank(clientId)) {
+            throw new IllegalArgumentException("Client ID of the OAuth application is required!");
+        }
+        this.instanceUrl = removeTrailingSlash(instanceUrl);
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.username = username;
+        this.password = password;
+        this.cacheKey = this.instanceUrl + "|" + clientId + "|" + StringUtils.defaultString(username) + "|" +
+                digest(clientSecret, password);
+    }
+
+    /**
+     * @return Digest of the secrets, so tokens are cached only for exactly the same credentials (a token granted
+     * for the valid password is never returned for a wrong one and a changed password is used right away).
+     */
+    private static String digest(final Secret clientSecret, final Secret password) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Secret.toString(clientSecret).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Secret.toString(password).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public boolean isPasswordGrant() {
+        return StringUtils.isNotBlank(this.username);
+    }
+
+    /**
+     * @return Valid access token, taken from the cache or requested from the instance.
+     * @throws IOException if the token could not be requested.
+     */
+    public String getAccessToken() throws IOException {
+        final Token cachedToken = TOKENS.get(this.cacheKey);
+        if(cachedToken != null && !cachedToken.needsRefresh(System.currentTimeMillis())) {
+            return cachedToken.accessToken;
+        }
+        // only one request for a new token is sent, other requests wait for it
+        synchronized(LOCKS.computeIfAbsent(this.cacheKey, key -> new Object())) {
+            final Token token = TOKENS.get(this.cacheKey);
+            final long now = System.currentTimeMillis();
+            if(token != null && !token.needsRefresh(now)) {
+                return token.accessToken;
+            }
+            Token newToken = null;
+            if(token != null && StringUtils.isNotBlank(token.refreshToken)) {
+                try {
+                    newToken = requestToken(getRefreshForm(token.refreshToken));
+                } catch(IOException | ServiceNowApiException ex) {
+                    LOG.debug("OAuth token could not be refreshed, new token will be requested [" + this.instanceUrl + "]", ex);
+                }
+            }
+            if(newToken == null) {
+                newToken = requestToken(getGrantForm());
+            }
+            TOKENS.put(this.cacheKey, newToken);
+            return newToken.accessToken;
+        }
+    }
+
+    /**
+     * Removes the token from the cache (e.g. when the instance rejected it), unless it was already replaced.
+     */
+    public void invalidate(final String accessToken) {
+        TOKENS.computeIfPresent(this.cacheKey, (key, token) -> token.accessToken.equals(accessToken) ? null : token);
+    }
+
+    /**
+     * Removes all cached tokens.
+     */
+    public static void clearCache() {
+        TOKENS.clear();
+    }
+
+    private List<NameValuePair> getGrantForm() {
+        final List<NameValuePair> form = getClientForm();
+        if(isPasswordGrant()) {
+            form.add(new BasicNameValuePair("grant_type", "password"));
+            form.add(new BasicNameValuePair("username", this.username));
+            form.add(new BasicNameValuePair("password", this.password != null ? this.password.getPlainText() : StringUtils.EMPTY));
+        } else {
+            form.add(new BasicNameValuePair("grant_type", "client_credentials"));
+        }
+        return form;
+    }
+
+    private List<NameValuePair> getRefreshForm(final String refreshToken) {
+        final List<NameValuePair> form = getClientForm();
+        form.add(new BasicNameValuePair("grant_type", "refresh_token"));
+        form.add(new BasicNameValuePair("refresh_token", refreshToken));
+        return form;
+    }
+
+    private List<NameValuePair> getClientForm() {
+        final List<NameValuePair> form = new ArrayList<>();
+        form.add(new BasicNameValuePair("client_id", this.clientId));
+        form.add(new BasicNameValuePair("client_secret", this.clientSecret != null ? this.clientSecret.getPlainText() : StringUtils.EMPTY));
+        return form;
+    }
+
+    private Token requestToken(final List<NameValuePair> form) throws IOException {
+        final HttpPost request = new HttpPost(this.instanceUrl + TOKEN_ENDPOINT);
+        request.setHeader(HttpHeaders.USER_AGENT, "sncicd_extint_jenkins");
+        request.setHeader(HttpHeaders.ACCEPT, "application/json");
+        request.setEntity(new UrlEncodedFormEntity(form, StandardCharsets.UTF_8));
+
+        LOG.debug("ServiceNow API call > OAuth token [" + this.instanceUrl + "]");
+        try(CloseableHttpResponse response = ServiceNowHttpClientPool.getClient(this.instanceUrl).execute(request)) {
+            final int statusCode = response.getStatusLine().getStatusCode();
+            if(statusCode != 200) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new ServiceNowApiException("OAuth token was not granted by the instance!",
+                        "POST request [" + request.getURI() + "] replied with status: " + statusCode);
+            }
+            final TokenResponse tokenResponse = ServiceNowAPIClient.readEntity(response.getEntity(), ServiceNowAPIClient.TOKEN_RESPONSE_READER);
+            if(StringUtils.isBlank(tokenResponse.getAccessToken())) {
+                throw new ServiceNowApiException("OAuth token was not granted by the instance!", "Response without access token.");
+            }
+            final long expiresIn = tokenResponse.getExpiresIn() != null && tokenResponse.getExpiresIn() > 0 ?
+                    tokenResponse.getExpiresIn() : DEFAULT_EXPIRES_IN;
+            return new Token(tokenResponse.getAccessToken(), tokenResponse.getRefreshToken(),
+                    System.currentTimeMillis(), TimeUnit.SECONDS.toMillis(expiresIn));
+        }
+    }
+
+    private static final class Token {
+        private final String accessToken;
+        private final String refreshToken;
+        private final long refreshTime;
+
+        private Token(String accessToken, String refreshToken, long issueTime, long lifetime) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            // refreshed a tenth of the lifetime (at least a minute) before the expiration, but not in the first half of the lifetime
+            this.refreshTime = issueTime + lifetime - Math.min(lifetime / 2, Math.max(REFRESH_MARGIN, lifetime / 10));
+        }
+
+        private boolean needsRefresh(final long now) {
+            return now >= this.refreshTime;
+        }
+    }
+}
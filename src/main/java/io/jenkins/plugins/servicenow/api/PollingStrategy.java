@@ -0,0 +1,16 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+
+/**
+ * Decides when the progress of a running action should be checked next time.
+ * An instance of the strategy is created for every action, so it can keep the history of the progress.
+ */
+public interface PollingStrategy {
+
+    /**
+     * @param result Result of the last progress check of the action still processed by the instance.
+     * @return Time in milliseconds to wait before next progress check.
+     */
+    long nextDelay(Result result);
+}
@@ -0,0 +1,41 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.Messages;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Available strategies of checking the progress of actions.
+ */
+public enum PollingStrategyType {
+    fixed,
+    adaptive;
+
+    public String getDisplayName() {
+        return this == adaptive ? Messages.PollingStrategyType_adaptive() : Messages.PollingStrategyType_fixed();
+    }
+
+    /**
+     * @param progressCheckInterval Interval in milliseconds configured for the build.
+     * @return New strategy for one action.
+     */
+    public PollingStrategy create(final int progressCheckInterval) {
+        if(this == adaptive) {
+            return new AdaptivePollingStrategy(progressCheckInterval);
+        }
+        return new FixedPollingStrategy(progressCheckInterval);
+    }
+
+    /**
+     * @return Type of the strategy with given name or the fixed strategy if the name is empty or unknown.
+     */
+    public static PollingStrategyType fromString(final String name) {
+        if(StringUtils.isNotBlank(name)) {
+            for(PollingStrategyType type : values()) {
+                if(type.name().equalsIgnoreCase(name.trim())) {
+                    return type;
+                }
+            }
+        }
+        return fixed;
+    }
+}
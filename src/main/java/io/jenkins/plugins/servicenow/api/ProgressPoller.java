@@ -0,0 +1,209 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.net.URI;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controller-wide scheduler checking progress of all running CI/CD actions.
+ * Build steps register the action they wait for and get notified when the action is finished, instead of polling
+ * the instance in their own loops. Progress checks are grouped by instance (only a few of them are sent to one instance
+ * at the same time) and spread in time with random jitter, so the number of threads and requests stays flat
+ * regardless of the number of builds waiting for ServiceNow. Failed checks are not repeated by the polling threads,
+ * they are scheduled again after the delay of the retry policy of the client.
+ */
+public final class ProgressPoller {
+
+    private static final Logger LOG = LogManager.getLogger(ProgressPoller.class);
+
+    /**
+     * Number of threads sending progress requests for all builds.
+     */
+    static final int POLLING_THREADS = 4;
+    /**
+     * Maximum number of progress requests sent to one instance at the same time.
+     */
+    static final int MAX_CONCURRENT_POLLS_PER_INSTANCE = 2;
+    /**
+     * Part of the interval used to spread progress checks in time.
+     */
+    static final double JITTER = 0.2;
+
+    private static final ProgressPoller INSTANCE = new ProgressPoller();
+
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, InstanceQueue> instances = new ConcurrentHashMap<>();
+
+    private ProgressPoller() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "ServiceNow progress poller #" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(POLLING_THREADS, threadFactory);
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    public static ProgressPoller get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return True if the result points to the action still processed by ServiceNow instance
+     * (successful, failed and canceled actions are finished).
+     */
+    public static boolean isInProgress(final Result result) {
+        return result != null &&
+                !ActionStatus.FAILED.getStatus().equals(result.getStatus()) &&
+                !ActionStatus.SUCCESSFUL.getStatus().equals(result.getStatus()) &&
+                !ActionStatus.CANCELED.getStatus().equals(result.getStatus());
+    }
+
+    /**
+     * Registers the last action requested by the client to be checked in the fixed interval until it is finished.
+     *
+     * @see #watch(ServiceNowAPIClient, PollingStrategy, int, Runnable)
+     */
+    public CompletableFuture<Result> watch(final ServiceNowAPIClient client, final int progressCheckInterval,
+            final Runnable beforeCheck) {
+        return watch(client, new FixedPollingStrategy(progressCheckInterval), progressCheckInterval, beforeCheck);
+    }
+
+    /**
+     * Registers the last action requested by the client to be checked until it is finished.
+     * The first check is scheduled with a random delay not longer than the part of the interval defined by {@link #JITTER},
+     * next checks are scheduled by the polling strategy (with the jitter as well).
+     *
+     * @param client                REST client that requested the action.
+     * @param pollingStrategy       Strategy deciding about delays between checks of the progress.
+     * @param progressCheckInterval Interval in milliseconds configured for the build (used to spread the first check).
+     * @param beforeCheck           Callback called before every check of the progress (e.g. to report activity in the build log).
+     * @return Future completed with the last result of the action (null if the progress could not be read).
+     * The future can be cancelled to stop checking the progress.
+     */
+    public CompletableFuture<Result> watch(final ServiceNowAPIClient client, final PollingStrategy pollingStrategy,
+            final int progressCheckInterval, final Runnable beforeCheck) {
+        // polling threads are shared by all builds, so they never wait for retries of failed checks
+        client.setProgressRetriesDeferred(true);
+        final Watch watch = new Watch(client, pollingStrategy, beforeCheck);
+        schedule(watch, randomDelay(Math.max(0, progressCheckInterval) * JITTER));
+        return watch.future;
+    }
+
+    private void schedule(final Watch watch, final long delay) {
+        if(watch.future.isDone()) {
+            return;
+        }
+        this.scheduler.schedule(() -> enqueue(watch), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void enqueue(final Watch watch) {
+        final InstanceQueue queue = this.instances.computeIfAbsent(watch.instance, key -> new InstanceQueue());
+        queue.waiting.add(watch);
+        dispatch(queue);
+    }
+
+    private void dispatch(final InstanceQueue queue) {
+        while(!queue.waiting.isEmpty()) {
+            final int running = queue.inFlight.get();
+            if(running >= MAX_CONCURRENT_POLLS_PER_INSTANCE) {
+                // the check in flight dispatches next waiting checks when it is done
+                return;
+            }
+            if(!queue.inFlight.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            final Watch watch = queue.waiting.poll();
+            if(watch == null) {
+                queue.inFlight.decrementAndGet();
+                continue;
+            }
+            this.scheduler.execute(() -> {
+                try {
+                    check(watch);
+                } finally {
+                    queue.inFlight.decrementAndGet();
+                    dispatch(queue);
+                }
+            });
+        }
+    }
+
+    private void check(final Watch watch) {
+        if(watch.future.isDone()) {
+            return;
+        }
+        try {
+            if(watch.beforeCheck != null) {
+                watch.beforeCheck.run();
+            }
+            final Result result = watch.client.checkProgress();
+            if(isInProgress(result)) {
+                final long delay = watch.pollingStrategy.nextDelay(result);
+                schedule(watch, delay + randomDelay(delay * JITTER) - (long) (delay * JITTER / 2));
+            } else {
+                watch.future.complete(result);
+            }
+        } catch(RetryLaterException ex) {
+            LOG.debug("Progress check will be sent again in " + ex.getDelay() + " ms [" + watch.instance + "]");
+            schedule(watch, ex.getDelay());
+        } catch(RuntimeException ex) {
+            LOG.debug("Progress of the action could not be checked [" + watch.instance + "]", ex);
+            watch.future.completeExceptionally(ex);
+        }
+    }
+
+    private static long randomDelay(final double maxDelay) {
+        return maxDelay < 1 ? 0 : ThreadLocalRandom.current().nextLong((long) maxDelay + 1);
+    }
+
+    private static String getInstance(final String progressUrl) {
+        if(StringUtils.isBlank(progressUrl)) {
+            return StringUtils.EMPTY;
+        }
+        try {
+            final HttpHost host = URIUtils.extractHost(URI.create(progressUrl));
+            return host != null ? host.toURI() : progressUrl;
+        } catch(IllegalArgumentException ex) {
+            return progressUrl;
+        }
+    }
+
+    private static final class Watch {
+        private final ServiceNowAPIClient client;
+        private final String instance;
+        private final PollingStrategy pollingStrategy;
+        private final Runnable beforeCheck;
+        private final CompletableFuture<Result> future = new CompletableFuture<>();
+
+        private Watch(ServiceNowAPIClient client, PollingStrategy pollingStrategy, Runnable beforeCheck) {
+            this.client = client;
+            this.instance = getInstance(client.getLastActionProgressUrl());
+            this.pollingStrategy = pollingStrategy;
+            this.beforeCheck = beforeCheck;
+        }
+    }
+
+    private static final class InstanceQueue {
+        private final Queue<Watch> waiting = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+    }
+}
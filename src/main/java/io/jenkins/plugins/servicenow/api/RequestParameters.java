@@ -24,4 +24,11 @@ public interface RequestParameters {
     // instance scan parameters
     String TARGET_TABLE = "target_table";
     String TARGET_SYS_ID = "target_sys_id";
+
+    // table API parameters
+    String TABLE_QUERY = "sysparm_query";
+    String TABLE_FIELDS = "sysparm_fields";
+    String TABLE_LIMIT = "sysparm_limit";
+    String TABLE_OFFSET = "sysparm_offset";
+    String TABLE_EXCLUDE_REFERENCE_LINK = "sysparm_exclude_reference_link";
 }
@@ -0,0 +1,22 @@
+package io.jenkins.plugins.servicenow.api;
+
+/**
+ * Thrown instead of waiting in the calling thread when a failed request should be sent again later
+ * (see {@link ServiceNowAPIClient#setProgressRetriesDeferred(boolean)}).
+ */
+public class RetryLaterException extends RuntimeException {
+
+    private final long delay;
+
+    public RetryLaterException(String message, long delay) {
+        super(message);
+        this.delay = delay;
+    }
+
+    /**
+     * @return Delay in milliseconds before the request should be sent again.
+     */
+    public long getDelay() {
+        return delay;
+    }
+}
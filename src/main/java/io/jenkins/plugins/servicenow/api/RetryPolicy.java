@@ -0,0 +1,142 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed request to ServiceNow instance is sent again and how long to wait before the next attempt.
+ * Delays grow exponentially with random jitter, unless the instance tells how long to wait with the header <code>Retry-After</code>.
+ * <p>
+ * Read-only requests (GET) are retried after throttling, unavailability of the instance and network errors.
+ * Requests of actions (POST) are retried only when the action surely was not accepted by the instance:
+ * the request was rejected by throttling (429) or the connection was not established at all.
+ * An unavailable instance (503) can be reported by a proxy or a node of the instance after the action was already started,
+ * so only read-only requests are retried then.
+ */
+public class RetryPolicy {
+
+    /**
+     * Default maximum number of attempts of one request (the first attempt included).
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    /**
+     * Default delay in milliseconds before the first retry.
+     */
+    public static final long DEFAULT_BASE_DELAY = 1000;
+    /**
+     * Default maximum delay in milliseconds between attempts (applied also to the header <code>Retry-After</code>).
+     */
+    public static final long DEFAULT_MAX_DELAY = 30_000;
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+    /**
+     * Every request is sent only once.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+
+    /**
+     * @param maxAttempts Maximum number of attempts of one request (the first attempt included).
+     * @param baseDelay   Delay in milliseconds before the first retry, doubled with every next retry.
+     * @param maxDelay    Maximum delay in milliseconds between attempts.
+     */
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelay = Math.max(0, baseDelay);
+        this.maxDelay = Math.max(this.baseDelay, maxDelay);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param attempt Number of the attempt that failed (starting from 1).
+     * @return True if one more attempt is allowed.
+     */
+    public boolean canRetry(final int attempt) {
+        return attempt < this.maxAttempts;
+    }
+
+    /**
+     * @param idempotent True if the request can be sent many times without side effects (e.g. GET).
+     * @param statusCode Status code of the response.
+     * @return True if the request should be sent again.
+     */
+    public boolean isRetryable(final boolean idempotent, final int statusCode) {
+        if(statusCode == TOO_MANY_REQUESTS) {
+            return true;
+        }
+        // the action could be passed to the instance before the failure was reported, so only reads are repeated
+        return idempotent && (statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE
+                || statusCode == HttpStatus.SC_BAD_GATEWAY || statusCode == HttpStatus.SC_GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * @param idempotent True if the request can be sent many times without side effects (e.g. GET).
+     * @param exception  Error thrown while the request was sent.
+     * @return True if the request should be sent again.
+     */
+    public boolean isRetryable(final boolean idempotent, final IOException exception) {
+        if(exception instanceof UnknownHostException || exception instanceof SSLException) {
+            // wrong configuration, next attempts fail the same way
+            return false;
+        }
+        // nothing was sent to the instance if the connection could not be established
+        return idempotent || exception instanceof ConnectException || exception instanceof ConnectTimeoutException;
+    }
+
+    /**
+     * Computes the delay before the next attempt: the value of the header <code>Retry-After</code> (seconds or HTTP date)
+     * if the response contains it, otherwise exponential backoff with random jitter. The delay is never longer than the maximum delay.
+     *
+     * @param attempt  Number of the attempt that failed (starting from 1).
+     * @param response Response of the failed attempt (null if no response came).
+     * @return Delay in milliseconds.
+     */
+    public long getDelay(final int attempt, final HttpResponse response) {
+        final Long retryAfter = response != null ? getRetryAfter(response.getFirstHeader("Retry-After"), System.currentTimeMillis()) : null;
+        if(retryAfter != null) {
+            return Math.min(this.maxDelay, Math.max(0, retryAfter));
+        }
+        final long exponentialDelay = Math.min(this.maxDelay, this.baseDelay << Math.min(20, Math.max(0, attempt - 1)));
+        // "equal jitter": half of the delay is fixed, the other half is random
+        final long fixedPart = exponentialDelay / 2;
+        return fixedPart + ThreadLocalRandom.current().nextLong(exponentialDelay - fixedPart + 1);
+    }
+
+    /**
+     * @return Delay in milliseconds requested by the header or null if the header is missing or its value is not valid.
+     */
+    static Long getRetryAfter(final Header header, final long now) {
+        if(header == null || StringUtils.isBlank(header.getValue())) {
+            return null;
+        }
+        final String value = header.getValue().trim();
+        if(StringUtils.isNumeric(value)) {
+            try {
+                return Long.parseLong(value) * 1000;
+            } catch(NumberFormatException ex) {
+                return null;
+            }
+        }
+        final Date date = DateUtils.parseDate(value);
+        return date != null ? Math.max(0, date.getTime() - now) : null;
+    }
+}
@@ -0,0 +1,60 @@
+package io.jenkins.plugins.servicenow.api;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Controller-wide counters of requests sent again by {@link ServiceNowAPIClient}, grouped by end-point.
+ * Identifiers in paths (sys_id, progress id) are replaced with <code>{id}</code>, so e.g. all progress checks
+ * are counted as <code>GET sn_cicd/progress/{id}</code>.
+ */
+public final class RetryStatistics {
+
+    private static final Pattern API_PREFIX = Pattern.compile("^/?api/");
+    private static final Pattern IDENTIFIER = Pattern.compile("(?<=/)([0-9a-fA-F]{32}|\\d+)(?=/|$)");
+
+    private static final ConcurrentMap<String, AtomicLong> RETRIES = new ConcurrentHashMap<>();
+
+    private RetryStatistics() {}
+
+    /**
+     * @param method HTTP method of the request.
+     * @param uri    URI of the request.
+     * @return Name of the end-point used as the key of the counters.
+     */
+    static String getEndpointName(final String method, final URI uri) {
+        final String path = uri != null && uri.getPath() != null ? uri.getPath() : "";
+        return method + " " + IDENTIFIER.matcher(API_PREFIX.matcher(path).replaceFirst("")).replaceAll("{id}");
+    }
+
+    /**
+     * Counts one more retry of the request sent to the end-point.
+     *
+     * @return Number of retries of the end-point counted so far.
+     */
+    static long recordRetry(final String endpointName) {
+        return RETRIES.computeIfAbsent(endpointName, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * @return Snapshot of the counters (end-point name and the number of retries) sorted by end-point names.
+     */
+    public static Map<String, Long> getRetries() {
+        final Map<String, Long> snapshot = new TreeMap<>();
+        RETRIES.forEach((endpoint, counter) -> snapshot.put(endpoint, counter.get()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Clears all counters.
+     */
+    public static void reset() {
+        RETRIES.clear();
+    }
+}
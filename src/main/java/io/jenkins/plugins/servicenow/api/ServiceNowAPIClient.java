@@ -1,38 +1,61 @@
 package io.jenkins.plugins.servicenow.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import hudson.util.Secret;
 import io.jenkins.plugins.servicenow.api.model.Error;
 import io.jenkins.plugins.servicenow.api.model.Response;
 import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.api.model.TableResponse;
+import io.jenkins.plugins.servicenow.api.model.TokenResponse;
+import io.jenkins.plugins.servicenow.metrics.ServiceNowMetrics;
+import io.jenkins.plugins.servicenow.tracing.ServiceNowTracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapSetter;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URISyntaxException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static hudson.Util.removeTrailingSlash;
 
@@ -40,6 +63,14 @@ public class ServiceNowAPIClient {
 
     private static final Logger LOG = LogManager.getLogger(ServiceNowAPIClient.class);
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /**
+     * Readers are immutable and thread-safe, so they are shared by all clients and keep warm deserializer caches.
+     */
+    static final ObjectReader RESPONSE_READER = OBJECT_MAPPER.readerFor(Response.class);
+    static final ObjectReader TABLE_RESPONSE_READER = OBJECT_MAPPER.readerFor(TableResponse.class);
+    static final ObjectReader TOKEN_RESPONSE_READER = OBJECT_MAPPER.readerFor(TokenResponse.class);
+
     private String getCICDApiUrl() {
         return removeTrailingSlash(this.apiUrl) + "/api/sn_cicd/";
     }
@@ -50,16 +81,65 @@ public class ServiceNowAPIClient {
 
     private static final String BATCH_INSTALL_ENDPOINT = "app/batch/install";
 
+    /**
+     * Maximum number of system ids in one query reading installed versions (keeps the length of the URL reasonable).
+     */
+    static final int INSTALLED_VERSIONS_QUERY_SIZE = 100;
+
+    private static final TextMapSetter<HttpRequestBase> TRACE_HEADERS = (request, name, value) -> request.setHeader(name, value);
+
     private final String apiUrl;
-    private final String username;
-    private final Secret password;
+    private final OAuthTokenProvider tokenProvider;
+    private final CredentialsProvider credentialsProvider;
+    /**
+     * Basic authentication is sent with the first request to every host (no round trip for the challenge of the server).
+     */
+    private final AuthCache authCache;
 
     private String lastActionProgressUrl;
 
+    private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+    /**
+     * True if failed progress checks are not repeated in the calling thread (see {@link #checkProgress()}).
+     */
+    private volatile boolean progressRetriesDeferred;
+    /**
+     * Number of the next attempt of the progress check when its retries are deferred.
+     */
+    private volatile int progressCheckAttempt = 1;
+    /**
+     * Context of the build step using the client: parent of spans of requests sent outside of the step thread
+     * (e.g. progress checks sent by the poller).
+     */
+    private volatile Context traceContext;
+
     public String getLastActionProgressUrl() {
         return lastActionProgressUrl;
     }
 
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @param retryPolicy Policy deciding about sending again requests that failed (use {@link RetryPolicy#NONE} to disable retries).
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.NONE;
+    }
+
+    /**
+     * @param progressRetriesDeferred True if {@link #checkProgress()} should throw {@link RetryLaterException} instead of
+     *                                waiting for the next attempt of a failed check (e.g. when a scheduler checks the progress).
+     */
+    public void setProgressRetriesDeferred(boolean progressRetriesDeferred) {
+        this.progressRetriesDeferred = progressRetriesDeferred;
+    }
+
+    public void setTraceContext(Context traceContext) {
+        this.traceContext = traceContext;
+    }
+
     public AcceptResponseType acceptResponseType = AcceptResponseType.JSON;
 
     private String getAcceptResponseType() {
@@ -82,8 +162,39 @@ public class ServiceNowAPIClient {
             throw new IllegalArgumentException("Wrong 'url' parameter. Should not be empty and should be valid url string starting from the phrase: 'http(s)://'");
         }
         this.apiUrl = url;
-        this.username = username;
-        this.password = password;
+        this.tokenProvider = null;
+        this.credentialsProvider = getCredentials(username, password);
+        this.authCache = new BasicAuthCache();
+    }
+
+    /**
+     * @param url           URL of the ServiceNow API
+     * @param tokenProvider Provider of OAuth tokens used to authorize requests
+     */
+    public ServiceNowAPIClient(final String url, final OAuthTokenProvider tokenProvider) {
+        if(StringUtils.isBlank(url) || !isURL(url)) {
+            throw new IllegalArgumentException("Wrong 'url' parameter. Should not be empty and should be valid url string starting from the phrase: 'http(s)://'");
+        }
+        this.apiUrl = url;
+        this.tokenProvider = tokenProvider;
+        this.credentialsProvider = null;
+        this.authCache = new BasicAuthCache();
+    }
+
+    /**
+     * Creates a client sharing the credentials, the authentication cache and the settings of the given one.
+     * The progress of the last action and the trace context are not shared, so every step can use its own client safely
+     * (e.g. in parallel branches of a pipeline).
+     *
+     * @param client Client already set up for the instance.
+     */
+    public ServiceNowAPIClient(final ServiceNowAPIClient client) {
+        this.apiUrl = client.apiUrl;
+        this.tokenProvider = client.tokenProvider;
+        this.credentialsProvider = client.credentialsProvider;
+        this.authCache = client.authCache;
+        this.retryPolicy = client.retryPolicy;
+        this.acceptResponseType = client.acceptResponseType;
     }
 
     public Result applyChanges(
@@ -122,13 +233,53 @@ public class ServiceNowAPIClient {
         return sendRequest(endpoint, params, null);
     }
 
+    /**
+     * Checks the progress of the last action requested by the client. Failed checks are sent again according to the retry
+     * policy; if retries are deferred, {@link RetryLaterException} with the delay is thrown instead of waiting and
+     * the next call continues with the next attempt.
+     *
+     * @return Result of the action or null if the progress could not be read.
+     */
     public Result checkProgress() {
         if(StringUtils.isBlank(this.lastActionProgressUrl)) {
             throw new IllegalStateException("Did you forget to call action? Action request must be called first to have active link to the progress!");
         }
         final String endpoint = this.lastActionProgressUrl;
 
-        return sendRequest(endpoint, null);
+        final Span span = ServiceNowTracing.getTracer().spanBuilder("ServiceNow poll")
+                .setParent(ServiceNowTracing.getParentContext(this.traceContext))
+                .startSpan();
+        try(Scope scope = span.makeCurrent()) {
+            final Result result = getResult(endpoint, get(endpoint, null, this.progressRetriesDeferred));
+            if(result != null) {
+                final ActionStatus status = ActionStatus.fromStatus(result.getStatus());
+                span.setAttribute(ServiceNowTracing.ACTION_STATUS, status != null ? status.name() : String.valueOf(result.getStatus()));
+                if(result.getPercentComplete() != null) {
+                    span.setAttribute(ServiceNowTracing.ACTION_PERCENT, result.getPercentComplete());
+                }
+            } else {
+                span.setStatus(StatusCode.ERROR);
+            }
+            return result;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Cancels the last action requested by the client, so the instance does not keep working on it.
+     * See API documentation: https://developer.servicenow.com/dev.do#!/reference/api/quebec/rest/cicd-api#cicd-POST-progress-cancel
+     *
+     * @return Result of the cancellation (its status is usually {@link ActionStatus#CANCELED}).
+     */
+    public Result cancelProgress() throws IOException, URISyntaxException {
+        if(StringUtils.isBlank(this.lastActionProgressUrl)) {
+            throw new IllegalStateException("Did you forget to call action? Action request must be called first to have active link to the progress!");
+        }
+        final String endpoint = removeTrailingSlash(this.lastActionProgressUrl) + "/cancel";
+
+        LOG.debug("ServiceNow API call > cancelProgress");
+        return sendRequest(endpoint, null, null);
     }
 
     public Result getTestSuiteResults(String resultsId) {
@@ -219,6 +370,75 @@ public class ServiceNowAPIClient {
         return getAppVersion(true, applicationScope, systemId);
     }
 
+    /**
+     * Reads the version of the application installed on the instance: the application installed from the store or
+     * the application repository (<code>sys_store_app</code>) or, if there is no such one, the custom application
+     * (<code>sys_app</code>).
+     *
+     * @param applicationScope Scope of the application (used if the system id is empty).
+     * @param systemId         System id of the application.
+     * @return Installed version of the application or empty string if the application is not installed.
+     */
+    public String getInstalledAppVersion(final String applicationScope, final String systemId) {
+        if(StringUtils.isBlank(systemId) && StringUtils.isBlank(applicationScope)) {
+            throw new IllegalArgumentException("One of arguments (system id or application scope) must be valid!");
+        }
+        final String query = StringUtils.isNotBlank(systemId) ? "sys_id=" + systemId : "scope=" + applicationScope;
+        LOG.debug("ServiceNow API call > read installed version of the application [" + query + "]");
+
+        for(String table : new String[]{"sys_store_app", "sys_app"}) {
+            List<NameValuePair> params = new ArrayList<>();
+            addParameter(params, RequestParameters.TABLE_QUERY, "sys_store_app".equals(table) ? query + "^active=true" : query);
+            addParameter(params, RequestParameters.TABLE_FIELDS, "version");
+            addParameter(params, RequestParameters.TABLE_LIMIT, "1");
+            final TableResponse response = this.getTable(getTableApiUrl() + table, params);
+            final String version = response == null ? null : response.getRecords().stream()
+                    .map(record -> (String) record.get("version"))
+                    .filter(StringUtils::isNotBlank)
+                    .findFirst()
+                    .orElse(null);
+            if(version != null) {
+                return version;
+            }
+        }
+        return StringUtils.EMPTY;
+    }
+
+    /**
+     * Reads versions of many applications installed on the instance at once (see {@link #getInstalledAppVersion(String, String)}).
+     * Applications are read by a few bulk queries (up to {@value #INSTALLED_VERSIONS_QUERY_SIZE} system ids per query)
+     * instead of one request per application.
+     *
+     * @param systemIds System ids of applications.
+     * @return Installed versions by system ids of applications, applications not installed on the instance are missing.
+     */
+    public Map<String, String> getInstalledAppVersions(final Collection<String> systemIds) {
+        final Map<String, String> versions = new HashMap<>();
+        final List<String> ids = systemIds.stream()
+                .filter(StringUtils::isNotBlank)
+                .distinct()
+                .collect(Collectors.toList());
+        LOG.debug("ServiceNow API call > read installed versions of " + ids.size() + " application(s)");
+
+        for(String table : new String[]{"sys_store_app", "sys_app"}) {
+            final List<String> missing = ids.stream()
+                    .filter(id -> !versions.containsKey(id))
+                    .collect(Collectors.toList());
+            for(int from = 0; from < missing.size(); from += INSTALLED_VERSIONS_QUERY_SIZE) {
+                final String query = "sys_idIN" +
+                        String.join(",", missing.subList(from, Math.min(from + INSTALLED_VERSIONS_QUERY_SIZE, missing.size()))) +
+                        ("sys_store_app".equals(table) ? "^active=true" : StringUtils.EMPTY);
+                forEachTableRecord(table, query, "sys_id,version", INSTALLED_VERSIONS_QUERY_SIZE, record -> {
+                    final Object version = record.get("version");
+                    if(version != null && StringUtils.isNotBlank(version.toString())) {
+                        versions.putIfAbsent((String) record.get("sys_id"), version.toString());
+                    }
+                });
+            }
+        }
+        return versions;
+    }
+
     private String getAppVersion(boolean customized, final String applicationScope, final String systemId) {
         String endpoint = getTableApiUrl() + (customized ? "sys_app_customization" : "sys_app");
         if(StringUtils.isNotBlank(systemId)) {
@@ -232,15 +452,16 @@ public class ServiceNowAPIClient {
                 return appVersion;
             }
         } else if(StringUtils.isNotBlank(applicationScope)) {
-            endpoint += "?sysparm_fields=scope,version";
-            final TableResponse response = this.getTable(endpoint, null);
-            if(response != null && response.getUnboundAttributes().containsKey("result")) {
-                return (String) ((List) response.getUnboundAttributes().get("result")).stream()
-                        .filter(record ->
-                                record instanceof HashMap &&
-                                        ((HashMap) record).containsKey("scope") &&
-                                        applicationScope.equals(((HashMap) record).get("scope")))
-                        .map(record -> ((HashMap) record).get("version"))
+            // filter on the instance side, only one record is expected for the scope
+            List<NameValuePair> params = new ArrayList<>();
+            addParameter(params, RequestParameters.TABLE_QUERY, "scope=" + applicationScope);
+            addParameter(params, RequestParameters.TABLE_FIELDS, "version");
+            addParameter(params, RequestParameters.TABLE_LIMIT, "1");
+            final TableResponse response = this.getTable(endpoint, params);
+            if(response != null) {
+                return response.getRecords().stream()
+                        .map(record -> (String) record.get("version"))
+                        .filter(StringUtils::isNotBlank)
                         .findFirst()
                         .orElse(StringUtils.EMPTY);
             }
@@ -250,6 +471,55 @@ public class ServiceNowAPIClient {
         return StringUtils.EMPTY;
     }
 
+    /**
+     * Reads records of the table page by page using Table API, so that big tables are never held in memory at once.
+     * Records are ordered by sys_id (unless the query defines an order) to keep pagination stable.
+     *
+     * @param table    Name of the table.
+     * @param query    Encoded query used to filter records (can be empty).
+     * @param fields   Comma-separated list of fields to return (all fields if empty).
+     * @param pageSize Maximum number of records read by one request.
+     * @param consumer Consumer called for every record.
+     * @return Number of records read.
+     * @throws ServiceNowApiException if a page of records could not be read (records of previous pages were already consumed).
+     */
+    public int forEachTableRecord(final String table, final String query, final String fields, final int pageSize,
+            final Consumer<Map<String, Object>> consumer) {
+        if(StringUtils.isBlank(table)) {
+            throw new IllegalArgumentException("Name of the table must not be empty!");
+        }
+        if(pageSize < 1) {
+            throw new IllegalArgumentException("Size of the page must be positive!");
+        }
+        final String endpoint = getTableApiUrl() + table;
+        final String orderedQuery = StringUtils.contains(query, "ORDERBY") ? query :
+                (StringUtils.isNotBlank(query) ? query + "^" : StringUtils.EMPTY) + "ORDERBYsys_id";
+        LOG.debug("ServiceNow API call > read table " + table + " [query=" + orderedQuery + "]");
+
+        int offset = 0;
+        List<Map<String, Object>> records;
+        do {
+            List<NameValuePair> params = new ArrayList<>();
+            addParameter(params, RequestParameters.TABLE_QUERY, orderedQuery);
+            addParameter(params, RequestParameters.TABLE_FIELDS, fields);
+            addParameter(params, RequestParameters.TABLE_LIMIT, String.valueOf(pageSize));
+            addParameter(params, RequestParameters.TABLE_OFFSET, String.valueOf(offset));
+            addParameter(params, RequestParameters.TABLE_EXCLUDE_REFERENCE_LINK, Boolean.TRUE.toString());
+
+            final TableResponse response = this.getTable(endpoint, params);
+            if(response == null) {
+                // a missing page must not look like the end of the table
+                throw new ServiceNowApiException("Records of the table " + table + " could not be read!",
+                        "Request of the page at offset " + offset + " failed.");
+            }
+            records = response.getRecords();
+            records.forEach(consumer);
+            offset += records.size();
+        } while(records.size() == pageSize);
+
+        return offset;
+    }
+
     public Result executeFullScan() throws IOException, URISyntaxException {
         final String endpoint = "instance_scan/full_scan";
         LOG.debug("ServiceNow API call > execute full scan");
@@ -385,10 +655,12 @@ public class ServiceNowAPIClient {
     }
 
     private Response get(final String endpointPath, final List<NameValuePair> parameters) {
-        try(CloseableHttpClient client = HttpClientBuilder.create().setDefaultCredentialsProvider(getCredentials()).build()) {
+        return get(endpointPath, parameters, false);
+    }
 
-            HttpGet request = new HttpGet();
-            HttpResponse response = sendRequest(client, request, endpointPath, parameters, null); //client.execute(request);
+    private Response get(final String endpointPath, final List<NameValuePair> parameters, final boolean deferRetries) {
+        HttpGet request = new HttpGet();
+        try(CloseableHttpResponse response = sendRequest(request, endpointPath, parameters, null, deferRetries)) {
 
             final int responseStatusCode = response.getStatusLine().getStatusCode();
             if(responseStatusCode < 200 || responseStatusCode > 202) {
@@ -407,21 +679,19 @@ public class ServiceNowAPIClient {
     }
 
     private TableResponse getTable(final String endpointPath, final List<NameValuePair> parameters) {
-        try(CloseableHttpClient client = HttpClientBuilder.create().setDefaultCredentialsProvider(getCredentials()).build()) {
-
-            HttpGet request = new HttpGet();
-            HttpResponse response = sendRequest(client, request, endpointPath, parameters, null); //client.execute(request);
+        HttpGet request = new HttpGet();
+        try(CloseableHttpResponse response = sendRequest(request, endpointPath, parameters, null)) {
 
             final int responseStatusCode = response.getStatusLine().getStatusCode();
             if(responseStatusCode < 200 || responseStatusCode > 202) {
                 LOG.error("GET request [" + request.getURI().toString() + "] call with error status: " + responseStatusCode);
-            } else {
-                this.lastActionProgressUrl = StringUtils.EMPTY;
+                // the body describes the error and contains no records
+                EntityUtils.consumeQuietly(response.getEntity());
+                return null;
             }
+            this.lastActionProgressUrl = StringUtils.EMPTY;
 
-            String responseJSON = EntityUtils.toString(response.getEntity());
-            TableResponse result = new ObjectMapper().readValue(responseJSON, TableResponse.class);
-            return result;
+            return readEntity(response.getEntity(), TABLE_RESPONSE_READER);
         } catch(URISyntaxException ex) {
             LOG.error("Wrong URL: " + ex.getMessage());
         } catch(IOException ex) {
@@ -432,10 +702,9 @@ public class ServiceNowAPIClient {
 
     private Response post(final String endpointPath, final List<NameValuePair> parameters, final String jsonBody) throws URISyntaxException, IOException {
         this.lastActionProgressUrl = StringUtils.EMPTY;
-        try(CloseableHttpClient client = HttpClientBuilder.create().setDefaultCredentialsProvider(getCredentials()).build()) {
-
-            HttpPost request = new HttpPost();
-            HttpResponse response = sendRequest(client, request, endpointPath, parameters, jsonBody);
+        this.progressCheckAttempt = 1;
+        HttpPost request = new HttpPost();
+        try(CloseableHttpResponse response = sendRequest(request, endpointPath, parameters, jsonBody)) {
 
             final int responseStatusCode = response.getStatusLine().getStatusCode();
             if(responseStatusCode < 200 || responseStatusCode > 202) {
@@ -452,10 +721,8 @@ public class ServiceNowAPIClient {
         }
     }
 
-    private Response getResponse(HttpResponse response) throws IOException {
-        String responseJSON = EntityUtils.toString(response.getEntity());
-        LOG.debug(responseJSON);
-        Response result = new ObjectMapper().readValue(responseJSON, Response.class);
+    private Response getResponse(CloseableHttpResponse response) throws IOException {
+        Response result = readEntity(response.getEntity(), RESPONSE_READER);
         if(result.getError() != null) {
             Error error = result.getError();
             LOG.error(error);
@@ -465,7 +732,35 @@ public class ServiceNowAPIClient {
         return result;
     }
 
-    private HttpResponse sendRequest(final CloseableHttpClient client, final HttpRequestBase request, final String endpointPath, final List<NameValuePair> parameters, final String jsonBody) throws URISyntaxException, IOException {
+    /**
+     * Decodes the body of the response directly from the stream of the entity.
+     * The body is buffered only if debug logging is enabled.
+     *
+     * @param entity Entity of the response.
+     * @param reader Reader of the expected type.
+     * @return Decoded object.
+     * @throws IOException if the body is missing or is not valid JSON object of the expected type.
+     */
+    static <T> T readEntity(final HttpEntity entity, final ObjectReader reader) throws IOException {
+        if(entity == null) {
+            throw new IOException("Response without body!");
+        }
+        if(LOG.isDebugEnabled()) {
+            final String responseJSON = EntityUtils.toString(entity);
+            LOG.debug(responseJSON);
+            return reader.readValue(responseJSON);
+        }
+        try(InputStream content = entity.getContent()) {
+            return reader.readValue(content);
+        }
+    }
+
+    private CloseableHttpResponse sendRequest(final HttpRequestBase request, final String endpointPath, final List<NameValuePair> parameters, final String jsonBody) throws URISyntaxException, IOException {
+        return sendRequest(request, endpointPath, parameters, jsonBody, false);
+    }
+
+    private CloseableHttpResponse sendRequest(final HttpRequestBase request, final String endpointPath, final List<NameValuePair> parameters,
+            final String jsonBody, final boolean deferRetries) throws URISyntaxException, IOException {
         URIBuilder uriBuilder = new URIBuilder(isURL(endpointPath) ? endpointPath : this.getCICDApiUrl() + endpointPath);
         if(parameters != null) {
             uriBuilder.setParameters(parameters);
@@ -481,14 +776,153 @@ public class ServiceNowAPIClient {
             ((HttpPost) request).setEntity(requestBody);
         }
 
-        return client.execute(request);
+        return execute(request, deferRetries);
+    }
+
+    /**
+     * Executes the request and sends it again as long as the retry policy allows it.
+     * The response of the last attempt is returned (or the error of the last attempt is thrown).
+     * If retries are deferred, {@link RetryLaterException} is thrown instead of waiting for the next attempt
+     * (only progress checks are deferred, the number of the next attempt is kept by the client).
+     */
+    private CloseableHttpResponse execute(final HttpRequestBase request, final boolean deferRetries) throws IOException {
+        final boolean idempotent = !(request instanceof HttpPost);
+        final CloseableHttpClient client = ServiceNowHttpClientPool.getClient(this.apiUrl);
+        final ServiceNowMetrics metrics = ServiceNowMetrics.get();
+        final String host = request.getURI().getHost();
+        final String endpointName = RetryStatistics.getEndpointName(request.getMethod(), request.getURI());
+        final long bytesSent = getBytesSent(request);
+        boolean tokenRenewed = false;
+        final int firstAttempt = deferRetries ? this.progressCheckAttempt : 1;
+        this.progressCheckAttempt = 1;
+        for(int attempt = firstAttempt; ; attempt++) {
+            // connections are pooled per instance, so credentials must be bound to the request and not to the client
+            final HttpClientContext context = HttpClientContext.create();
+            final String accessToken = authorize(request, context);
+            final Span span = startSpan(request, endpointName, attempt);
+
+            final CloseableHttpResponse response;
+            final long start = System.nanoTime();
+            try {
+                response = client.execute(request, context);
+            } catch(IOException ex) {
+                span.recordException(ex);
+                span.setStatus(StatusCode.ERROR);
+                span.end();
+                metrics.recordRequest(host, endpointName, "io_error", System.nanoTime() - start, bytesSent);
+                if(!this.retryPolicy.canRetry(attempt) || !this.retryPolicy.isRetryable(idempotent, ex)) {
+                    throw ex;
+                }
+                waitBeforeRetry(request, attempt, this.retryPolicy.getDelay(attempt, null), ex.toString(), deferRetries);
+                continue;
+            }
+
+            final int statusCode = response.getStatusLine().getStatusCode();
+            span.setAttribute("http.response.status_code", statusCode);
+            if(statusCode >= HttpStatus.SC_BAD_REQUEST) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+            if(metrics.isEnabled()) {
+                metrics.recordRequest(host, endpointName, String.valueOf(statusCode), System.nanoTime() - start, bytesSent);
+                if(response.getEntity() != null) {
+                    response.setEntity(new MeteredEntity(response.getEntity(),
+                            bytes -> metrics.recordBytesReceived(host, endpointName, bytes)));
+                }
+            }
+            if(statusCode == HttpStatus.SC_UNAUTHORIZED && accessToken != null && !tokenRenewed) {
+                // the token could be revoked before its expiration, a new one is requested once
+                EntityUtils.consumeQuietly(response.getEntity());
+                response.close();
+                this.tokenProvider.invalidate(accessToken);
+                tokenRenewed = true;
+                attempt--;
+                continue;
+            }
+            if(!this.retryPolicy.canRetry(attempt) || !this.retryPolicy.isRetryable(idempotent, statusCode)) {
+                return response;
+            }
+            final long delay = this.retryPolicy.getDelay(attempt, response);
+            // the connection goes back to the pool before waiting
+            EntityUtils.consumeQuietly(response.getEntity());
+            response.close();
+            waitBeforeRetry(request, attempt, delay, "status " + statusCode, deferRetries);
+        }
+    }
+
+    /**
+     * Starts the client span of the attempt and adds its context to headers of the request (W3C trace context),
+     * so the request can be correlated with its processing on the instance.
+     */
+    private Span startSpan(final HttpRequestBase request, final String endpointName, final int attempt) {
+        final Span span = ServiceNowTracing.getTracer().spanBuilder(endpointName)
+                .setParent(ServiceNowTracing.getParentContext(this.traceContext))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("http.request.method", request.getMethod())
+                .setAttribute("server.address", StringUtils.defaultString(request.getURI().getHost()))
+                .setAttribute("url.path", StringUtils.defaultString(request.getURI().getPath()))
+                .setAttribute(ServiceNowTracing.ENDPOINT, endpointName)
+                .setAttribute(ServiceNowTracing.ATTEMPT, attempt)
+                .startSpan();
+        ServiceNowTracing.get().getPropagators().getTextMapPropagator()
+                .inject(Context.current().with(span), request, TRACE_HEADERS);
+        return span;
+    }
+
+    private void waitBeforeRetry(final HttpRequestBase request, final int attempt, final long delay, final String reason,
+            final boolean deferRetry) throws InterruptedIOException {
+        final String endpointName = RetryStatistics.getEndpointName(request.getMethod(), request.getURI());
+        final long retries = RetryStatistics.recordRetry(endpointName);
+        ServiceNowMetrics.get().recordRetry(request.getURI().getHost(), endpointName);
+        LOG.warn(String.format("Request [%s] failed (%s), attempt %d of %d will be sent in %d ms (retries of the end-point: %d)",
+                endpointName, reason, attempt + 1, this.retryPolicy.getMaxAttempts(), delay, retries));
+        if(deferRetry) {
+            // the caller sends the request again later, no thread waits for it
+            this.progressCheckAttempt = attempt + 1;
+            throw new RetryLaterException("Request [" + endpointName + "] failed (" + reason + ")", delay);
+        }
+        try {
+            Thread.sleep(delay);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Retry of the request [" + endpointName + "] was interrupted!");
+        }
+    }
+
+    private static long getBytesSent(final HttpRequestBase request) {
+        if(request instanceof HttpEntityEnclosingRequest) {
+            final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return entity != null ? Math.max(0, entity.getContentLength()) : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds credentials to the request: OAuth token if the client uses OAuth, otherwise basic authentication
+     * sent preemptively.
+     *
+     * @return Access token used by the request or null if the request uses basic authentication.
+     */
+    private String authorize(final HttpRequestBase request, final HttpClientContext context) throws IOException {
+        if(this.tokenProvider != null) {
+            final String accessToken = this.tokenProvider.getAccessToken();
+            request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+            return accessToken;
+        }
+        final HttpHost host = URIUtils.extractHost(request.getURI());
+        if(host != null && this.authCache.get(host) == null) {
+            this.authCache.put(host, new BasicScheme());
+        }
+        context.setCredentialsProvider(this.credentialsProvider);
+        context.setAuthCache(this.authCache);
+        return null;
     }
 
-    private CredentialsProvider getCredentials() {
+    private static CredentialsProvider getCredentials(final String username, final Secret password) {
         CredentialsProvider provider = new BasicCredentialsProvider();
         provider.setCredentials(
                 AuthScope.ANY,
-                new UsernamePasswordCredentials(this.username, this.password != null ? this.password.getPlainText() : StringUtils.EMPTY)
+                new UsernamePasswordCredentials(username, password != null ? password.getPlainText() : StringUtils.EMPTY)
         );
         return provider;
     }
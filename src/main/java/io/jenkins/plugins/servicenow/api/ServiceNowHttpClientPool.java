@@ -0,0 +1,177 @@
+package io.jenkins.plugins.servicenow.api;
+
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller-wide pool of HTTP connections used by {@link ServiceNowAPIClient}.
+ * Every ServiceNow instance (scheme, host and port) gets its own keep-alive connection pool, so consecutive calls
+ * (especially progress checks) reuse warm connections instead of paying for a new TCP connection and TLS handshake.
+ */
+public final class ServiceNowHttpClientPool {
+
+    private static final Logger LOG = LogManager.getLogger(ServiceNowHttpClientPool.class);
+
+    /**
+     * Default maximum number of open connections kept for one instance.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_INSTANCE = 20;
+    /**
+     * Default time in seconds after which a connection is not reused any more (unless the server requested shorter).
+     */
+    public static final int DEFAULT_KEEP_ALIVE = 60;
+    /**
+     * Default time in seconds after which an unused connection is closed.
+     */
+    public static final int DEFAULT_IDLE_TIMEOUT = 30;
+    /**
+     * Time in seconds to establish a connection with the instance.
+     */
+    public static final int CONNECT_TIMEOUT = 30;
+    /**
+     * Maximum time in seconds of inactivity while waiting for data of the response.
+     */
+    public static final int SOCKET_TIMEOUT = 120;
+    /**
+     * Time in seconds to wait for a free connection of the pool.
+     */
+    public static final int CONNECTION_REQUEST_TIMEOUT = 60;
+
+    private static final ConcurrentMap<HttpHost, PooledClient> POOLS = new ConcurrentHashMap<>();
+
+    private static volatile int maxConnectionsPerInstance = DEFAULT_MAX_CONNECTIONS_PER_INSTANCE;
+    private static volatile int keepAlive = DEFAULT_KEEP_ALIVE;
+    private static volatile int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * Finite timeouts, so a stalled instance never blocks threads of builds and of the progress poller forever.
+     */
+    private static final RequestConfig REQUEST_CONFIG = RequestConfig.custom()
+            .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(CONNECT_TIMEOUT))
+            .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(SOCKET_TIMEOUT))
+            .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(CONNECTION_REQUEST_TIMEOUT))
+            .build();
+
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = (response, context) -> {
+        final long maxKeepAlive = TimeUnit.SECONDS.toMillis(keepAlive);
+        final long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, maxKeepAlive) : maxKeepAlive;
+    };
+
+    private ServiceNowHttpClientPool() {}
+
+    /**
+     * Applies new settings of the pool. The limit of connections is changed for already created pools too,
+     * keep-alive and idle timeout are used for connections released after the call.
+     *
+     * @param maxConnections Maximum number of connections per instance.
+     * @param keepAliveInSeconds Maximum time in seconds a connection can be reused.
+     * @param idleTimeoutInSeconds Time in seconds after which an idle connection is evicted.
+     */
+    public static void configure(final int maxConnections, final int keepAliveInSeconds, final int idleTimeoutInSeconds) {
+        maxConnectionsPerInstance = Math.max(1, maxConnections);
+        keepAlive = Math.max(1, keepAliveInSeconds);
+        idleTimeout = Math.max(1, idleTimeoutInSeconds);
+        POOLS.values().forEach(pool -> pool.applyLimits(maxConnectionsPerInstance));
+    }
+
+    /**
+     * Returns shared HTTP client dedicated to the instance the url points to.
+     * The client must not be closed by the caller, only responses should be closed to release connections.
+     *
+     * @param url Url of the instance or any end-point of the instance.
+     * @return HTTP client with pooled connections.
+     */
+    static CloseableHttpClient getClient(final String url) {
+        final HttpHost instance = URIUtils.extractHost(URI.create(url));
+        if(instance == null) {
+            throw new IllegalArgumentException("Wrong url of the instance: " + url);
+        }
+        return POOLS.computeIfAbsent(instance, key -> new PooledClient(maxConnectionsPerInstance)).client;
+    }
+
+    /**
+     * Closes expired connections and connections idle for longer than configured idle timeout.
+     */
+    public static void evictConnections() {
+        POOLS.values().forEach(pool -> {
+            pool.connectionManager.closeExpiredConnections();
+            pool.connectionManager.closeIdleConnections(idleTimeout, TimeUnit.SECONDS);
+        });
+    }
+
+    /**
+     * Closes all pools and their connections.
+     */
+    public static void shutdown() {
+        POOLS.keySet().forEach(instance -> {
+            final PooledClient pool = POOLS.remove(instance);
+            if(pool != null) {
+                pool.close();
+            }
+        });
+    }
+
+    private static final class PooledClient {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient client;
+
+        private PooledClient(int maxConnections) {
+            this.connectionManager = new PoolingHttpClientConnectionManager();
+            applyLimits(maxConnections);
+            this.client = HttpClientBuilder.create()
+                    .setConnectionManager(this.connectionManager)
+                    .setKeepAliveStrategy(KEEP_ALIVE_STRATEGY)
+                    .setDefaultRequestConfig(REQUEST_CONFIG)
+                    // credentials are provided per request, connections can be shared between users
+                    .disableConnectionState()
+                    .build();
+        }
+
+        private void applyLimits(int maxConnections) {
+            this.connectionManager.setMaxTotal(maxConnections);
+            this.connectionManager.setDefaultMaxPerRoute(maxConnections);
+        }
+
+        private void close() {
+            try {
+                this.client.close();
+            } catch(IOException ex) {
+                LOG.warn("Pool of connections was not closed properly!", ex);
+            }
+        }
+    }
+
+    /**
+     * Periodically evicts idle and expired connections from all pools.
+     */
+    @Extension
+    public static final class ConnectionEvictor extends PeriodicWork {
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.SECONDS.toMillis(10);
+        }
+
+        @Override
+        protected void doRun() {
+            evictConnections();
+        }
+    }
+}
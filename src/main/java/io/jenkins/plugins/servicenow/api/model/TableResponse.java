@@ -2,6 +2,26 @@ package io.jenkins.plugins.servicenow.api.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class TableResponse extends JsonResponseObject {
+
+    /**
+     * @return Records of the table returned in the attribute 'result' (empty list if there are no records).
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getRecords() {
+        final Object result = getUnboundAttributes().get("result");
+        if(result instanceof List) {
+            return ((List<?>) result).stream()
+                    .filter(Map.class::isInstance)
+                    .map(record -> (Map<String, Object>) record)
+                    .collect(Collectors.toList());
+        }
+        return Collections.emptyList();
+    }
 }
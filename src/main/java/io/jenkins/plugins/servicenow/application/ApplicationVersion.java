@@ -1,5 +1,9 @@
 package io.jenkins.plugins.servicenow.application;
 
+import hudson.FilePath;
+
+import java.io.IOException;
+
 public interface ApplicationVersion {
 
     /**
@@ -11,4 +15,15 @@ public interface ApplicationVersion {
      * @return Version of the application.
      */
     String getVersion(String target, final String sysId, final String scope);
+
+    /**
+     * Get the hash of the content of the application (all files of the application), used to find out if the application
+     * changed since the last time it was published.
+     * @param workspace Workspace with the app project from source control (it can be on an agent).
+     * @param scope The scope name of the application, used as the directory of the application if it is not defined
+     *              in the source control.
+     * @return Hex encoded SHA-256 hash of the content or empty string if no file of the application was found.
+     * @throws IOException if files of the application cannot be read.
+     */
+    String getContentHash(FilePath workspace, final String scope) throws IOException, InterruptedException;
 }
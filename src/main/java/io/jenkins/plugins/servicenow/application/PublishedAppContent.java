@@ -0,0 +1,70 @@
+package io.jenkins.plugins.servicenow.application;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.List;
+
+/**
+ * Version of the application published (or reused) by a build together with the hash of the content of the application
+ * it was published from. Stored with the build, so next builds can reuse the version if the content did not change.
+ */
+public class PublishedAppContent extends InvisibleAction {
+
+    private final String instance;
+    private final String application;
+    private final String version;
+    private final String contentHash;
+
+    /**
+     * @param instance    Host name of the instance the application was published on.
+     * @param application System id or scope of the application.
+     * @param version     Published version.
+     * @param contentHash Hash of the content of the application (see {@link ApplicationVersion#getContentHash(hudson.FilePath, String)}).
+     */
+    public PublishedAppContent(final String instance, final String application, final String version, final String contentHash) {
+        this.instance = instance;
+        this.application = application;
+        this.version = version;
+        this.contentHash = contentHash;
+    }
+
+    public String getInstance() {
+        return instance;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Finds the last version of the application published by previous builds of the job.
+     *
+     * @param run       Current build.
+     * @param maxBuilds Maximum number of previous builds looked through.
+     * @return Last published version of the application or null if no build published it.
+     */
+    public static PublishedAppContent findLast(final Run<?, ?> run, final String instance, final String application,
+            final int maxBuilds) {
+        Run<?, ?> previous = run.getPreviousBuild();
+        for(int i = 0; previous != null && i < maxBuilds; i++, previous = previous.getPreviousBuild()) {
+            final List<PublishedAppContent> published = previous.getActions(PublishedAppContent.class);
+            for(int j = published.size() - 1; j >= 0; j--) {
+                final PublishedAppContent content = published.get(j);
+                if(StringUtils.equals(instance, content.instance) && StringUtils.equals(application, content.application)) {
+                    return content;
+                }
+            }
+        }
+        return null;
+    }
+}
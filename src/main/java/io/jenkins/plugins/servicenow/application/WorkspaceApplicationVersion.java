@@ -1,11 +1,23 @@
 package io.jenkins.plugins.servicenow.application;
 
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class WorkspaceApplicationVersion implements ApplicationVersion {
 
@@ -23,7 +35,7 @@ public class WorkspaceApplicationVersion implements ApplicationVersion {
             throw new IllegalArgumentException("At least one of parameters must not be empty: Sys ID or Scope of the application");
         }
         try {
-            String appDir = StringUtils.isNotBlank(scope) ? scope : this.getApplicationDir(workspaceDir);
+            String appDir = StringUtils.isNotBlank(scope) ? scope : getApplicationDir(workspaceDir);
             if(StringUtils.isNotBlank(sysId)) {
                 File file = new File(workspaceDir + "/" + appDir + "/" + APPLICATION_HEAD_FILE.replace("{sysId}", sysId));
                 return getVersion(file);
@@ -46,17 +58,100 @@ public class WorkspaceApplicationVersion implements ApplicationVersion {
         return StringUtils.EMPTY;
     }
 
+    /**
+     * Hashes relative paths and contents of all files of the application directory (the path from
+     * <code>sn_source_control.properties</code> or the scope), in the order of paths. The hash is computed where
+     * the workspace is (e.g. on the agent) and files are streamed through the digest, so neither the content
+     * is transferred to the controller nor the size of the application matters.
+     */
+    public String getContentHash(final FilePath workspace, final String scope) throws IOException, InterruptedException {
+        final String hash = workspace.act(new ContentHash(scope));
+        if(StringUtils.isBlank(hash)) {
+            LOG.warn("No content of the application [scope: " + scope + "] found in the workspace: " + workspace.getRemote());
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the hash of the application in the workspace on the node of the workspace.
+     */
+    private static final class ContentHash extends MasterToSlaveFileCallable<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final String scope;
+
+        private ContentHash(final String scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public String invoke(final File workspaceDir, final VirtualChannel channel) throws IOException {
+            return hashContent(workspaceDir, this.scope);
+        }
+    }
+
+    private static String hashContent(final File workspaceDir, final String scope) throws IOException {
+        String appDir;
+        try {
+            appDir = StringUtils.removeStart(getApplicationDir(workspaceDir.getPath()), "/");
+        } catch(FileNotFoundException ex) {
+            appDir = StringUtils.EMPTY;
+        }
+        if(StringUtils.isBlank(appDir)) {
+            appDir = scope;
+        }
+        if(StringUtils.isBlank(appDir)) {
+            return StringUtils.EMPTY;
+        }
+
+        final Path root = new File(workspaceDir, appDir).toPath();
+        if(!Files.isDirectory(root)) {
+            return StringUtils.EMPTY;
+        }
+        try(Stream<Path> files = Files.walk(root)) {
+            final List<Path> sortedFiles = files.filter(Files::isRegularFile)
+                    .sorted((first, second) -> relativePath(root, first).compareTo(relativePath(root, second)))
+                    .collect(Collectors.toList());
+            if(sortedFiles.isEmpty()) {
+                return StringUtils.EMPTY;
+            }
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[8192];
+            for(Path file : sortedFiles) {
+                digest.update(relativePath(root, file).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                try(InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+                    while(input.read(buffer) != -1) {
+                        // the content is consumed by the digest
+                    }
+                }
+                digest.update((byte) 0);
+            }
+            final StringBuilder hash = new StringBuilder();
+            for(byte value : digest.digest()) {
+                hash.append(String.format("%02x", value));
+            }
+            return hash.toString();
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IOException("Content of the application cannot be hashed: " + root, ex);
+        }
+    }
+
+    private static String relativePath(final Path root, final Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
     private String getVersion(File file) throws FileNotFoundException {
         return searchForRegex(file, VERSION_REGEX, VERSION_SPLITREGEX);
     }
 
-    private String getApplicationDir(String workspaceDir) throws FileNotFoundException {
+    private static String getApplicationDir(String workspaceDir) throws FileNotFoundException {
         File file = new File(workspaceDir + "/" + PROPERTIES_FILE);
 
         return searchForRegex(file, PATH_REGEX, PATH_SPLITREGEX);
     }
 
-    private String searchForRegex(final File file, final String lineRegex, final String splitRegex) throws FileNotFoundException {
+    private static String searchForRegex(final File file, final String lineRegex, final String splitRegex) throws FileNotFoundException {
         final InputStream inputStream = new FileInputStream(file);
         try (BufferedReader br
                      = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"))) {
@@ -0,0 +1,196 @@
+package io.jenkins.plugins.servicenow.instancescan;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes findings of an instance scan as a SARIF 2.1.0 log (readable e.g. by the Warnings Next Generation plugin).
+ * Findings are read page by page from the table <code>scan_finding</code> and every finding is written to the output
+ * as soon as it is read, so full scans with tens of thousands of findings are never kept in memory.
+ */
+public final class ScanFindingsReport {
+
+    private static final Logger LOG = LogManager.getLogger(ScanFindingsReport.class);
+
+    static final String FINDING_TABLE = "scan_finding";
+    static final String FINDING_FIELDS = "sys_id,check.name,check.short_description,check.priority,check.category,source_table,source";
+    static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+    /**
+     * Priority of checks of instance scan (field <code>priority</code> of the table <code>scan_check</code>).
+     */
+    public enum Priority {
+        CRITICAL(1, "error"),
+        HIGH(2, "error"),
+        MODERATE(3, "warning"),
+        LOW(4, "note");
+
+        private final int value;
+        private final String sarifLevel;
+
+        Priority(final int value, final String sarifLevel) {
+            this.value = value;
+            this.sarifLevel = sarifLevel;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * @return Priority of the value stored in the instance, findings of unknown priority are treated as low.
+         */
+        public static Priority of(final String value) {
+            final int priority = NumberUtils.toInt(StringUtils.trimToEmpty(value), LOW.value);
+            for(Priority candidate : values()) {
+                if(candidate.value == priority) {
+                    return candidate;
+                }
+            }
+            return LOW;
+        }
+    }
+
+    private final ServiceNowAPIClient restClient;
+    private final int pageSize;
+
+    /**
+     * @param restClient Client of the scanned instance.
+     * @param pageSize   Number of findings read from the Table API at once.
+     */
+    public ScanFindingsReport(final ServiceNowAPIClient restClient, final int pageSize) {
+        this.restClient = restClient;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Numbers of findings written to the report.
+     */
+    public static final class Summary {
+        private final int[] counts = new int[Priority.values().length];
+
+        public int getTotal() {
+            int total = 0;
+            for(int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        public int getCount(final Priority priority) {
+            return counts[priority.ordinal()];
+        }
+
+        /**
+         * @return Number of findings of the given priority or a higher one (e.g. critical and high findings for high).
+         */
+        public int getCountAtLeast(final Priority priority) {
+            int count = 0;
+            for(int i = 0; i <= priority.ordinal(); i++) {
+                count += counts[i];
+            }
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d finding(s): critical %d, high %d, moderate %d, low %d", getTotal(),
+                    counts[Priority.CRITICAL.ordinal()], counts[Priority.HIGH.ordinal()],
+                    counts[Priority.MODERATE.ordinal()], counts[Priority.LOW.ordinal()]);
+        }
+    }
+
+    /**
+     * Writes findings of the scan to the SARIF log. The output stream is not closed.
+     *
+     * @param scanResultId Id of the result of the scan (<code>scan_result</code>).
+     * @param output       Stream the report is written to.
+     * @return Numbers of findings per priority.
+     * @throws IOException if the report cannot be written.
+     */
+    public Summary write(final String scanResultId, final OutputStream output) throws IOException {
+        if(StringUtils.isBlank(scanResultId)) {
+            throw new IllegalArgumentException("Id of the scan result must not be empty!");
+        }
+        final Summary summary = new Summary();
+        final JsonGenerator json = new JsonFactory().createGenerator(output, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartObject();
+        json.writeStringField("$schema", SARIF_SCHEMA);
+        json.writeStringField("version", "2.1.0");
+        json.writeArrayFieldStart("runs");
+        json.writeStartObject();
+        json.writeObjectFieldStart("tool");
+        json.writeObjectFieldStart("driver");
+        json.writeStringField("name", "ServiceNow Instance Scan");
+        json.writeEndObject();
+        json.writeEndObject();
+        json.writeArrayFieldStart("results");
+        try {
+            this.restClient.forEachTableRecord(FINDING_TABLE, "result=" + scanResultId, FINDING_FIELDS, this.pageSize,
+                    finding -> writeFinding(json, finding, summary));
+        } catch(UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeEndArray();
+        json.writeEndObject();
+        json.close();
+        LOG.debug("Findings of the scan result " + scanResultId + ": " + summary);
+        return summary;
+    }
+
+    private static void writeFinding(final JsonGenerator json, final Map<String, Object> finding, final Summary summary) {
+        final Priority priority = Priority.of(getString(finding, "check.priority"));
+        summary.counts[priority.ordinal()]++;
+        final String sourceTable = getString(finding, "source_table");
+        final String source = getString(finding, "source");
+        try {
+            json.writeStartObject();
+            json.writeStringField("ruleId", StringUtils.defaultIfBlank(getString(finding, "check.name"), "unknown"));
+            json.writeStringField("level", priority.sarifLevel);
+            json.writeObjectFieldStart("message");
+            json.writeStringField("text", StringUtils.defaultIfBlank(getString(finding, "check.short_description"),
+                    getString(finding, "check.name")));
+            json.writeEndObject();
+            if(StringUtils.isNotBlank(sourceTable)) {
+                // records of the instance are reported as artifacts named after their table and sys_id
+                json.writeArrayFieldStart("locations");
+                json.writeStartObject();
+                json.writeObjectFieldStart("physicalLocation");
+                json.writeObjectFieldStart("artifactLocation");
+                json.writeStringField("uri", sourceTable + "/" + source);
+                json.writeEndObject();
+                json.writeEndObject();
+                json.writeEndObject();
+                json.writeEndArray();
+            }
+            json.writeObjectFieldStart("properties");
+            json.writeStringField("findingSysId", getString(finding, "sys_id"));
+            json.writeStringField("priority", priority.name().toLowerCase(Locale.ROOT));
+            json.writeStringField("category", getString(finding, "check.category"));
+            json.writeEndObject();
+            json.writeEndObject();
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String getString(final Map<String, Object> record, final String field) {
+        final Object value = record.get(field);
+        return value != null ? value.toString() : StringUtils.EMPTY;
+    }
+}
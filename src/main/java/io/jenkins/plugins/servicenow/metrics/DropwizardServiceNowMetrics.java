@@ -0,0 +1,86 @@
+package io.jenkins.plugins.servicenow.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import hudson.Extension;
+import jenkins.metrics.api.Metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Publishes measurements of the plugin in the registry of the Metrics plugin (and so e.g. to Prometheus).
+ * Dropwizard metrics do not have tags, so the instance host, the end-point and the step type are parts of metric names:
+ * <ul>
+ *     <li><code>servicenow.http.{host}.{endpoint}.latency</code> - timer of requests,</li>
+ *     <li><code>servicenow.http.{host}.{endpoint}.status.{code}</code> - counters of responses by status code,</li>
+ *     <li><code>servicenow.http.{host}.{endpoint}.bytes_sent</code>, <code>bytes_received</code> - counters of bytes,</li>
+ *     <li><code>servicenow.http.{host}.{endpoint}.retries</code> - counter of retried requests,</li>
+ *     <li><code>servicenow.step.{host}.{step}.polls</code> - histogram of progress checks per action,</li>
+ *     <li><code>servicenow.step.{host}.{step}.time_to_terminal_status</code> - timer of actions,</li>
+ *     <li><code>servicenow.step.{host}.{step}.status.{status}</code> - counters of actions by final status,</li>
+ *     <li><code>servicenow.step.{host}.{step}.queue_wait</code> - timer of waiting in the queue of the instance.</li>
+ * </ul>
+ * The extension is loaded only if the Metrics plugin is installed.
+ */
+@Extension(optional = true)
+public class DropwizardServiceNowMetrics implements ServiceNowMetrics {
+
+    private static final String PREFIX = "servicenow";
+    private static final Pattern INVALID_CHARACTERS = Pattern.compile("[^A-Za-z0-9_-]+");
+
+    @Override
+    public void recordRequest(String host, String endpoint, String status, long durationNanos, long bytesSent) {
+        final MetricRegistry registry = Metrics.metricRegistry();
+        final String prefix = getHttpPrefix(host, endpoint);
+        registry.timer(MetricRegistry.name(prefix, "latency")).update(durationNanos, TimeUnit.NANOSECONDS);
+        registry.counter(MetricRegistry.name(prefix, "status", sanitize(status))).inc();
+        if(bytesSent > 0) {
+            registry.counter(MetricRegistry.name(prefix, "bytes_sent")).inc(bytesSent);
+        }
+    }
+
+    @Override
+    public void recordBytesReceived(String host, String endpoint, long bytes) {
+        Metrics.metricRegistry().counter(MetricRegistry.name(getHttpPrefix(host, endpoint), "bytes_received")).inc(bytes);
+    }
+
+    @Override
+    public void recordRetry(String host, String endpoint) {
+        Metrics.metricRegistry().counter(MetricRegistry.name(getHttpPrefix(host, endpoint), "retries")).inc();
+    }
+
+    @Override
+    public void recordAction(String host, String stepType, String status, int polls, long durationMillis) {
+        final MetricRegistry registry = Metrics.metricRegistry();
+        final String prefix = getStepPrefix(host, stepType);
+        registry.histogram(MetricRegistry.name(prefix, "polls")).update(polls);
+        registry.timer(MetricRegistry.name(prefix, "time_to_terminal_status")).update(durationMillis, TimeUnit.MILLISECONDS);
+        registry.counter(MetricRegistry.name(prefix, "status", sanitize(status.toLowerCase(Locale.ENGLISH)))).inc();
+    }
+
+    @Override
+    public void recordQueueWait(String host, String stepType, long waitMillis) {
+        Metrics.metricRegistry().timer(MetricRegistry.name(getStepPrefix(host, stepType), "queue_wait"))
+                .update(waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static String getHttpPrefix(String host, String endpoint) {
+        return MetricRegistry.name(PREFIX, "http", sanitize(host), sanitize(endpoint));
+    }
+
+    private static String getStepPrefix(String host, String stepType) {
+        return MetricRegistry.name(PREFIX, "step", sanitize(host), sanitize(stepType));
+    }
+
+    /**
+     * @return Part of the metric name without dots and special characters (e.g. <code>GET_sn_cicd_progress_id</code>).
+     */
+    static String sanitize(String value) {
+        if(value == null || value.isEmpty()) {
+            return "unknown";
+        }
+        final String sanitized = INVALID_CHARACTERS.matcher(value).replaceAll("_");
+        return sanitized.replaceAll("^_+|_+$", "");
+    }
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.servicenow.metrics;
+
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import jenkins.model.Jenkins;
+
+/**
+ * Receiver of measurements of the plugin: requests sent to ServiceNow instances and actions waited for by build steps.
+ * Measurements are published by the first registered implementation (see {@link DropwizardServiceNowMetrics} available
+ * with the Metrics plugin); without any implementation they are dropped.
+ * <p>
+ * Names of end-points are the names of {@link io.jenkins.plugins.servicenow.api.RetryStatistics}
+ * (e.g. <code>GET sn_cicd/progress/{id}</code>).
+ */
+public interface ServiceNowMetrics extends ExtensionPoint {
+
+    /**
+     * Measurements dropped when no implementation is registered (e.g. the Metrics plugin is not installed).
+     */
+    ServiceNowMetrics NONE = new ServiceNowMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordRequest(String host, String endpoint, String status, long durationNanos, long bytesSent) {
+        }
+
+        @Override
+        public void recordBytesReceived(String host, String endpoint, long bytes) {
+        }
+
+        @Override
+        public void recordRetry(String host, String endpoint) {
+        }
+
+        @Override
+        public void recordAction(String host, String stepType, String status, int polls, long durationMillis) {
+        }
+
+        @Override
+        public void recordQueueWait(String host, String stepType, long waitMillis) {
+        }
+    };
+
+    /**
+     * @return Registered implementation or {@link #NONE}.
+     */
+    static ServiceNowMetrics get() {
+        final Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if(jenkins == null) {
+            return NONE;
+        }
+        final ExtensionList<ServiceNowMetrics> implementations = jenkins.getExtensionList(ServiceNowMetrics.class);
+        return implementations.isEmpty() ? NONE : implementations.get(0);
+    }
+
+    /**
+     * @return False if measurements are dropped (so they do not need to be collected at all).
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records one attempt of the request (retried requests are recorded for every attempt).
+     *
+     * @param host          Host name of the instance.
+     * @param endpoint      Name of the end-point.
+     * @param status        HTTP status code of the response or <code>io_error</code> if there was no response.
+     * @param durationNanos Time until the response was received.
+     * @param bytesSent     Size of the body of the request.
+     */
+    void recordRequest(String host, String endpoint, String status, long durationNanos, long bytesSent);
+
+    /**
+     * Records the size of the body of the response read by the plugin.
+     */
+    void recordBytesReceived(String host, String endpoint, long bytes);
+
+    /**
+     * Records the request sent again by the retry policy.
+     */
+    void recordRetry(String host, String endpoint);
+
+    /**
+     * Records the action waited for by a build step until it reached its final status.
+     *
+     * @param host           Host name of the instance.
+     * @param stepType       Type of the build step (e.g. <code>ApplyChanges</code>).
+     * @param status         Final status of the action (name of {@link io.jenkins.plugins.servicenow.api.ActionStatus})
+     *                       or <code>TIMEOUT</code>, <code>ABORTED</code>, <code>ERROR</code> if the final status is unknown.
+     * @param polls          Number of progress checks of the action.
+     * @param durationMillis Time from the start of waiting until the final status.
+     */
+    void recordAction(String host, String stepType, String status, int polls, long durationMillis);
+
+    /**
+     * Records the time the build step waited in the queue of the instance before its action could be started
+     * (see {@link io.jenkins.plugins.servicenow.api.InstanceLimiter}).
+     *
+     * @param host       Host name of the instance.
+     * @param stepType   Type of the build step (e.g. <code>ApplyChanges</code>).
+     * @param waitMillis Time in the queue (0 if the permit was granted immediately).
+     */
+    void recordQueueWait(String host, String stepType, long waitMillis);
+}
@@ -4,13 +4,16 @@ import hudson.Extension;
 import hudson.model.ParameterDefinition;
 import hudson.model.ParameterValue;
 import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
 import io.jenkins.plugins.servicenow.Constants;
 import io.jenkins.plugins.servicenow.Messages;
+import io.jenkins.plugins.servicenow.api.PollingStrategyType;
 import io.jenkins.plugins.servicenow.utils.Validator;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 
@@ -31,6 +34,7 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
         String publishedAppVersion = "publishedAppVersion";
         String rollbackAppVersion = "rollbackAppVersion";
         String progressCheckInterval = "progressCheckInterval";
+        String progressCheckStrategy = "progressCheckStrategy";
         String batchRollbackId = "batchRollbackId";
     }
 
@@ -44,6 +48,7 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
     private String rollbackAppVersion;
     private String batchRollbackId;
     private Integer progressCheckInterval;
+    private String progressCheckStrategy;
 
     public String getCredentialsForPublishedApp() {
         return credentialsForPublishedApp;
@@ -85,6 +90,15 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
         return progressCheckInterval;
     }
 
+    public String getProgressCheckStrategy() {
+        return progressCheckStrategy;
+    }
+
+    @DataBoundSetter
+    public void setProgressCheckStrategy(String progressCheckStrategy) {
+        this.progressCheckStrategy = progressCheckStrategy;
+    }
+
     // Override the standard constructor
     public ServiceNowParameterDefinition(String name) {
         super(PARAMETER_NAME);
@@ -119,9 +133,7 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
 
     @Override
     public ParameterValue createValue(StaplerRequest staplerRequest, JSONObject jsonObject) {
-        ServiceNowParameterValue snParameterValue = new ServiceNowParameterValue(jsonObject.getString("name"),
-                jsonObject.toString());
-        return snParameterValue;
+        return ServiceNowParameterValue.fromJson(jsonObject.getString("name"), jsonObject);
     }
 
     @Override
@@ -138,13 +150,14 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
                 "\"" + PARAMS_NAMES.publishedAppVersion + "\":\"" + getSafeValue(publishedAppVersion) + "\"," +
                 "\"" + PARAMS_NAMES.rollbackAppVersion + "\":\"" + getSafeValue(rollbackAppVersion) + "\"," +
                 "\"" + PARAMS_NAMES.batchRollbackId + "\":\"" + getSafeValue(batchRollbackId) + "\"," +
-                "\"" + PARAMS_NAMES.progressCheckInterval + "\":\"" + getSafeValue(progressCheckInterval) + "\"}"); // create parameter with fields that are used between build steps
+                "\"" + PARAMS_NAMES.progressCheckInterval + "\":\"" + getSafeValue(progressCheckInterval) + "\"," +
+                "\"" + PARAMS_NAMES.progressCheckStrategy + "\":\"" + getSafeValue(progressCheckStrategy) + "\"}"); // create parameter with fields that are used between build steps
         return snParameterValue;
     }
 
     public static ServiceNowParameterDefinition createFrom(final String value) {
         JSONObject o = JSONObject.fromObject(value);
-        return new ServiceNowParameterDefinition(
+        final ServiceNowParameterDefinition definition = new ServiceNowParameterDefinition(
                 getSafeValue((String)o.get(PARAMS_NAMES.description)),
                 getSafeValue((String)o.get(PARAMS_NAMES.credentialsForPublishedApp)),
                 getSafeValue((String)o.get(PARAMS_NAMES.instanceForPublishedAppUrl)),
@@ -157,6 +170,8 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
                 getSafeValue((String)o.get(PARAMS_NAMES.batchRollbackId)),
                 o.has(PARAMS_NAMES.progressCheckInterval) ? o.getInt(PARAMS_NAMES.progressCheckInterval) : null
         );
+        definition.setProgressCheckStrategy(getSafeValue((String)o.get(PARAMS_NAMES.progressCheckStrategy)));
+        return definition;
     }
 
     private static String getSafeValue(final String value) {
@@ -200,6 +215,14 @@ public class ServiceNowParameterDefinition extends ParameterDefinition implement
             return FormValidation.ok();
         }
 
+        public ListBoxModel doFillProgressCheckStrategyItems() {
+            ListBoxModel items = new ListBoxModel();
+            for(PollingStrategyType type : PollingStrategyType.values()) {
+                items.add(type.getDisplayName(), type.name());
+            }
+            return items;
+        }
+
         public FormValidation doCheckProgressCheckInterval(@QueryParameter Integer value) {
 
             if(value != null) {
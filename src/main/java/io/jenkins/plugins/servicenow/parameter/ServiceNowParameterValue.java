@@ -1,68 +1,171 @@
 package io.jenkins.plugins.servicenow.parameter;
 
 import hudson.model.StringParameterValue;
+import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition.PARAMS_NAMES;
 import net.sf.json.JSONException;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.StringUtils;
 
+/**
+ * Value of the ServiceNow parameter. The value is stored as a JSON object with fields of the parameter (it is also
+ * the value of the environment variable read by build steps).
+ * <p>
+ * The JSON is parsed once, with the first call of a getter (e.g. when the parameters of the build are rendered),
+ * into a {@link Snapshot} that is not persisted.
+ */
 public class ServiceNowParameterValue extends StringParameterValue {
 
     private static final long serialVersionUID = 1327354888410861686L;
 
+    /**
+     * Fields of the parameter stored in the value (other fields of a submitted form are not persisted).
+     */
+    private static final String[] FIELDS = {
+            PARAMS_NAMES.description,
+            PARAMS_NAMES.credentialsForPublishedApp,
+            PARAMS_NAMES.instanceForPublishedAppUrl,
+            PARAMS_NAMES.credentialsForInstalledApp,
+            PARAMS_NAMES.instanceForInstalledAppUrl,
+            PARAMS_NAMES.sysId,
+            PARAMS_NAMES.appScope,
+            PARAMS_NAMES.publishedAppVersion,
+            PARAMS_NAMES.rollbackAppVersion,
+            PARAMS_NAMES.batchRollbackId,
+            PARAMS_NAMES.progressCheckInterval,
+            PARAMS_NAMES.progressCheckStrategy
+    };
+
+    private transient volatile Snapshot snapshot;
+
     public ServiceNowParameterValue(String name, String value) {
         super(name, value);
     }
 
+    /**
+     * Creates the value with the compact JSON object: only the name and fields of the parameter, without white spaces.
+     *
+     * @param name       Name of the parameter.
+     * @param jsonObject Fields of the parameter (e.g. submitted by the form of the build).
+     */
+    public static ServiceNowParameterValue fromJson(String name, JSONObject jsonObject) {
+        final JSONObject value = new JSONObject();
+        if(jsonObject.has("name")) {
+            value.put("name", jsonObject.get("name"));
+        }
+        for(String field : FIELDS) {
+            if(jsonObject.has(field)) {
+                value.put(field, jsonObject.get(field));
+            }
+        }
+        return new ServiceNowParameterValue(name, value.toString());
+    }
+
     public String getCredentialsForPublishedApp() {
-        return getSafeValue("credentialsForPublishedApp");
+        return getSnapshot().credentialsForPublishedApp;
     }
 
     public String getInstanceForPublishedAppUrl() {
-        return getSafeValue("instanceForPublishedAppUrl");
+        return getSnapshot().instanceForPublishedAppUrl;
     }
 
     public String getCredentialsForInstalledApp() {
-        return getSafeValue("credentialsForInstalledApp");
+        return getSnapshot().credentialsForInstalledApp;
     }
 
     public String getInstanceForInstalledAppUrl() {
-        return getSafeValue("instanceForInstalledAppUrl");
+        return getSnapshot().instanceForInstalledAppUrl;
     }
 
     public String getSysId() {
-        return getSafeValue("sysId");
+        return getSnapshot().sysId;
     }
 
     public String getAppScope() {
-        return getSafeValue("appScope");
+        return getSnapshot().appScope;
     }
 
     public String getPublishedAppVersion() {
-        return getSafeValue("publishedAppVersion");
+        return getSnapshot().publishedAppVersion;
     }
 
     public String getRollbackAppVersion() {
-        return getSafeValue("rollbackAppVersion");
+        return getSnapshot().rollbackAppVersion;
     }
 
     public Integer getProgressCheckInterval() {
-        try {
-            return Integer.parseInt(JSONObject.fromObject(this.value).getString("progressCheckInterval"));
-        } catch(NumberFormatException | JSONException ex) {
-        }
-        return null;
+        return getSnapshot().progressCheckInterval;
+    }
+
+    public String getProgressCheckStrategy() {
+        return getSnapshot().progressCheckStrategy;
     }
 
     public String getBatchRollbackId() {
-        return getSafeValue("batchRollbackId");
+        return getSnapshot().batchRollbackId;
     }
 
     public String getDescription() {
-        return getSafeValue("description");
+        return getSnapshot().description;
     }
 
-    private String getSafeValue(String parameterName) {
-        return JSONObject.fromObject(this.value).has(parameterName) ?
-                JSONObject.fromObject(this.value).getString(parameterName) : StringUtils.EMPTY;
+    /**
+     * @return Fields of the value, parsed only when the value was not parsed yet (or was changed since then).
+     */
+    Snapshot getSnapshot() {
+        final String currentValue = this.value;
+        Snapshot current = this.snapshot;
+        if(current == null || !StringUtils.equals(current.source, currentValue)) {
+            current = new Snapshot(currentValue);
+            this.snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Immutable fields of the value parsed from its JSON.
+     */
+    static final class Snapshot {
+        private final String source;
+        private final String description;
+        private final String credentialsForPublishedApp;
+        private final String instanceForPublishedAppUrl;
+        private final String credentialsForInstalledApp;
+        private final String instanceForInstalledAppUrl;
+        private final String sysId;
+        private final String appScope;
+        private final String publishedAppVersion;
+        private final String rollbackAppVersion;
+        private final String batchRollbackId;
+        private final Integer progressCheckInterval;
+        private final String progressCheckStrategy;
+
+        private Snapshot(final String source) {
+            this.source = source;
+            final JSONObject json = JSONObject.fromObject(source);
+            this.description = getSafeValue(json, PARAMS_NAMES.description);
+            this.credentialsForPublishedApp = getSafeValue(json, PARAMS_NAMES.credentialsForPublishedApp);
+            this.instanceForPublishedAppUrl = getSafeValue(json, PARAMS_NAMES.instanceForPublishedAppUrl);
+            this.credentialsForInstalledApp = getSafeValue(json, PARAMS_NAMES.credentialsForInstalledApp);
+            this.instanceForInstalledAppUrl = getSafeValue(json, PARAMS_NAMES.instanceForInstalledAppUrl);
+            this.sysId = getSafeValue(json, PARAMS_NAMES.sysId);
+            this.appScope = getSafeValue(json, PARAMS_NAMES.appScope);
+            this.publishedAppVersion = getSafeValue(json, PARAMS_NAMES.publishedAppVersion);
+            this.rollbackAppVersion = getSafeValue(json, PARAMS_NAMES.rollbackAppVersion);
+            this.batchRollbackId = getSafeValue(json, PARAMS_NAMES.batchRollbackId);
+            this.progressCheckInterval = getIntegerValue(json, PARAMS_NAMES.progressCheckInterval);
+            this.progressCheckStrategy = getSafeValue(json, PARAMS_NAMES.progressCheckStrategy);
+        }
+
+        private static String getSafeValue(final JSONObject json, final String parameterName) {
+            return json.has(parameterName) ? json.getString(parameterName) : StringUtils.EMPTY;
+        }
+
+        private static Integer getIntegerValue(final JSONObject json, final String parameterName) {
+            try {
+                return Integer.parseInt(json.getString(parameterName));
+            } catch(NumberFormatException | JSONException ex) {
+            }
+            return null;
+        }
     }
 }
@@ -0,0 +1,222 @@
+package io.jenkins.plugins.servicenow.testresults;
+
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes results of tests of an ATF test suite run as a JUnit XML report.
+ * Results of tests and of their steps are read page by page from the Table API and written to the output
+ * as soon as they are read, so only one page of records is kept in memory, whatever the size of the test suite.
+ * <p>
+ * Every test is reported as a test case of the test suite, results of its steps are reported in the output
+ * of the test case.
+ */
+public final class JUnitReportWriter {
+
+    private static final Logger LOG = LogManager.getLogger(JUnitReportWriter.class);
+
+    static final String TEST_RESULT_TABLE = "sys_atf_test_result";
+    static final String STEP_RESULT_TABLE = "sys_atf_test_result_step";
+    static final String TEST_RESULT_FIELDS = "sys_id,test.name,status,run_time,output";
+    static final String STEP_RESULT_FIELDS = "step.order,status,summary";
+
+    private static final DateTimeFormatter DURATION_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
+    private static final String INVALID_XML_CHARACTERS = "[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]";
+
+    private final ServiceNowAPIClient restClient;
+    private final int pageSize;
+
+    /**
+     * @param restClient Client of the instance the test suite was run on.
+     * @param pageSize   Number of records read from the Table API at once.
+     */
+    public JUnitReportWriter(final ServiceNowAPIClient restClient, final int pageSize) {
+        this.restClient = restClient;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Numbers of tests written to the report.
+     */
+    public static final class Summary {
+        private int tests;
+        private int failures;
+        private int errors;
+        private int skipped;
+
+        public int getTests() {
+            return tests;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d test(s), failed %d, with error %d, skipped %d", tests, failures, errors, skipped);
+        }
+    }
+
+    /**
+     * Writes the report of the test suite run. The output stream is not closed.
+     *
+     * @param testSuiteResultsId Id of results of the test suite run (<code>sys_atf_test_suite_result</code>).
+     * @param testSuiteName      Name of the test suite used in the report.
+     * @param output             Stream the report is written to.
+     * @return Numbers of tests written to the report.
+     * @throws IOException if the report cannot be written.
+     */
+    public Summary write(final String testSuiteResultsId, final String testSuiteName, final OutputStream output)
+            throws IOException {
+        if(StringUtils.isBlank(testSuiteResultsId)) {
+            throw new IllegalArgumentException("Id of test suite results must not be empty!");
+        }
+        final Summary summary = new Summary();
+        try {
+            final XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(output, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", clean(testSuiteName));
+            try {
+                this.restClient.forEachTableRecord(TEST_RESULT_TABLE, "parent=" + testSuiteResultsId, TEST_RESULT_FIELDS,
+                        this.pageSize, testResult -> writeTestCase(xml, testSuiteName, testResult, summary));
+            } catch(ReportException ex) {
+                throw ex.getCause();
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch(XMLStreamException ex) {
+            throw new IOException("JUnit report cannot be written: " + ex.getMessage(), ex);
+        }
+        LOG.debug("JUnit report of test suite results " + testSuiteResultsId + ": " + summary);
+        return summary;
+    }
+
+    private void writeTestCase(final XMLStreamWriter xml, final String testSuiteName,
+            final Map<String, Object> testResult, final Summary summary) {
+        final String status = getString(testResult, "status");
+        final String output = getString(testResult, "output");
+        try {
+            xml.writeStartElement("testcase");
+            xml.writeAttribute("classname", clean(testSuiteName));
+            xml.writeAttribute("name", clean(StringUtils.defaultIfBlank(getString(testResult, "test.name"), getString(testResult, "sys_id"))));
+            xml.writeAttribute("time", String.valueOf(parseDuration(getString(testResult, "run_time"))));
+            summary.tests++;
+            switch(status) {
+                case "success":
+                    break;
+                case "skipped":
+                case "cancelled":
+                    summary.skipped++;
+                    xml.writeEmptyElement("skipped");
+                    xml.writeAttribute("message", status);
+                    break;
+                case "error":
+                    summary.errors++;
+                    writeProblem(xml, "error", status, output);
+                    break;
+                default:
+                    summary.failures++;
+                    writeProblem(xml, "failure", status, output);
+            }
+
+            xml.writeStartElement("system-out");
+            this.restClient.forEachTableRecord(STEP_RESULT_TABLE,
+                    "test_result=" + getString(testResult, "sys_id") + "^ORDERBYstep.order^ORDERBYsys_id",
+                    STEP_RESULT_FIELDS, this.pageSize, stepResult -> writeStep(xml, stepResult));
+            xml.writeEndElement();
+            xml.writeEndElement();
+            // test cases are not buffered by the writer until the end of the report
+            xml.flush();
+        } catch(XMLStreamException ex) {
+            throw new ReportException(new IOException("JUnit report cannot be written: " + ex.getMessage(), ex));
+        }
+    }
+
+    private static void writeProblem(final XMLStreamWriter xml, final String element, final String status,
+            final String output) throws XMLStreamException {
+        xml.writeStartElement(element);
+        xml.writeAttribute("type", StringUtils.defaultIfBlank(status, "unknown"));
+        xml.writeAttribute("message", clean(StringUtils.abbreviate(StringUtils.defaultString(output), 1000)));
+        xml.writeCharacters(clean(output));
+        xml.writeEndElement();
+    }
+
+    private static void writeStep(final XMLStreamWriter xml, final Map<String, Object> stepResult) {
+        try {
+            xml.writeCharacters(clean(String.format("%s. [%s] %s%n", getString(stepResult, "step.order"),
+                    getString(stepResult, "status"), getString(stepResult, "summary"))));
+        } catch(XMLStreamException ex) {
+            throw new ReportException(new IOException("JUnit report cannot be written: " + ex.getMessage(), ex));
+        }
+    }
+
+    /**
+     * @param duration Duration returned by the Table API (e.g. <code>1970-01-01 00:01:05</code>) or number of seconds.
+     * @return Number of seconds (0 if the duration is not known).
+     */
+    static long parseDuration(final String duration) {
+        if(StringUtils.isBlank(duration)) {
+            return 0;
+        }
+        if(NumberUtils.isDigits(duration.trim())) {
+            return NumberUtils.toLong(duration.trim());
+        }
+        try {
+            return LocalDateTime.parse(duration.trim(), DURATION_FORMAT).toEpochSecond(ZoneOffset.UTC);
+        } catch(DateTimeParseException ex) {
+            LOG.debug("Unknown format of the duration: " + duration);
+            return 0;
+        }
+    }
+
+    private static String getString(final Map<String, Object> record, final String field) {
+        final Object value = record.get(field);
+        return value != null ? value.toString() : StringUtils.EMPTY;
+    }
+
+    private static String clean(final String text) {
+        return StringUtils.defaultString(text).replaceAll(INVALID_XML_CHARACTERS, StringUtils.EMPTY);
+    }
+
+    /**
+     * Carries the error of writing the report out of consumers of table records.
+     */
+    private static final class ReportException extends RuntimeException {
+        private ReportException(final IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.jenkins.plugins.servicenow.tracing;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+
+/**
+ * Access to OpenTelemetry used to trace build steps and requests sent to ServiceNow instances.
+ * By default the global instance is used, which is registered by the OpenTelemetry Java agent attached to the controller.
+ * The OpenTelemetry API is bundled with the plugin, so an SDK registered by another plugin (e.g. the OpenTelemetry plugin)
+ * in its own copy of the API is not seen here. Without any registered SDK spans are not recorded and tracing costs
+ * nearly nothing.
+ * <p>
+ * Spans of the plugin (all of them are children of the span of the build step):
+ * <ul>
+ *     <li><code>ServiceNow {step}</code> - the build step, from the request of the permit until the final status of the action,</li>
+ *     <li><code>ServiceNow queue</code> - time waited for the permit of {@link io.jenkins.plugins.servicenow.api.InstanceLimiter},</li>
+ *     <li><code>{method} {end-point}</code> - every attempt of the request sent to the instance (client span),</li>
+ *     <li><code>ServiceNow poll</code> - the check of the progress of the action with its request as a child.</li>
+ * </ul>
+ * Gaps between poll spans are the time the step slept between progress checks,
+ * the time of the action on the instance not spent in requests is the server side processing.
+ */
+public final class ServiceNowTracing {
+
+    static final String INSTRUMENTATION_NAME = "io.jenkins.plugins.servicenow";
+
+    public static final String ACTION = "servicenow.action";
+    public static final String INSTANCE = "servicenow.instance";
+    public static final String APP_SCOPE = "servicenow.app.scope";
+    public static final String APP_VERSION = "servicenow.app.version";
+    public static final String ACTION_STATUS = "servicenow.action.status";
+    public static final String ACTION_PERCENT = "servicenow.action.percent_complete";
+    public static final String ENDPOINT = "servicenow.endpoint";
+    public static final String ATTEMPT = "servicenow.attempt";
+
+    private static volatile OpenTelemetry openTelemetry;
+
+    private ServiceNowTracing() {
+    }
+
+    /**
+     * @return OpenTelemetry set for the plugin or the global one.
+     */
+    public static OpenTelemetry get() {
+        final OpenTelemetry current = openTelemetry;
+        return current != null ? current : GlobalOpenTelemetry.get();
+    }
+
+    /**
+     * @param openTelemetry OpenTelemetry used instead of the global one (null - the global one is used again).
+     */
+    public static void set(OpenTelemetry openTelemetry) {
+        ServiceNowTracing.openTelemetry = openTelemetry;
+    }
+
+    public static Tracer getTracer() {
+        return get().getTracer(INSTRUMENTATION_NAME);
+    }
+
+    /**
+     * @return Current context if it holds a span (e.g. a poll), otherwise the given context of the build step
+     * (null - the root context).
+     */
+    public static Context getParentContext(final Context stepContext) {
+        final Context current = Context.current();
+        if(Span.fromContext(current).getSpanContext().isValid() || stepContext == null) {
+            return current;
+        }
+        return stepContext;
+    }
+}
@@ -0,0 +1,89 @@
+package io.jenkins.plugins.servicenow.tracing;
+
+import io.jenkins.plugins.servicenow.api.ActionStatus;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Map;
+
+/**
+ * Span of one build step with the child span of the time waited in the queue of the instance.
+ * The trace is ended once, with the final status of the action.
+ */
+public final class StepTrace {
+
+    private final Span span;
+    private final Context context;
+    private volatile Span queueSpan;
+    private volatile boolean ended;
+
+    private StepTrace(final Span span) {
+        this.span = span;
+        this.context = Context.current().with(span);
+    }
+
+    /**
+     * Starts the span of the build step as a child of the current span (if there is any).
+     *
+     * @param stepType Type of the build step (e.g. <code>ApplyChanges</code>).
+     * @param instance Host name of the instance.
+     */
+    public static StepTrace start(final String stepType, final String instance) {
+        final Span span = ServiceNowTracing.getTracer().spanBuilder("ServiceNow " + stepType)
+                .setAttribute(ServiceNowTracing.ACTION, stepType)
+                .setAttribute(ServiceNowTracing.INSTANCE, StringUtils.defaultString(instance))
+                .startSpan();
+        return new StepTrace(span);
+    }
+
+    /**
+     * @return Context with the span of the build step, used as the parent of requests of the step.
+     */
+    public Context getContext() {
+        return this.context;
+    }
+
+    public void startQueue() {
+        this.queueSpan = ServiceNowTracing.getTracer().spanBuilder("ServiceNow queue")
+                .setParent(this.context)
+                .startSpan();
+    }
+
+    public void endQueue() {
+        final Span current = this.queueSpan;
+        if(current != null) {
+            this.queueSpan = null;
+            current.end();
+        }
+    }
+
+    /**
+     * Ends the span with the final status of the action. Next calls are ignored.
+     *
+     * @param status     Final status of the action (e.g. <code>SUCCESSFUL</code>, <code>TIMEOUT</code>).
+     * @param attributes Attributes known once the action is finished (e.g. the published version of the application).
+     * @param error      Error of the build step or null.
+     */
+    public synchronized void end(final String status, final Map<String, String> attributes, final Throwable error) {
+        if(this.ended) {
+            return;
+        }
+        this.ended = true;
+        endQueue();
+        attributes.forEach((name, value) -> {
+            if(StringUtils.isNotBlank(value)) {
+                this.span.setAttribute(name, value);
+            }
+        });
+        this.span.setAttribute(ServiceNowTracing.ACTION_STATUS, status);
+        if(error != null) {
+            this.span.recordException(error);
+            this.span.setStatus(StatusCode.ERROR, error.toString());
+        } else if(!ActionStatus.SUCCESSFUL.name().equals(status)) {
+            this.span.setStatus(StatusCode.ERROR, status);
+        }
+        this.span.end();
+    }
+}
@@ -6,7 +6,9 @@ import hudson.Launcher;
 import hudson.model.AbstractBuild;
 import hudson.model.ParametersAction;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.servicenow.api.ActionStatus;
 import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.api.model.Result;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -114,6 +116,28 @@ public class ActivatePluginBuilderTest extends BaseAPICallResultTest {
         // expect an exception
     }
 
+    @Test(expected = AbortException.class)
+    public void performWithActionCanceledOnInstance() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        activatePluginBuilder.setUrl(TestData.url);
+        activatePluginBuilder.setPluginId(TestData.pluginId);
+        activatePluginBuilder.setApiVersion(TestData.apiVersion);
+        Result canceledResult = getPendingResult();
+        canceledResult.setStatus(ActionStatus.CANCELED.getStatus());
+        canceledResult.setPercentComplete(null);
+        given(this.restClientMock.activatePlugin(eq(TestData.pluginId))).willReturn(getPendingResult());
+        given(this.restClientMock.checkProgress()).willReturn(canceledResult);
+
+        try {
+            // when
+            activatePluginBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+        } finally {
+            // then
+            verify(restClientMock, times(1)).checkProgress();
+            verify(restClientMock, never()).cancelProgress();
+        }
+    }
+
     private interface TestData {
         String url = "https://test.service-now.com";
         String apiVersion = "1.0";
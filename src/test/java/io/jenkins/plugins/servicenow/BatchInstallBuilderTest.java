@@ -13,6 +13,7 @@ import io.jenkins.plugins.servicenow.api.model.LinkObject;
 import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterDefinition;
 import io.jenkins.plugins.servicenow.parameter.ServiceNowParameterValue;
+import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.StringUtils;
 import org.hamcrest.Matchers;
@@ -28,10 +29,12 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
@@ -266,6 +269,157 @@ public class BatchInstallBuilderTest extends BaseAPICallResultTest {
         // expect an exception
     }
 
+    @Test
+    public void performWithoutInstalledPackages() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        batchInstallBuilder.setUrl(TestData.url);
+        batchInstallBuilder.setCredentialsId(TestData.credentials);
+        batchInstallBuilder.setBatchName(TestData.batchName);
+        batchInstallBuilder.setPackages(TestData.twoPackages);
+        batchInstallBuilder.setNotes(TestData.notes);
+        batchInstallBuilder.setSkipInstalledPackages(true);
+
+        given(this.restClientMock.getInstalledAppVersions(eq(List.of("app1", "app2"))))
+                .willReturn(Map.of("app1", "1.0.2", "app2", "1.9.0"));
+        given(this.restClientMock.batchInstall(eq(TestData.batchName), anyString(), eq(TestData.notes)))
+                .willReturn(getPendingResult());
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+
+        // when
+        batchInstallBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        ArgumentCaptor<String> packagesCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restClientMock, times(1))
+                .batchInstall(eq(TestData.batchName), packagesCaptor.capture(), eq(TestData.notes));
+        JSONArray packages = JSONArray.fromObject(packagesCaptor.getValue());
+        assertThat(packages.size(), is(2));
+        assertThat(packages.getJSONObject(0).getString("id"), is("app2"));
+        assertThat(packages.getJSONObject(1).getString("id"), is("com.glide.plugin"));
+        verify(restClientMock, times(1)).checkProgress();
+    }
+
+    @Test
+    public void performWithAllPackagesInstalled() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        batchInstallBuilder.setUrl(TestData.url);
+        batchInstallBuilder.setCredentialsId(TestData.credentials);
+        batchInstallBuilder.setUseFile(true);
+        batchInstallBuilder.setSkipInstalledPackages(true);
+
+        given(this.restClientMock.getInstalledAppVersions(eq(List.of("syd_id_abcefghi"))))
+                .willReturn(Map.of("syd_id_abcefghi", "1.0.2"));
+
+        // when
+        batchInstallBuilder.perform(runMock, createWorkspace(null), launcherMock, taskListenerMock);
+
+        // then
+        verify(restClientMock, never()).batchInstall(anyString());
+        verify(restClientMock, never()).checkProgress();
+        verify(parametersActionMock, never()).createUpdated(anyList());
+    }
+
+    @Test
+    public void performInChunks() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        batchInstallBuilder.setUrl(TestData.url);
+        batchInstallBuilder.setCredentialsId(TestData.credentials);
+        batchInstallBuilder.setBatchName(TestData.batchName);
+        batchInstallBuilder.setPackages(TestData.twoPackages);
+        batchInstallBuilder.setNotes(TestData.notes);
+        batchInstallBuilder.setChunkSize(2);
+        batchInstallBuilder.setMaxParallelChunks(1);
+
+        environment.put(ServiceNowParameterDefinition.PARAMETER_NAME,
+                "{'name': '" + ServiceNowParameterDefinition.PARAMETER_NAME + "'}"); // empty parameter snParam
+
+        given(this.restClientMock.batchInstall(eq(TestData.batchName + " [1/2]"), anyString(), eq(TestData.notes)))
+                .willReturn(getPendingResult("rollback-1"));
+        given(this.restClientMock.batchInstall(eq(TestData.batchName + " [2/2]"), anyString(), eq(TestData.notes)))
+                .willReturn(getPendingResult("rollback-2"));
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+
+        // when
+        batchInstallBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        ArgumentCaptor<String> packagesCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restClientMock, times(2)).batchInstall(anyString(), packagesCaptor.capture(), eq(TestData.notes));
+        assertThat(JSONArray.fromObject(packagesCaptor.getAllValues().get(0)).size(), is(2));
+        assertThat(JSONArray.fromObject(packagesCaptor.getAllValues().get(1)).size(), is(1));
+        verify(restClientMock, times(2)).checkProgress();
+        assertThat(batchInstallBuilder.getRollbackIds(), Matchers.contains("rollback-1", "rollback-2"));
+
+        ArgumentCaptor<List<ParameterValue>> paramsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(parametersActionMock, times(1)).createUpdated(paramsCaptor.capture());
+        ServiceNowParameterValue snParam = (ServiceNowParameterValue) paramsCaptor.getValue().stream()
+                .filter(p -> p instanceof ServiceNowParameterValue).findFirst().orElse(null);
+        assertThat(snParam.getBatchRollbackId(), is("rollback-1,rollback-2"));
+    }
+
+    @Test
+    public void performInChunksWithoutInstalledPackages() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        batchInstallBuilder.setUrl(TestData.url);
+        batchInstallBuilder.setCredentialsId(TestData.credentials);
+        batchInstallBuilder.setBatchName(TestData.batchName);
+        batchInstallBuilder.setPackages(TestData.twoPackages);
+        batchInstallBuilder.setNotes(TestData.notes);
+        batchInstallBuilder.setSkipInstalledPackages(true);
+        batchInstallBuilder.setChunkSize(1);
+
+        given(this.restClientMock.getInstalledAppVersions(eq(List.of("app1", "app2"))))
+                .willReturn(Map.of("app1", "1.0.2", "app2", "1.9.0"));
+        given(this.restClientMock.batchInstall(eq(TestData.batchName + " [1/2]"), anyString(), eq(TestData.notes)))
+                .willReturn(getPendingResult("rollback-1"));
+        given(this.restClientMock.batchInstall(eq(TestData.batchName + " [2/2]"), anyString(), eq(TestData.notes)))
+                .willReturn(getPendingResult("rollback-2"));
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+
+        // when
+        batchInstallBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        verify(restClientMock, times(1)).getInstalledAppVersions(anyList());
+        ArgumentCaptor<String> packagesCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restClientMock, times(2)).batchInstall(anyString(), packagesCaptor.capture(), eq(TestData.notes));
+        assertThat(JSONArray.fromObject(packagesCaptor.getAllValues().get(0)).getJSONObject(0).getString("id"), is("app2"));
+        assertThat(JSONArray.fromObject(packagesCaptor.getAllValues().get(1)).getJSONObject(0).getString("id"), is("com.glide.plugin"));
+        assertThat(batchInstallBuilder.getRollbackIds(), Matchers.contains("rollback-1", "rollback-2"));
+    }
+
+    @Test
+    public void performInChunksStoppedAfterFailedChunk() throws IOException, URISyntaxException {
+        // given
+        batchInstallBuilder.setUrl(TestData.url);
+        batchInstallBuilder.setCredentialsId(TestData.credentials);
+        batchInstallBuilder.setBatchName(TestData.batchName);
+        batchInstallBuilder.setPackages(TestData.twoPackages);
+        batchInstallBuilder.setNotes(TestData.notes);
+        batchInstallBuilder.setChunkSize(1);
+
+        given(this.restClientMock.batchInstall(eq(TestData.batchName + " [1/3]"), anyString(), eq(TestData.notes)))
+                .willReturn(getPendingResult("rollback-1"));
+        given(this.restClientMock.checkProgress()).willReturn(getFailedResult("Dependency missing"));
+
+        // when
+        AbortException exception = assertThrows(AbortException.class,
+                () -> batchInstallBuilder.perform(runMock, null, launcherMock, taskListenerMock));
+
+        // then
+        assertThat(exception.getMessage(), containsString("2 chunk(s) not installed"));
+        verify(restClientMock, times(1)).batchInstall(anyString(), anyString(), anyString());
+        verify(restClientMock, times(1)).checkProgress();
+    }
+
+    private Result getPendingResult(String rollbackId) {
+        final Result result = getPendingResult();
+        final LinkObject rollback = new LinkObject();
+        rollback.setId(rollbackId);
+        result.getLinks().setRollback(rollback);
+        return result;
+    }
+
     private FilePath createWorkspace(String workspacePath) {
         if(StringUtils.isBlank(workspacePath)) {
             return new FilePath(this.resourceDirectory.toFile());
@@ -288,6 +442,9 @@ public class BatchInstallBuilderTest extends BaseAPICallResultTest {
                 "     \"notes\": \"User specific text to describe this application install\"\n" +
                 "   }]";
         String resultsUrl = "https://now-instance/api/sn_cicd/app/batch/results/results-id";
+        String twoPackages = "[{\"id\": \"app1\", \"type\": \"application\", \"requested_version\": \"1.0.2\"}," +
+                "{\"id\": \"app2\", \"type\": \"application\", \"requested_version\": \"2.0.0\"}," +
+                "{\"id\": \"com.glide.plugin\", \"type\": \"plugin\", \"requested_version\": \"1.0.0\"}]";
         String rollbackId = "rollback-id";
     }
 
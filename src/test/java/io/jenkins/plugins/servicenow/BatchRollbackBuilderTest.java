@@ -15,6 +15,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -157,6 +158,27 @@ public class BatchRollbackBuilderTest extends BaseAPICallResultTest {
         assertThat(rollbackIdCaptor.getValue(), Matchers.blankOrNullString());
     }
 
+    @Test
+    public void performWithSuccess_rollbackOfChunksInReverseOrder() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        batchRollbackBuilder.setUrl(TestData.url);
+        batchRollbackBuilder.setApiVersion(TestData.apiVersion);
+        batchRollbackBuilder.setRollbackId("chunk-1,chunk-2");
+
+        given(this.restClientMock.batchRollback(anyString())).willReturn(getPendingResult());
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100,null));
+
+        // when
+        batchRollbackBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        InOrder inOrder = inOrder(restClientMock);
+        inOrder.verify(restClientMock).batchRollback(eq("chunk-2"));
+        inOrder.verify(restClientMock).batchRollback(eq("chunk-1"));
+        verify(restClientMock, times(2)).checkProgress();
+        assertThat(getLogs(), Matchers.containsString("chunk-1: DONE"));
+    }
+
     private String getLogs() {
         return consoleLogs.toString();
     }
@@ -4,9 +4,13 @@ import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Launcher;
 import hudson.model.AbstractBuild;
+import hudson.model.ParameterValue;
 import hudson.model.ParametersAction;
+import hudson.model.StringParameterValue;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.servicenow.api.ResponseUnboundParameters;
 import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.api.model.Result;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,12 +20,19 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collection;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -41,6 +52,8 @@ public class InstallAppBuilderTest extends BaseAPICallResultTest {
     @Mock
     private ServiceNowAPIClient restClientMock;
     @Mock
+    private ServiceNowAPIClient secondRestClientMock;
+    @Mock
     private ParametersAction parametersActionMock;
 
     @Before
@@ -51,7 +64,7 @@ public class InstallAppBuilderTest extends BaseAPICallResultTest {
         given(this.clientFactoryMock.create(eq(runMock), eq(TestData.url), eq(TestData.credentials)))
                 .willReturn(restClientMock);
         given(taskListenerMock.getLogger()).willReturn(System.out);
-        given(runMock.getAction(eq(ParametersAction.class))).willReturn(parametersActionMock);
+        lenient().when(runMock.getAction(eq(ParametersAction.class))).thenReturn(parametersActionMock);
     }
 
     @Test
@@ -115,8 +128,145 @@ public class InstallAppBuilderTest extends BaseAPICallResultTest {
         // expect an exception
     }
 
+    @Test
+    public void performOnTargets() throws Exception {
+        // given
+        installAppBuilder.setAppVersion(TestData.applicationVersion);
+        installAppBuilder.setAppScope(TestData.scope);
+        installAppBuilder.setTargets(Arrays.asList(getTarget(TestData.url, TestData.credentials, "emea"),
+                getTarget(TestData.secondUrl, TestData.secondCredentials, null)));
+        given(this.clientFactoryMock.create(eq(runMock), eq(TestData.secondUrl), eq(TestData.secondCredentials)))
+                .willReturn(secondRestClientMock);
+        given(this.restClientMock.installApp(eq(TestData.scope), any(), eq(TestData.applicationVersion), any(), any()))
+                .willReturn(getPendingResult("1.0.0"));
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+        given(this.secondRestClientMock.installApp(eq(TestData.scope), any(), eq(TestData.applicationVersion), any(), any()))
+                .willReturn(getPendingResult("0.9.0"));
+        given(this.secondRestClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+
+        // when
+        installAppBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        assertThat(installAppBuilder.getTargetRollbackVersions(), hasEntry("emea", "1.0.0"));
+        assertThat(installAppBuilder.getTargetRollbackVersions(), hasEntry("second_service_now_com", "0.9.0"));
+        ArgumentCaptor<Collection<ParameterValue>> parametersCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(parametersActionMock).createUpdated(parametersCaptor.capture());
+        assertThat(parametersCaptor.getValue(), hasItem(new StringParameterValue("rollbackAppVersion_emea", "1.0.0")));
+        assertThat(parametersCaptor.getValue(), hasItem(new StringParameterValue("rollbackAppVersion_second_service_now_com", "0.9.0")));
+    }
+
+    @Test
+    public void performOnTargetsWithFailure() throws Exception {
+        // given
+        installAppBuilder.setAppVersion(TestData.applicationVersion);
+        installAppBuilder.setAppScope(TestData.scope);
+        installAppBuilder.setMaxParallelTargets(1);
+        installAppBuilder.setTargets(Arrays.asList(getTarget(TestData.secondUrl, TestData.secondCredentials, null),
+                getTarget(TestData.url, TestData.credentials, "emea")));
+        given(this.clientFactoryMock.create(eq(runMock), eq(TestData.secondUrl), eq(TestData.secondCredentials)))
+                .willReturn(secondRestClientMock);
+        given(this.secondRestClientMock.installApp(eq(TestData.scope), any(), eq(TestData.applicationVersion), any(), any()))
+                .willReturn(getFailedResult("error"));
+        given(this.restClientMock.installApp(eq(TestData.scope), any(), eq(TestData.applicationVersion), any(), any()))
+                .willReturn(getPendingResult("1.0.0"));
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+
+        // when
+        AbortException exception = assertThrows(AbortException.class,
+                () -> installAppBuilder.perform(runMock, null, launcherMock, taskListenerMock));
+
+        // then
+        assertThat(exception.getMessage(), is("Installation failed on 1 of 2 instance(s)"));
+        // the failure on one instance does not stop installations on other instances
+        verify(restClientMock, times(1)).checkProgress();
+        assertThat(installAppBuilder.getTargetRollbackVersions(), hasEntry("emea", "1.0.0"));
+    }
+
+    @Test
+    public void performSkippedIfAlreadyInstalled() throws Exception {
+        // given
+        installAppBuilder.setUrl(TestData.url);
+        installAppBuilder.setAppVersion(TestData.applicationVersion);
+        installAppBuilder.setAppScope(TestData.scope);
+        installAppBuilder.setSkipIfInstalled(true);
+        given(this.restClientMock.getInstalledAppVersion(eq(TestData.scope), any())).willReturn(TestData.applicationVersion);
+
+        // when
+        installAppBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        verify(restClientMock, never()).installApp(any(), any(), any(), any(), any());
+        ArgumentCaptor<Collection<ParameterValue>> parametersCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(parametersActionMock).createUpdated(parametersCaptor.capture());
+        assertThat(parametersCaptor.getValue(), hasItem(new StringParameterValue("appInstallSkipped", "true")));
+        assertThat(InstallationRegistry.get().getInstallations(
+                InstallationRegistry.key("test.service-now.com", TestData.scope, null)), is(0));
+    }
+
+    @Test
+    public void performNotSkippedWhileAnotherInstallationIsInProgress() throws Exception {
+        // given
+        installAppBuilder.setUrl(TestData.url);
+        installAppBuilder.setAppVersion(TestData.applicationVersion);
+        installAppBuilder.setAppScope(TestData.scope);
+        installAppBuilder.setSkipIfInstalled(true);
+        given(this.restClientMock.installApp(eq(TestData.scope), any(), eq(TestData.applicationVersion), any(), any()))
+                .willReturn(getPendingResult("1.0.0"));
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+        final String key = InstallationRegistry.key("test.service-now.com", TestData.scope, null);
+        InstallationRegistry.get().register(key);
+
+        try {
+            // when
+            installAppBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+            // then
+            verify(restClientMock, never()).getInstalledAppVersion(any(), any());
+            verify(restClientMock, times(1)).installApp(any(), any(), any(), any(), any());
+            assertThat(InstallationRegistry.get().getInstallations(key), is(1));
+        } finally {
+            InstallationRegistry.get().unregister(key);
+        }
+    }
+
+    @Test
+    public void installationReleasedWhenAborted() throws Exception {
+        // given
+        installAppBuilder.setUrl(TestData.url);
+        installAppBuilder.setAppVersion(TestData.applicationVersion);
+        installAppBuilder.setAppScope(TestData.scope);
+        given(this.restClientMock.installApp(eq(TestData.scope), any(), eq(TestData.applicationVersion), any(), any()))
+                .willReturn(getPendingResult("1.0.0"));
+        final String key = InstallationRegistry.key("test.service-now.com", TestData.scope, null);
+        installAppBuilder.prepare(runMock, null, runMock.getEnvironment(taskListenerMock));
+        installAppBuilder.startAction(runMock, taskListenerMock);
+        assertThat(InstallationRegistry.get().getInstallations(key), is(1));
+
+        // when
+        installAppBuilder.abortTrace(null);
+
+        // then
+        assertThat(InstallationRegistry.get().getInstallations(key), is(0));
+        verify(restClientMock, never()).checkProgress();
+    }
+
+    private Result getPendingResult(String rollbackVersion) {
+        final Result result = getPendingResult();
+        result.addUnboundAttribute(ResponseUnboundParameters.rollbackAppVersion, rollbackVersion);
+        return result;
+    }
+
+    private static InstallTarget getTarget(String url, String credentialsId, String name) {
+        final InstallTarget target = new InstallTarget(url, credentialsId);
+        target.setName(name);
+        return target;
+    }
+
     private interface TestData {
         String url = "https://test.service-now.com";
+        String secondUrl = "https://second.service-now.com";
+        String secondCredentials = "5678";
         String apiVersion = "1.0";
         String credentials = "1234";
         String sysId = "123456789";
@@ -8,6 +8,9 @@ import hudson.model.ParametersAction;
 import hudson.model.TaskListener;
 import hudson.util.ListBoxModel;
 import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.api.model.LinkObject;
+import io.jenkins.plugins.servicenow.api.model.Links;
+import io.jenkins.plugins.servicenow.api.model.Result;
 import io.jenkins.plugins.servicenow.instancescan.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,15 +21,21 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -230,6 +239,89 @@ public class InstanceScanBuilderTest extends BaseAPICallResultTest {
         }
     }
 
+    @Test
+    public void performFullScanWithFindingsOfFailingPriority() throws IOException, URISyntaxException {
+        // given
+        instanceScanBuilder.setUrl(TestData.url);
+        instanceScanBuilder.setScanType(ScanType.fullScan.name());
+        instanceScanBuilder.setFailOnPriority("HIGH");
+        instanceScanBuilder.setMaxFindings(10);
+
+        given(this.restClientMock.executeFullScan()).willReturn(getPendingResult());
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResultWithScanResult());
+        doAnswer(invocation -> {
+            final Consumer<Map<String, Object>> consumer = invocation.getArgument(4);
+            consumer.accept(getFinding("3"));
+            consumer.accept(getFinding("2"));
+            return 2;
+        }).when(restClientMock).forEachTableRecord(eq("scan_finding"), eq("result=" + TestData.scanResultId), any(), anyInt(), any());
+
+        // when
+        assertThrows(AbortException.class, () -> instanceScanBuilder.perform(runMock, null, launcherMock, taskListenerMock));
+
+        // then
+        verify(restClientMock, times(1)).forEachTableRecord(eq("scan_finding"), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void performFullScanWithFindingsBelowThresholds() throws IOException, InterruptedException, URISyntaxException {
+        // given
+        instanceScanBuilder.setUrl(TestData.url);
+        instanceScanBuilder.setScanType(ScanType.fullScan.name());
+        instanceScanBuilder.setFailOnPriority("CRITICAL");
+        instanceScanBuilder.setMaxFindings(2);
+
+        given(this.restClientMock.executeFullScan()).willReturn(getPendingResult());
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResultWithScanResult());
+        doAnswer(invocation -> {
+            final Consumer<Map<String, Object>> consumer = invocation.getArgument(4);
+            consumer.accept(getFinding("3"));
+            consumer.accept(getFinding("2"));
+            return 2;
+        }).when(restClientMock).forEachTableRecord(eq("scan_finding"), eq("result=" + TestData.scanResultId), any(), anyInt(), any());
+
+        // when
+        instanceScanBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        verify(restClientMock, times(1)).forEachTableRecord(eq("scan_finding"), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void setFailOnPriorityIgnoresCase() {
+        // when
+        instanceScanBuilder.setFailOnPriority(" high ");
+
+        // then
+        assertThat(instanceScanBuilder.getFailOnPriority(), is("HIGH"));
+    }
+
+    @Test
+    public void setFailOnPriorityRejectsUnknownPriority() {
+        // when
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> instanceScanBuilder.setFailOnPriority("urgent"));
+
+        // then
+        assertThat(exception.getMessage(), containsString("urgent"));
+        assertThat(instanceScanBuilder.getFailOnPriority(), nullValue());
+    }
+
+    private Result getSuccessfulResultWithScanResult() {
+        final Result result = getSuccessfulResult(100, null);
+        result.setLinks(new Links());
+        result.getLinks().setResults(new LinkObject());
+        result.getLinks().getResults().setId(TestData.scanResultId);
+        return result;
+    }
+
+    private static Map<String, Object> getFinding(final String priority) {
+        final Map<String, Object> finding = new HashMap<>();
+        finding.put("check.name", "check-" + priority);
+        finding.put("check.priority", priority);
+        return finding;
+    }
+
     private interface TestData {
         String url = "https://test.service-now.com";
         String credentials = "1234";
@@ -239,6 +331,7 @@ public class InstanceScanBuilderTest extends BaseAPICallResultTest {
         String suiteSysId = "456kjl";
         String requestBodyOnScopedApps = "{app_scope_sys_ids: ['123', '234']}";
         String requestBodyOnUpdateSets = "{update_set_sys_ids: ['345', '456']}";
+        String scanResultId = "scanResult1";
     }
 
 }
\ No newline at end of file
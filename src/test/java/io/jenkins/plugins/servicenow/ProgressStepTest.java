@@ -0,0 +1,137 @@
+package io.jenkins.plugins.servicenow;
+
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.domains.Domain;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.model.Result;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.junit.MockServerRule;
+import org.mockserver.verify.VerificationTimes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class ProgressStepTest {
+
+    private static final String CREDENTIALS_ID = "sn-credentials";
+    private static final String PROGRESS_ID = "1234";
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Rule
+    public MockServerRule mockServerRule = new MockServerRule(this);
+
+    private MockServerClient mockServer;
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        this.url = "http://localhost:" + mockServerRule.getPort();
+        CredentialsProvider.lookupStores(jenkins.jenkins).iterator().next()
+                .addCredentials(Domain.global(), new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL,
+                        CREDENTIALS_ID, "test", "user", "password"));
+    }
+
+    @Test
+    public void testApplyChangesOutsideOfNode() throws Exception {
+        // given
+        mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/sc/apply_changes"))
+                .respond(response().withStatusCode(200).withBody(progressResponse("1", 10)));
+        mockServer.when(request().withMethod("GET").withPath("/api/sn_cicd/progress/" + PROGRESS_ID))
+                .respond(response().withStatusCode(200).withBody(progressResponse("2", 100)));
+        WorkflowJob job = jenkins.createProject(WorkflowJob.class, "asyncJob");
+        job.setDefinition(new CpsFlowDefinition("withEnv(['progressCheckInterval=100']) {\n" +
+                " snAsync(builder: [$class: 'ApplyChangesBuilder', credentialsId: '" + CREDENTIALS_ID + "', url: '" + url + "', appSysId: 'sysId'])\n" +
+                "}", true));
+
+        // when
+        WorkflowRun build = jenkins.buildAndAssertSuccess(job);
+
+        // then
+        jenkins.assertLogContains("Changes applied.", build);
+        mockServer.verify(request("/api/sn_cicd/progress/" + PROGRESS_ID), VerificationTimes.atLeast(1));
+    }
+
+    @Test
+    public void testFailedAction() throws Exception {
+        // given
+        mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/sc/apply_changes"))
+                .respond(response().withStatusCode(200).withBody(progressResponse("1", 10)));
+        mockServer.when(request().withMethod("GET").withPath("/api/sn_cicd/progress/" + PROGRESS_ID))
+                .respond(response().withStatusCode(200).withBody(progressResponse("3", 50)));
+        WorkflowJob job = jenkins.createProject(WorkflowJob.class, "asyncFailedJob");
+        job.setDefinition(new CpsFlowDefinition("withEnv(['progressCheckInterval=100']) {\n" +
+                " snAsync(builder: [$class: 'ApplyChangesBuilder', credentialsId: '" + CREDENTIALS_ID + "', url: '" + url + "', appSysId: 'sysId'])\n" +
+                "}", true));
+
+        // when
+        WorkflowRun build = jenkins.assertBuildStatus(Result.FAILURE, job.scheduleBuild2(0));
+
+        // then
+        jenkins.assertLogContains("Action DONE but failed", build);
+    }
+
+    @Test
+    public void testUnsupportedOptionFailsTheStep() throws Exception {
+        // given
+        WorkflowJob job = jenkins.createProject(WorkflowJob.class, "asyncTargetsJob");
+        job.setDefinition(new CpsFlowDefinition(
+                "snAsync(builder: [$class: 'InstallAppBuilder', credentialsId: '" + CREDENTIALS_ID + "', url: '" + url + "', appScope: 'x_app'," +
+                        " targets: [[url: '" + url + "', credentialsId: '" + CREDENTIALS_ID + "']]])", true));
+
+        // when
+        WorkflowRun build = jenkins.assertBuildStatus(Result.FAILURE, job.scheduleBuild2(0));
+
+        // then
+        jenkins.assertLogContains("is not supported by snAsync", build);
+        mockServer.verify(request("/api/sn_cicd/app_repo/install"), VerificationTimes.never());
+    }
+
+    @Test
+    public void testActionCanceledWhenAbortedWhileRequested() throws Exception {
+        // given
+        mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/sc/apply_changes"))
+                .respond(response().withStatusCode(200).withBody(progressResponse("1", 10)).withDelay(TimeUnit.SECONDS, 2));
+        mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/progress/" + PROGRESS_ID + "/cancel"))
+                .respond(response().withStatusCode(200).withBody(progressResponse("4", 10)));
+        WorkflowJob job = jenkins.createProject(WorkflowJob.class, "asyncAbortedJob");
+        job.setDefinition(new CpsFlowDefinition(
+                "snAsync(builder: [$class: 'ApplyChangesBuilder', credentialsId: '" + CREDENTIALS_ID + "', url: '" + url + "', appSysId: 'sysId'])", true));
+        WorkflowRun build = job.scheduleBuild2(0).waitForStart();
+        waitForRequest("/api/sn_cicd/sc/apply_changes");
+
+        // when
+        build.doStop();
+
+        // then
+        jenkins.assertBuildStatus(Result.ABORTED, jenkins.waitForCompletion(build));
+        waitForRequest("/api/sn_cicd/progress/" + PROGRESS_ID + "/cancel");
+        mockServer.verify(request("/api/sn_cicd/progress/" + PROGRESS_ID + "/cancel"), VerificationTimes.exactly(1));
+        mockServer.verify(request("/api/sn_cicd/progress/" + PROGRESS_ID).withMethod("GET"), VerificationTimes.never());
+    }
+
+    private void waitForRequest(String path) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while(mockServer.retrieveRecordedRequests(request(path)).length == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private String progressResponse(String status, int percentComplete) {
+        return "{\"result\": {" +
+                "\"links\": {\"progress\": {\"id\": \"" + PROGRESS_ID + "\", \"url\": \"" + url + "/api/sn_cicd/progress/" + PROGRESS_ID + "\"}}," +
+                "\"status\": \"" + status + "\", \"status_label\": \"\", \"status_message\": \"\", \"status_detail\": \"\", \"error\": \"\"," +
+                "\"percent_complete\": " + percentComplete + "}}";
+    }
+}
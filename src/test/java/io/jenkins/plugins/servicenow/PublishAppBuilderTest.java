@@ -2,11 +2,14 @@ package io.jenkins.plugins.servicenow;
 
 import hudson.AbortException;
 import hudson.EnvVars;
+import hudson.FilePath;
 import hudson.Launcher;
 import hudson.model.AbstractBuild;
 import hudson.model.ParametersAction;
 import hudson.model.TaskListener;
 import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.application.ApplicationVersion;
+import io.jenkins.plugins.servicenow.application.PublishedAppContent;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,8 +17,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Collections;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -41,6 +46,10 @@ public class PublishAppBuilderTest extends BaseAPICallResultTest {
     private ServiceNowAPIClient restClientMock;
     @Mock
     private ParametersAction parametersActionMock;
+    @Mock
+    private AbstractBuild previousRunMock;
+    @Mock
+    private ApplicationVersion applicationVersionMock;
 
     @Before
     public void setUp() throws Exception {
@@ -130,6 +139,57 @@ public class PublishAppBuilderTest extends BaseAPICallResultTest {
         verify(restClientMock, times(1)).checkProgress();
     }
 
+    @Test
+    public void performSkippedIfApplicationNotChanged() throws IOException, InterruptedException {
+        // given
+        publishAppBuilder.setUrl(TestData.url);
+        publishAppBuilder.setAppScope(TestData.scope);
+        publishAppBuilder.setSkipUnchanged(true);
+        publishAppBuilder.setApplicationVersion(applicationVersionMock);
+        final FilePath workspace = new FilePath(new File(TestData.workspace));
+        given(applicationVersionMock.getContentHash(eq(workspace), eq(TestData.scope))).willReturn(TestData.contentHash);
+        given(runMock.getPreviousBuild()).willReturn(previousRunMock);
+        given(previousRunMock.getActions(eq(PublishedAppContent.class))).willReturn(Collections.singletonList(
+                new PublishedAppContent("test.service-now.com", TestData.scope, TestData.applicationVersion, TestData.contentHash)));
+
+        // when
+        publishAppBuilder.perform(runMock, workspace, launcherMock, taskListenerMock);
+
+        // then
+        verify(restClientMock, never()).publishApp(any(), any(), any(), any());
+        ArgumentCaptor<PublishedAppContent> publishedCaptor = ArgumentCaptor.forClass(PublishedAppContent.class);
+        verify(runMock).addAction(publishedCaptor.capture());
+        assertThat(publishedCaptor.getValue().getVersion(), is(TestData.applicationVersion));
+        assertThat(publishedCaptor.getValue().getContentHash(), is(TestData.contentHash));
+    }
+
+    @Test
+    public void performPublishedIfApplicationChanged() throws IOException, InterruptedException {
+        // given
+        publishAppBuilder.setUrl(TestData.url);
+        publishAppBuilder.setAppScope(TestData.scope);
+        publishAppBuilder.setAppVersion("1.0.2");
+        publishAppBuilder.setSkipUnchanged(true);
+        publishAppBuilder.setApplicationVersion(applicationVersionMock);
+        final FilePath workspace = new FilePath(new File(TestData.workspace));
+        given(applicationVersionMock.getContentHash(eq(workspace), eq(TestData.scope))).willReturn("changed");
+        given(runMock.getPreviousBuild()).willReturn(previousRunMock);
+        given(previousRunMock.getActions(eq(PublishedAppContent.class))).willReturn(Collections.singletonList(
+                new PublishedAppContent("test.service-now.com", TestData.scope, TestData.applicationVersion, TestData.contentHash)));
+        given(this.restClientMock.publishApp(eq(TestData.scope), any(), eq("1.0.2"), any())).willReturn(getPendingResult());
+        given(this.restClientMock.checkProgress()).willReturn(getSuccessfulResult(100, null));
+
+        // when
+        publishAppBuilder.perform(runMock, workspace, launcherMock, taskListenerMock);
+
+        // then
+        verify(restClientMock, times(1)).publishApp(eq(TestData.scope), any(), eq("1.0.2"), any());
+        ArgumentCaptor<PublishedAppContent> publishedCaptor = ArgumentCaptor.forClass(PublishedAppContent.class);
+        verify(runMock).addAction(publishedCaptor.capture());
+        assertThat(publishedCaptor.getValue().getVersion(), is("1.0.2"));
+        assertThat(publishedCaptor.getValue().getContentHash(), is("changed"));
+    }
+
     private interface TestData {
         String url = "https://test.service-now.com";
         String apiVersion = "1.0";
@@ -138,6 +198,8 @@ public class PublishAppBuilderTest extends BaseAPICallResultTest {
         String scope = "testScope";
         String applicationVersion = "1.0.1";
         String devNotes = "test developers note";
+        String workspace = "src/test/resources/source-control-1";
+        String contentHash = "0a1b2c";
     }
 
 }
\ No newline at end of file
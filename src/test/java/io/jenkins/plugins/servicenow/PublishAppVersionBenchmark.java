@@ -0,0 +1,31 @@
+package io.jenkins.plugins.servicenow;
+
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures calculation of the next version of the published application from its current version.
+ */
+@JmhBenchmark
+public class PublishAppVersionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Builder {
+
+        private PublishAppBuilder builder;
+
+        @Setup
+        public void setup() {
+            this.builder = new PublishAppBuilder("credentials");
+            this.builder.setIncrementBy(1);
+        }
+    }
+
+    @Benchmark
+    public String getNextAppVersion(Builder builder) {
+        return builder.builder.getNextAppVersion("1.12.1041");
+    }
+}
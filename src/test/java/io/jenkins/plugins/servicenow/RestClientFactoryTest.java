@@ -0,0 +1,69 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.model.Run;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RestClientFactoryTest {
+
+    private static final String URL = "https://test";
+
+    @Mock
+    private Run runMock;
+
+    private final AtomicInteger createdClients = new AtomicInteger();
+
+    private final Supplier<ServiceNowAPIClient> clientSupplier = () -> {
+        createdClients.incrementAndGet();
+        return new ServiceNowAPIClient(URL, "user", null);
+    };
+
+    @Before
+    public void setUp() {
+        given(runMock.getExternalizableId()).willReturn("job#1");
+    }
+
+    @After
+    public void tearDown() {
+        RestClientFactory.invalidate(runMock);
+    }
+
+    @Test
+    public void testGetClient_cachedForBuild() {
+        // when
+        ServiceNowAPIClient client1 = RestClientFactory.getClient(runMock, URL + "|credentials", clientSupplier);
+        ServiceNowAPIClient client2 = RestClientFactory.getClient(runMock, URL + "|credentials", clientSupplier);
+        RestClientFactory.getClient(runMock, URL + "|other", clientSupplier);
+
+        // then
+        assertThat(createdClients).hasValue(2);
+        assertThat(client1).isNotSameAs(client2);
+        assertThat(RestClientFactory.getCachedClients(runMock)).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetClient_invalidatedWhenBuildFinished() {
+        // given
+        RestClientFactory.getClient(runMock, URL + "|credentials", clientSupplier);
+
+        // when
+        new RestClientFactory.ClientCacheInvalidator().onFinalized(runMock);
+        RestClientFactory.getClient(runMock, URL + "|credentials", clientSupplier);
+
+        // then
+        assertThat(createdClients).hasValue(2);
+        assertThat(RestClientFactory.getCachedClients(runMock)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,136 @@
+package io.jenkins.plugins.servicenow;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.servicenow.api.ActionStatus;
+import io.jenkins.plugins.servicenow.api.ResponseUnboundParameters;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.api.model.LinkObject;
+import io.jenkins.plugins.servicenow.api.model.Links;
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RunTestSuiteWithResultsBuilderTest extends BaseAPICallResultTest {
+
+    private RunTestSuiteWithResultsBuilder runTestSuiteBuilder;
+
+    @Mock
+    private AbstractBuild runMock;
+    @Mock
+    private Launcher launcherMock;
+    @Mock
+    private TaskListener taskListenerMock;
+    @Mock
+    private RunFactory<ServiceNowAPIClient> clientFactoryMock;
+    @Mock
+    private ServiceNowAPIClient restClientMock;
+
+    @Before
+    public void setUp() throws Exception {
+        this.runTestSuiteBuilder = new RunTestSuiteWithResultsBuilder(TestData.credentials);
+        this.runTestSuiteBuilder.setUrl(TestData.url);
+        this.runTestSuiteBuilder.setClientFactory(clientFactoryMock);
+        this.runTestSuiteBuilder.setWithResults(true);
+        given(this.runMock.getEnvironment(any())).willReturn(new EnvVars());
+        given(this.clientFactoryMock.create(eq(runMock), eq(TestData.url), eq(TestData.credentials)))
+                .willReturn(restClientMock);
+        given(taskListenerMock.getLogger()).willReturn(System.out);
+    }
+
+    @Test
+    public void performMatrix() throws Exception {
+        // given
+        runTestSuiteBuilder.setTestSuites(Arrays.asList(getTestSuite("Smoke tests"), getTestSuite("Regression tests")));
+        runTestSuiteBuilder.setTestEnvironments(Arrays.asList(getTestEnvironment("chrome"), getTestEnvironment("firefox")));
+        given(restClientMock.runTestSuite(any(), isNull(), isNull(), isNull(), any(), isNull())).willReturn(getPendingResult());
+        given(restClientMock.checkProgress()).willReturn(getSuccessfulResultWithLinks());
+        given(restClientMock.getTestSuiteResults(eq(TestData.resultsId))).willReturn(getTestSuiteResults(5, 0));
+
+        // when
+        runTestSuiteBuilder.perform(runMock, null, launcherMock, taskListenerMock);
+
+        // then
+        for(String suite : new String[]{"Smoke tests", "Regression tests"}) {
+            for(String browser : new String[]{"chrome", "firefox"}) {
+                verify(restClientMock, times(1)).runTestSuite(eq(suite), isNull(), isNull(), isNull(), eq(browser), isNull());
+            }
+        }
+        verify(restClientMock, times(4)).getTestSuiteResults(eq(TestData.resultsId));
+    }
+
+    @Test
+    public void performMatrixWithFailedRuns() throws Exception {
+        // given
+        runTestSuiteBuilder.setTestSuites(Arrays.asList(getTestSuite("Smoke tests"), getTestSuite("Broken tests")));
+        runTestSuiteBuilder.setTestEnvironments(Arrays.asList(getTestEnvironment("chrome"), getTestEnvironment("firefox")));
+        runTestSuiteBuilder.setMaxParallelRuns(1);
+        given(restClientMock.runTestSuite(eq("Smoke tests"), isNull(), isNull(), isNull(), any(), isNull())).willReturn(getPendingResult());
+        given(restClientMock.runTestSuite(eq("Broken tests"), isNull(), isNull(), isNull(), any(), isNull())).willReturn(getFailedResult("error"));
+        given(restClientMock.checkProgress()).willReturn(getSuccessfulResultWithLinks());
+        given(restClientMock.getTestSuiteResults(eq(TestData.resultsId))).willReturn(getTestSuiteResults(5, 0));
+
+        // when
+        AbortException exception = assertThrows(AbortException.class,
+                () -> runTestSuiteBuilder.perform(runMock, null, launcherMock, taskListenerMock));
+
+        // then
+        assertThat(exception.getMessage(), is("Test suite matrix failed: 2 of 4 run(s) failed"));
+        verify(restClientMock, times(2)).getTestSuiteResults(eq(TestData.resultsId));
+        verify(restClientMock, never()).cancelProgress();
+    }
+
+    private Result getSuccessfulResultWithLinks() {
+        final Result result = getSuccessfulResult(100, null);
+        result.setLinks(new Links());
+        result.getLinks().setResults(new LinkObject());
+        result.getLinks().getResults().setId(TestData.resultsId);
+        return result;
+    }
+
+    private Result getTestSuiteResults(int successCount, int failureCount) {
+        final Result result = getSuccessfulResultWithLinks();
+        result.setStatus(failureCount > 0 ? ActionStatus.FAILED.getStatus() : ActionStatus.SUCCESSFUL.getStatus());
+        result.addUnboundAttribute(ResponseUnboundParameters.TestResults.rolledupTestSuccessCount, successCount);
+        result.addUnboundAttribute(ResponseUnboundParameters.TestResults.rolledupTestFailureCount, failureCount);
+        return result;
+    }
+
+    private static TestSuite getTestSuite(String name) {
+        final TestSuite testSuite = new TestSuite();
+        testSuite.setTestSuiteName(name);
+        return testSuite;
+    }
+
+    private static TestEnvironment getTestEnvironment(String browserName) {
+        final TestEnvironment testEnvironment = new TestEnvironment();
+        testEnvironment.setBrowserName(browserName);
+        return testEnvironment;
+    }
+
+    private interface TestData {
+        String url = "https://test.service-now.com";
+        String credentials = "1234";
+        String resultsId = "results-1";
+    }
+}
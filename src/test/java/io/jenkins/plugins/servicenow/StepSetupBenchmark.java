@@ -0,0 +1,27 @@
+package io.jenkins.plugins.servicenow;
+
+import com.google.inject.Guice;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures the set up of a build step by the dependency injection: the injector built for every step
+ * (the former approach) compared with the injector shared by the module.
+ */
+@JmhBenchmark
+public class StepSetupBenchmark {
+
+    @Benchmark
+    public InstanceScanBuilder injectorPerStep() {
+        final InstanceScanBuilder builder = new InstanceScanBuilder("credentials");
+        Guice.createInjector(new ServiceNowModule()).injectMembers(builder);
+        return builder;
+    }
+
+    @Benchmark
+    public InstanceScanBuilder sharedInjector() {
+        final InstanceScanBuilder builder = new InstanceScanBuilder("credentials");
+        ServiceNowModule.getInjector().injectMembers(builder);
+        return builder;
+    }
+}
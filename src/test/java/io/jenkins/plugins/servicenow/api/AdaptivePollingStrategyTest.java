@@ -0,0 +1,78 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePollingStrategyTest {
+
+    @Test
+    public void testNextDelay_noProgressBacksOff() {
+        // given
+        AdaptivePollingStrategy strategy = new AdaptivePollingStrategy(5000);
+
+        // when
+        long first = strategy.nextDelay(getResult(0), 0);
+        long second = strategy.nextDelay(getResult(0), 5000);
+        long third = strategy.nextDelay(getResult(0), 15000);
+
+        // then
+        assertThat(first).isEqualTo(5000);
+        assertThat(second).isEqualTo(10000);
+        assertThat(third).isEqualTo(20000);
+    }
+
+    @Test
+    public void testNextDelay_backOffIsCapped() {
+        // given
+        AdaptivePollingStrategy strategy = new AdaptivePollingStrategy(50_000);
+
+        // when
+        strategy.nextDelay(getResult(null), 0);
+        long delay = strategy.nextDelay(getResult(null), 50_000);
+
+        // then
+        assertThat(delay).isEqualTo(AdaptivePollingStrategy.MAX_DELAY);
+    }
+
+    @Test
+    public void testNextDelay_denserCloseToCompletion() {
+        // given
+        AdaptivePollingStrategy strategy = new AdaptivePollingStrategy(5000);
+        strategy.nextDelay(getResult(0), 0);
+
+        // when
+        // 10% per minute: 9 minutes remaining, capped
+        long early = strategy.nextDelay(getResult(10), 60_000);
+        // 90% after 9 minutes: 1 minute remaining
+        long late = strategy.nextDelay(getResult(90), 540_000);
+        // 99% after 9.9 minutes: 6 seconds remaining
+        long end = strategy.nextDelay(getResult(99), 594_000);
+
+        // then
+        assertThat(early).isEqualTo(AdaptivePollingStrategy.MAX_DELAY);
+        assertThat(late).isEqualTo(30_000);
+        assertThat(end).isEqualTo(3000);
+    }
+
+    @Test
+    public void testNextDelay_shortAction() {
+        // given
+        AdaptivePollingStrategy strategy = new AdaptivePollingStrategy(5000);
+        strategy.nextDelay(getResult(0), 0);
+
+        // when
+        long delay = strategy.nextDelay(getResult(100), 1000);
+
+        // then
+        assertThat(delay).isEqualTo(AdaptivePollingStrategy.MIN_DELAY);
+    }
+
+    private Result getResult(Integer percentComplete) {
+        Result result = new Result();
+        result.setStatus(ActionStatus.RUNNING.getStatus());
+        result.setPercentComplete(percentComplete);
+        return result;
+    }
+}
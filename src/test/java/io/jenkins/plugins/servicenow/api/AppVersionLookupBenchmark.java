@@ -0,0 +1,85 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.TableResponse;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.mockserver.integration.ClientAndServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Compares looking up the version of an application by scope with the whole sys_app table read and filtered
+ * on the client side (the former approach) and with the query filtered on the instance side.
+ * The instance is simulated by a local mock server holding a table of 10,000 applications.
+ */
+@JmhBenchmark
+public class AppVersionLookupBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+    private static final String SCOPE = "x_app_" + (TABLE_SIZE - 1);
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+
+        private ClientAndServer mockServer;
+        private String url;
+        private ServiceNowAPIClient client;
+
+        @Setup
+        public void setup() {
+            this.mockServer = ClientAndServer.startClientAndServer();
+            this.url = "http://localhost:" + this.mockServer.getPort();
+            this.client = new ServiceNowAPIClient(this.url, "test", null);
+
+            final StringBuilder table = new StringBuilder("{\"result\":[");
+            for(int i = 0; i < TABLE_SIZE; i++) {
+                if(i > 0) {
+                    table.append(',');
+                }
+                table.append("{\"scope\":\"x_app_").append(i).append("\",\"version\":\"1.0.").append(i).append("\"}");
+            }
+            table.append("]}");
+
+            this.mockServer.when(request().withMethod("GET").withPath("/api/now/table/sys_app")
+                    .withQueryStringParameter("sysparm_query", "scope=" + SCOPE))
+                    .respond(response().withStatusCode(200)
+                            .withBody("{\"result\":[{\"version\":\"1.0." + (TABLE_SIZE - 1) + "\"}]}"));
+            this.mockServer.when(request().withMethod("GET").withPath("/api/now/table/sys_app"))
+                    .respond(response().withStatusCode(200).withBody(table.toString()));
+        }
+
+        @TearDown
+        public void tearDown() {
+            this.mockServer.stop();
+            ServiceNowHttpClientPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public String wholeTableFilteredByClient(Instance instance) throws IOException {
+        final HttpGet request = new HttpGet(instance.url + "/api/now/table/sys_app?sysparm_fields=scope,version");
+        try(CloseableHttpResponse response = ServiceNowHttpClientPool.getClient(instance.url).execute(request)) {
+            final TableResponse table = ServiceNowAPIClient.readEntity(response.getEntity(), ServiceNowAPIClient.TABLE_RESPONSE_READER);
+            return table.getRecords().stream()
+                    .filter(record -> SCOPE.equals(record.get("scope")))
+                    .map(record -> (String) record.get("version"))
+                    .findFirst()
+                    .orElse(StringUtils.EMPTY);
+        }
+    }
+
+    @Benchmark
+    public String queryFilteredByInstance(Instance instance) {
+        return instance.client.getCurrentAppVersion(SCOPE, null);
+    }
+}
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstanceLimiterTest {
+
+    private final InstanceLimiter limiter = InstanceLimiter.get();
+
+    @After
+    public void tearDown() {
+        limiter.configure(InstanceLimiter.DEFAULT_MAX_CONCURRENT_ACTIONS, InstanceLimiter.DEFAULT_MAX_ACTIONS_PER_MINUTE);
+    }
+
+    @Test
+    public void testAcquire_fifoWithinLimit() throws Exception {
+        // given
+        final String instance = "https://fifo.service-now.com";
+        limiter.configure(1, 0);
+        CompletableFuture<InstanceLimiter.Permit> first = limiter.acquire(instance, false);
+        CompletableFuture<InstanceLimiter.Permit> second = limiter.acquire(instance + "/api/sn_cicd/app_repo/install", false);
+        CompletableFuture<InstanceLimiter.Permit> third = limiter.acquire(instance, false);
+
+        // when
+        InstanceLimiter.Permit firstPermit = first.get(1, TimeUnit.SECONDS);
+        boolean secondWaiting = !second.isDone();
+        firstPermit.release();
+        firstPermit.release();
+
+        // then
+        assertThat(secondWaiting).isTrue();
+        assertThat(second.get(1, TimeUnit.SECONDS).getInstance()).isEqualTo(instance);
+        assertThat(third).isNotDone();
+        assertThat(limiter.getStatistics().get(instance).getRunning()).isEqualTo(1);
+        assertThat(limiter.getStatistics().get(instance).getWaiting()).isEqualTo(1);
+
+        second.get().release();
+        third.get(1, TimeUnit.SECONDS).release();
+        assertThat(limiter.getStatistics().get(instance).getPermits()).isEqualTo(3);
+    }
+
+    @Test
+    public void testAcquire_priorityServedFirst() throws Exception {
+        // given
+        final String instance = "https://priority.service-now.com";
+        limiter.configure(1, 0);
+        InstanceLimiter.Permit running = limiter.acquire(instance, false).get(1, TimeUnit.SECONDS);
+        CompletableFuture<InstanceLimiter.Permit> regular = limiter.acquire(instance, false);
+        CompletableFuture<InstanceLimiter.Permit> production = limiter.acquire(instance, true);
+
+        // when
+        running.release();
+
+        // then
+        assertThat(production.get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(regular).isNotDone();
+
+        production.get().release();
+        regular.get(1, TimeUnit.SECONDS).release();
+    }
+
+    @Test
+    public void testAcquire_cancelledLeavesQueue() throws Exception {
+        // given
+        final String instance = "https://cancel.service-now.com";
+        limiter.configure(1, 0);
+        InstanceLimiter.Permit running = limiter.acquire(instance, false).get(1, TimeUnit.SECONDS);
+        CompletableFuture<InstanceLimiter.Permit> cancelled = limiter.acquire(instance, false);
+        CompletableFuture<InstanceLimiter.Permit> next = limiter.acquire(instance, false);
+
+        // when
+        cancelled.cancel(false);
+        running.release();
+
+        // then
+        assertThat(next.get(1, TimeUnit.SECONDS)).isNotNull();
+        next.get().release();
+        assertThat(limiter.getStatistics().get(instance).getRunning()).isZero();
+    }
+
+    @Test
+    public void testAcquire_rateBudget() throws Exception {
+        // given
+        final String instance = "https://rate.service-now.com";
+        limiter.configure(0, 2);
+
+        // when
+        CompletableFuture<InstanceLimiter.Permit> first = limiter.acquire(instance, false);
+        CompletableFuture<InstanceLimiter.Permit> second = limiter.acquire(instance, false);
+        CompletableFuture<InstanceLimiter.Permit> third = limiter.acquire(instance, false);
+        first.get(1, TimeUnit.SECONDS).release();
+        second.get(1, TimeUnit.SECONDS).release();
+
+        // then (the third action can start only a minute after the first one)
+        assertThat(third).isNotDone();
+        third.cancel(false);
+    }
+}
@@ -0,0 +1,32 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MeteredEntityTest {
+
+    @Test
+    public void testBytesReceived_chunkedBody() throws IOException {
+        // given (the length of the body is unknown, like with the chunked transfer encoding)
+        final byte[] body = "{\"result\":{\"status\":\"2\"}}".getBytes(StandardCharsets.UTF_8);
+        final AtomicLong bytesReceived = new AtomicLong(-1);
+        final MeteredEntity entity = new MeteredEntity(
+                new InputStreamEntity(new ByteArrayInputStream(body), -1, ContentType.APPLICATION_JSON), bytesReceived::set);
+
+        // when
+        final String content = EntityUtils.toString(entity);
+
+        // then
+        assertThat(content).hasSize(body.length);
+        assertThat(bytesReceived).hasValue(body.length);
+    }
+}
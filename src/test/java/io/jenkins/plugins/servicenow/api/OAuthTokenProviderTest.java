@@ -0,0 +1,209 @@
+package io.jenkins.plugins.servicenow.api;
+
+import hudson.util.Secret;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.junit.MockServerRule;
+import org.mockserver.matchers.Times;
+import org.mockserver.verify.VerificationTimes;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class OAuthTokenProviderTest {
+
+    @Rule
+    public MockServerRule mockServerRule = new MockServerRule(this);
+
+    private static MockServerClient mockServer;
+
+    private String url;
+
+    @Before
+    public void setUp() {
+        url = "http://localhost:" + mockServerRule.getPort();
+        OAuthTokenProvider.clearCache();
+    }
+
+    @After
+    public void tearDown() {
+        OAuthTokenProvider.clearCache();
+    }
+
+    @Test
+    public void testGetAccessToken_cached() throws IOException {
+        // given
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT)
+                        .withBody("client_id=client&client_secret=&grant_type=password&username=user&password=")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getTokenBody("token1", "refresh1", 1800))
+                );
+        OAuthTokenProvider tokenProvider = new OAuthTokenProvider(url, "client", null, "user", null);
+
+        // when
+        String token1 = tokenProvider.getAccessToken();
+        String token2 = new OAuthTokenProvider(url, "client", null, "user", null).getAccessToken();
+
+        // then
+        assertThat(token1).isEqualTo("token1");
+        assertThat(token2).isEqualTo("token1");
+        mockServer.verify(request(OAuthTokenProvider.TOKEN_ENDPOINT), VerificationTimes.exactly(1));
+    }
+
+    @Test
+    public void testGetAccessToken_notSharedWithOtherSecret() throws IOException {
+        // given
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT)
+                        .withBody("client_id=client&client_secret=secret%21&grant_type=password&username=user&password=")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getTokenBody("token1", null, 1800))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT)
+                        .withBody("client_id=client&client_secret=wrong%21&grant_type=password&username=user&password=")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(401)
+                );
+
+        // when
+        String token = new OAuthTokenProvider(url, "client", Secret.fromString("secret!"), "user", null).getAccessToken();
+        Throwable error = catchThrowable(() ->
+                new OAuthTokenProvider(url, "client", Secret.fromString("wrong!"), "user", null).getAccessToken());
+
+        // then
+        assertThat(token).isEqualTo("token1");
+        assertThat(error).isInstanceOf(ServiceNowApiException.class);
+        mockServer.verify(request(OAuthTokenProvider.TOKEN_ENDPOINT), VerificationTimes.exactly(2));
+    }
+
+    @Test
+    public void testGetAccessToken_refreshedBeforeExpiration() throws Exception {
+        // given
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT)
+                        .withBody("client_id=client&client_secret=&grant_type=client_credentials"),
+                Times.once()
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getTokenBody("token1", "refresh1", 1))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT)
+                        .withBody("client_id=client&client_secret=&grant_type=refresh_token&refresh_token=refresh1")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getTokenBody("token2", "refresh2", 1800))
+                );
+        OAuthTokenProvider tokenProvider = new OAuthTokenProvider(url, "client", null, null, null);
+
+        // when
+        String token1 = tokenProvider.getAccessToken();
+        // the token living 1 second is refreshed in the half of its lifetime
+        Thread.sleep(600);
+        String token2 = tokenProvider.getAccessToken();
+
+        // then
+        assertThat(tokenProvider.isPasswordGrant()).isFalse();
+        assertThat(token1).isEqualTo("token1");
+        assertThat(token2).isEqualTo("token2");
+    }
+
+    @Test
+    public void testClient_bearerTokenRenewedWhenRejected() throws IOException, URISyntaxException {
+        // given
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT),
+                Times.once()
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getTokenBody("revoked", null, 1800))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath(OAuthTokenProvider.TOKEN_ENDPOINT)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getTokenBody("valid", null, 1800))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/sc/apply_changes")
+                        .withHeader("Authorization", "Bearer revoked")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(401)
+                );
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/sc/apply_changes")
+                        .withHeader("Authorization", "Bearer valid")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": {\"status\": \"2\", \"status_label\": \"Successful\"}}")
+                );
+        ServiceNowAPIClient client = new ServiceNowAPIClient(url,
+                new OAuthTokenProvider(url, "client", null, "user", null));
+
+        // when
+        client.applyChanges(null, "1234", null);
+        client.applyChanges(null, "1234", null);
+
+        // then
+        mockServer.verify(request(OAuthTokenProvider.TOKEN_ENDPOINT), VerificationTimes.exactly(2));
+        mockServer.verify(request("/api/sn_cicd/sc/apply_changes"), VerificationTimes.exactly(3));
+    }
+
+    private String getTokenBody(String accessToken, String refreshToken, int expiresIn) {
+        return "{\n" +
+                "    \"access_token\": \"" + accessToken + "\",\n" +
+                (refreshToken != null ? "    \"refresh_token\": \"" + refreshToken + "\",\n" : "") +
+                "    \"scope\": \"useraccount\",\n" +
+                "    \"token_type\": \"Bearer\",\n" +
+                "    \"expires_in\": " + expiresIn + "\n" +
+                "}";
+    }
+}
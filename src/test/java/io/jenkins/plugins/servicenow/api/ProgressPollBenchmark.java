@@ -0,0 +1,64 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.mockserver.integration.ClientAndServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Measures one progress check of an action: the request sent through the shared connection pool to a local stub
+ * of the instance, the response decoded and the result returned to the build step.
+ * The time is the overhead of the plugin (and of the local network stack) paid by every poll of a running action.
+ */
+@JmhBenchmark
+public class ProgressPollBenchmark {
+
+    private static final String PROGRESS_PATH = "/api/sn_cicd/progress/a4fae8911bdc00103d374087bc4bcbbd";
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+
+        private ClientAndServer mockServer;
+        private ServiceNowAPIClient client;
+
+        @Setup
+        public void setup() throws IOException, URISyntaxException {
+            this.mockServer = ClientAndServer.startClientAndServer();
+            final String url = "http://localhost:" + this.mockServer.getPort();
+            final String progressBody = "{\"result\":{" +
+                    "\"links\":{\"progress\":{\"id\":\"a4fae8911bdc00103d374087bc4bcbbd\",\"url\":\"" + url + PROGRESS_PATH + "\"}}," +
+                    "\"status\":\"1\",\"status_label\":\"Running\",\"status_message\":\"Installing application\"," +
+                    "\"status_detail\":\"\",\"error\":\"\",\"percent_complete\":42}}";
+
+            this.mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/sc/apply_changes"))
+                    .respond(response().withStatusCode(200).withBody(progressBody));
+            this.mockServer.when(request().withMethod("GET").withPath(PROGRESS_PATH))
+                    .respond(response().withStatusCode(200).withBody(progressBody));
+
+            this.client = new ServiceNowAPIClient(url, "test", null);
+            // the action is started once, so the client knows the link to its progress
+            this.client.applyChanges(null, "1234", null);
+        }
+
+        @TearDown
+        public void tearDown() {
+            this.mockServer.stop();
+            ServiceNowHttpClientPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Result checkProgress(Instance instance) {
+        return instance.client.checkProgress();
+    }
+}
@@ -0,0 +1,118 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProgressPollerTest {
+
+    private static final String PROGRESS_URL = "https://test.service-now.com/api/sn_cicd/progress/1234";
+
+    @Mock
+    private ServiceNowAPIClient restClientMock;
+
+    @Test
+    public void testWatch_completedWithFinalResult() throws Exception {
+        // given
+        given(restClientMock.getLastActionProgressUrl()).willReturn(PROGRESS_URL);
+        given(restClientMock.checkProgress()).willReturn(getResult(ActionStatus.RUNNING, 10), getResult(ActionStatus.SUCCESSFUL, 100));
+        AtomicInteger checks = new AtomicInteger();
+
+        // when
+        CompletableFuture<Result> progress = ProgressPoller.get().watch(restClientMock, 10, checks::incrementAndGet);
+        Result result = progress.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(ActionStatus.SUCCESSFUL.getStatus());
+        assertThat(checks.get()).isEqualTo(2);
+        verify(restClientMock, times(2)).checkProgress();
+    }
+
+    @Test
+    public void testWatch_cancelled() throws Exception {
+        // given
+        given(restClientMock.getLastActionProgressUrl()).willReturn(PROGRESS_URL);
+        given(restClientMock.checkProgress()).willReturn(getResult(ActionStatus.RUNNING, 10));
+        CountDownLatch firstCheck = new CountDownLatch(1);
+
+        // when
+        CompletableFuture<Result> progress = ProgressPoller.get().watch(restClientMock, 100, firstCheck::countDown);
+        assertThat(firstCheck.await(5, TimeUnit.SECONDS)).isTrue();
+        progress.cancel(false);
+        Thread.sleep(300);
+
+        // then
+        assertThat(progress.isCancelled()).isTrue();
+        verify(restClientMock, atMost(2)).checkProgress();
+    }
+
+    @Test
+    public void testWatch_canceledAction() throws Exception {
+        // given
+        given(restClientMock.getLastActionProgressUrl()).willReturn(PROGRESS_URL);
+        Result canceled = new Result();
+        canceled.setStatus(ActionStatus.CANCELED.getStatus());
+        given(restClientMock.checkProgress()).willReturn(getResult(ActionStatus.RUNNING, 10), canceled);
+
+        // when
+        CompletableFuture<Result> progress = ProgressPoller.get().watch(restClientMock, 10, null);
+        Result result = progress.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(ActionStatus.CANCELED.getStatus());
+        assertThat(result.getPercentComplete()).isNull();
+        verify(restClientMock, times(2)).checkProgress();
+    }
+
+    @Test
+    public void testWatch_failedCheck() throws Exception {
+        // given
+        given(restClientMock.getLastActionProgressUrl()).willReturn(PROGRESS_URL);
+        given(restClientMock.checkProgress()).willThrow(new IllegalStateException("no progress"));
+
+        // when
+        CompletableFuture<Result> progress = ProgressPoller.get().watch(restClientMock, 10, null);
+
+        // then
+        assertThat(progress).failsWithin(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testWatch_failedCheckScheduledAgain() throws Exception {
+        // given
+        given(restClientMock.getLastActionProgressUrl()).willReturn(PROGRESS_URL);
+        given(restClientMock.checkProgress())
+                .willThrow(new RetryLaterException("status 503", 10))
+                .willReturn(getResult(ActionStatus.SUCCESSFUL, 100));
+
+        // when
+        CompletableFuture<Result> progress = ProgressPoller.get().watch(restClientMock, 10, null);
+        Result result = progress.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(ActionStatus.SUCCESSFUL.getStatus());
+        verify(restClientMock).setProgressRetriesDeferred(true);
+        verify(restClientMock, times(2)).checkProgress();
+    }
+
+    private Result getResult(ActionStatus status, int percentComplete) {
+        Result result = new Result();
+        result.setStatus(status.getStatus());
+        result.setPercentComplete(percentComplete);
+        return result;
+    }
+}
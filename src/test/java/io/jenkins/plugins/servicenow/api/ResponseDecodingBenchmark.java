@@ -0,0 +1,59 @@
+package io.jenkins.plugins.servicenow.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jenkins.plugins.servicenow.api.model.Response;
+import io.jenkins.plugins.servicenow.api.model.Result;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares decoding of a progress response with a new {@link ObjectMapper} per response (the former approach)
+ * and with the shared reader decoding straight from the entity stream.
+ * Run with the GC profiler (see {@link io.jenkins.plugins.servicenow.BenchmarkRunner}) to compare allocation per decoded {@link Result}.
+ */
+@JmhBenchmark
+public class ResponseDecodingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ProgressResponse {
+
+        private byte[] body;
+
+        @Setup
+        public void setup() {
+            this.body = ("{\"result\":{" +
+                    "\"links\":{" +
+                    "\"progress\":{\"id\":\"a4fae8911bdc00103d374087bc4bcbbd\",\"url\":\"https://test.service-now.com/api/sn_cicd/progress/a4fae8911bdc00103d374087bc4bcbbd\"}," +
+                    "\"results\":{\"id\":\"2891389d1b1040103d374087bc4bcb09\",\"url\":\"https://test.service-now.com/api/now/table/sys_atf_test_suite_result/2891389d1b1040103d374087bc4bcb09\"}" +
+                    "}," +
+                    "\"status\":\"1\",\"status_label\":\"Running\",\"status_message\":\"Installing application\"," +
+                    "\"status_detail\":\"\",\"error\":\"\",\"percent_complete\":42}}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        ByteArrayEntity entity() {
+            return new ByteArrayEntity(this.body, ContentType.APPLICATION_JSON);
+        }
+    }
+
+    @Benchmark
+    public Result newObjectMapperPerResponse(ProgressResponse response) throws IOException {
+        String responseJSON = EntityUtils.toString(response.entity());
+        return new ObjectMapper().readValue(responseJSON, Response.class).getResult();
+    }
+
+    @Benchmark
+    public Result sharedReaderFromStream(ProgressResponse response) throws IOException {
+        Response decoded = ServiceNowAPIClient.readEntity(response.entity(), ServiceNowAPIClient.RESPONSE_READER);
+        return decoded.getResult();
+    }
+}
@@ -0,0 +1,46 @@
+package io.jenkins.plugins.servicenow.api;
+
+import io.jenkins.plugins.servicenow.api.model.Result;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Measures {@link Result#toString()}, printed to the build log (and to the debug log) after every response of the instance.
+ */
+@JmhBenchmark
+public class ResultFormattingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class DecodedResult {
+
+        private Result result;
+
+        @Setup
+        public void setup() throws IOException {
+            final byte[] body = ("{\"result\":{" +
+                    "\"links\":{" +
+                    "\"progress\":{\"id\":\"a4fae8911bdc00103d374087bc4bcbbd\",\"url\":\"https://test.service-now.com/api/sn_cicd/progress/a4fae8911bdc00103d374087bc4bcbbd\"}," +
+                    "\"source\":{\"id\":\"90eb8a3adb5d2010b2e1cde0ce9619d7\",\"url\":\"https://test.service-now.com/api/now/table/sys_app/90eb8a3adb5d2010b2e1cde0ce9619d7\"}," +
+                    "\"results\":{\"id\":\"2891389d1b1040103d374087bc4bcb09\",\"url\":\"https://test.service-now.com/api/now/table/sys_atf_test_suite_result/2891389d1b1040103d374087bc4bcb09\"}" +
+                    "}," +
+                    "\"status\":\"2\",\"status_label\":\"Successful\",\"status_message\":\"Application installed\"," +
+                    "\"status_detail\":\"Application x_app installed in version 1.0.42\",\"error\":\"\",\"percent_complete\":100}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            this.result = ServiceNowAPIClient.readEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON),
+                    ServiceNowAPIClient.RESPONSE_READER).getResult();
+        }
+    }
+
+    @Benchmark
+    public String resultToString(DecodedResult decodedResult) {
+        return decodedResult.result.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(4, 1000, 30_000);
+
+    @Test
+    public void testCanRetry() {
+        assertThat(retryPolicy.canRetry(1)).isTrue();
+        assertThat(retryPolicy.canRetry(3)).isTrue();
+        assertThat(retryPolicy.canRetry(4)).isFalse();
+        assertThat(RetryPolicy.NONE.canRetry(1)).isFalse();
+    }
+
+    @Test
+    public void testIsRetryable_statusCode() {
+        // throttled instance did not accept any request
+        assertThat(retryPolicy.isRetryable(true, 429)).isTrue();
+        assertThat(retryPolicy.isRetryable(false, 429)).isTrue();
+        // unavailable instance could have started the action already, only reads are repeated
+        assertThat(retryPolicy.isRetryable(true, 503)).isTrue();
+        assertThat(retryPolicy.isRetryable(false, 503)).isFalse();
+        // gateway errors are repeated only for reads
+        assertThat(retryPolicy.isRetryable(true, 502)).isTrue();
+        assertThat(retryPolicy.isRetryable(false, 502)).isFalse();
+        assertThat(retryPolicy.isRetryable(false, 504)).isFalse();
+        // errors of the request itself
+        assertThat(retryPolicy.isRetryable(true, 400)).isFalse();
+        assertThat(retryPolicy.isRetryable(true, 401)).isFalse();
+        assertThat(retryPolicy.isRetryable(true, 500)).isFalse();
+    }
+
+    @Test
+    public void testIsRetryable_exception() {
+        assertThat(retryPolicy.isRetryable(true, new SocketException("Connection reset"))).isTrue();
+        assertThat(retryPolicy.isRetryable(false, new SocketException("Connection reset"))).isFalse();
+        assertThat(retryPolicy.isRetryable(false, new ConnectException("Connection refused"))).isTrue();
+        assertThat(retryPolicy.isRetryable(false, new ConnectTimeoutException())).isTrue();
+        assertThat(retryPolicy.isRetryable(true, new UnknownHostException("test.service-now.com"))).isFalse();
+        assertThat(retryPolicy.isRetryable(true, new IOException())).isTrue();
+    }
+
+    @Test
+    public void testGetDelay_exponentialBackoff() {
+        for(int attempt = 1; attempt <= 10; attempt++) {
+            // when
+            long delay = retryPolicy.getDelay(attempt, null);
+
+            // then
+            final long expectedMax = Math.min(30_000, 1000L << (attempt - 1));
+            assertThat(delay).isBetween(expectedMax / 2, expectedMax);
+        }
+    }
+
+    @Test
+    public void testGetDelay_retryAfterInSeconds() {
+        // given
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 429, "Too Many Requests");
+        response.setHeader("Retry-After", "7");
+
+        // when
+        long delay = retryPolicy.getDelay(1, response);
+
+        // then
+        assertThat(delay).isEqualTo(7000);
+    }
+
+    @Test
+    public void testGetDelay_retryAfterLimited() {
+        // given
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 503, "Service Unavailable");
+        response.setHeader("Retry-After", "3600");
+
+        // when
+        long delay = retryPolicy.getDelay(1, response);
+
+        // then
+        assertThat(delay).isEqualTo(30_000);
+    }
+
+    @Test
+    public void testGetRetryAfter_httpDate() {
+        // given
+        final long now = System.currentTimeMillis();
+        final String date = DateUtils.formatDate(new Date(now + 120_000));
+
+        // when
+        Long delay = RetryPolicy.getRetryAfter(new BasicHeader("Retry-After", date), now);
+
+        // then (the date has the precision of seconds)
+        assertThat(delay).isBetween(119_000L, 120_000L);
+    }
+
+    @Test
+    public void testGetRetryAfter_invalidValue() {
+        assertThat(RetryPolicy.getRetryAfter(null, 0)).isNull();
+        assertThat(RetryPolicy.getRetryAfter(new BasicHeader("Retry-After", "soon"), 0)).isNull();
+    }
+
+    @Test
+    public void testEndpointName() {
+        assertThat(RetryStatistics.getEndpointName("GET",
+                URI.create("https://test.service-now.com/api/sn_cicd/progress/0a1b2c3d4e5f60718293a4b5c6d7e8f9")))
+                .isEqualTo("GET sn_cicd/progress/{id}");
+        assertThat(RetryStatistics.getEndpointName("POST",
+                URI.create("https://test.service-now.com/api/sn_cicd/app_repo/install?scope=x_app")))
+                .isEqualTo("POST sn_cicd/app_repo/install");
+    }
+}
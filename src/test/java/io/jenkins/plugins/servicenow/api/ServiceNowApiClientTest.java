@@ -9,12 +9,19 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.junit.MockServerRule;
+import org.mockserver.matchers.Times;
 import org.mockserver.verify.VerificationTimes;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
@@ -77,8 +84,9 @@ public class ServiceNowApiClientTest {
         Result result = serviceNowAPIClient.applyChanges(null, systemId, null);
 
         // then
+        // credentials are sent preemptively, without waiting for the challenge of the server
         mockServer.verify(
-                request("/api/sn_cicd/sc/apply_changes"), VerificationTimes.exactly(1)
+                request("/api/sn_cicd/sc/apply_changes").withHeader("Authorization", "Basic .+"), VerificationTimes.exactly(1)
         );
         assertThat(result).isNotNull();
         assertThat(result.getStatus()).isEqualTo("0");
@@ -235,6 +243,172 @@ public class ServiceNowApiClientTest {
         assertThat(serviceNowAPIClient.getLastActionProgressUrl()).endsWith(PROGRESS_ID2);
     }
 
+    @Test
+    public void testCancelProgress() throws IOException, URISyntaxException {
+        // given
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/sc/apply_changes")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getProgressBody("1", "Running"))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/progress/" + PROGRESS_ID + "/cancel")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getProgressBody("4", "Canceled"))
+                );
+
+        // when
+        serviceNowAPIClient.applyChanges(null, "1234", null);
+        Result cancelResult = serviceNowAPIClient.cancelProgress();
+
+        // then
+        mockServer.verify(
+                request("/api/sn_cicd/progress/" + PROGRESS_ID + "/cancel").withMethod("POST"), VerificationTimes.exactly(1)
+        );
+        assertThat(cancelResult).isNotNull();
+        assertThat(cancelResult.getStatus()).isEqualTo(ActionStatus.CANCELED.getStatus());
+        assertThat(cancelResult.getPercentComplete()).isNull();
+        assertThat(ProgressPoller.isInProgress(cancelResult)).isFalse();
+    }
+
+    @Test
+    public void testCheckProgress_retriedWhenUnavailable() throws IOException, URISyntaxException {
+        // given
+        serviceNowAPIClient.setRetryPolicy(new RetryPolicy(3, 1, 10));
+        RetryStatistics.reset();
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/sc/apply_changes")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getProgressBody("1", "Running"))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/sn_cicd/progress/" + PROGRESS_ID),
+                Times.exactly(2)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(503)
+                                .withHeader("Retry-After", "0")
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/sn_cicd/progress/" + PROGRESS_ID)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getProgressBody("2", "Successful"))
+                );
+
+        // when
+        serviceNowAPIClient.applyChanges(null, "1234", null);
+        Result progressResult = serviceNowAPIClient.checkProgress();
+
+        // then
+        mockServer.verify(
+                request("/api/sn_cicd/progress/" + PROGRESS_ID), VerificationTimes.exactly(3)
+        );
+        assertThat(progressResult).isNotNull();
+        assertThat(progressResult.getStatus()).isEqualTo(ActionStatus.SUCCESSFUL.getStatus());
+        assertThat(RetryStatistics.getRetries()).containsEntry("GET sn_cicd/progress/{id}", 2L);
+    }
+
+    @Test
+    public void testCheckProgress_retryDeferred() throws IOException, URISyntaxException {
+        // given
+        serviceNowAPIClient.setRetryPolicy(new RetryPolicy(3, 1, 10));
+        serviceNowAPIClient.setProgressRetriesDeferred(true);
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/sc/apply_changes")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getProgressBody("1", "Running"))
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/sn_cicd/progress/" + PROGRESS_ID),
+                Times.exactly(1)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(503)
+                                .withHeader("Retry-After", "0")
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/sn_cicd/progress/" + PROGRESS_ID)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody(getProgressBody("2", "Successful"))
+                );
+
+        // when
+        serviceNowAPIClient.applyChanges(null, "1234", null);
+        Throwable retry = catchThrowable(() -> serviceNowAPIClient.checkProgress());
+        Result progressResult = serviceNowAPIClient.checkProgress();
+
+        // then
+        assertThat(retry).isInstanceOf(RetryLaterException.class);
+        assertThat(((RetryLaterException) retry).getDelay()).isZero();
+        mockServer.verify(
+                request("/api/sn_cicd/progress/" + PROGRESS_ID), VerificationTimes.exactly(2)
+        );
+        assertThat(progressResult).isNotNull();
+        assertThat(progressResult.getStatus()).isEqualTo(ActionStatus.SUCCESSFUL.getStatus());
+    }
+
+    @Test
+    public void testApplyChanges_notRetriedWhenGatewayFailed() throws IOException, URISyntaxException {
+        // given
+        serviceNowAPIClient.setRetryPolicy(new RetryPolicy(3, 1, 10));
+        mockServer.when(
+                request()
+                        .withMethod("POST")
+                        .withPath("/api/sn_cicd/sc/apply_changes"),
+                Times.once()
+        )
+                .respond(
+                        response()
+                                .withStatusCode(502)
+                                .withBody("{\"error\": {\"message\": \"Bad gateway\", \"detail\": \"\"}}")
+                );
+
+        // when
+        Throwable thrown = catchThrowable(() -> serviceNowAPIClient.applyChanges(null, "1234", null));
+
+        // then
+        assertThat(thrown).isInstanceOf(ServiceNowApiException.class);
+        mockServer.verify(
+                request("/api/sn_cicd/sc/apply_changes"), VerificationTimes.exactly(1)
+        );
+    }
+
     @Test
     public void testInstallApp() throws IOException, URISyntaxException {
         // given
@@ -622,4 +796,237 @@ public class ServiceNowApiClientTest {
         assertThat(result.getLinks().getProgress().getUrl()).contains(HOST_MOCKED, Integer.toString(PORT), PROGRESS_ID);
         assertThat(serviceNowAPIClient.getLastActionProgressUrl()).endsWith(PROGRESS_ID);
     }
+
+    @Test
+    public void testGetCurrentAppVersion_byScope() {
+        // given
+        String scope = "x_test_app";
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/sys_app")
+                        .withQueryStringParameter("sysparm_query", "scope=" + scope)
+                        .withQueryStringParameter("sysparm_fields", "version")
+                        .withQueryStringParameter("sysparm_limit", "1")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\n" +
+                                        "    \"result\": [\n" +
+                                        "        {\n" +
+                                        "            \"version\": \"1.0.3\"\n" +
+                                        "        }\n" +
+                                        "    ]\n" +
+                                        "}")
+                );
+
+        // when
+        String version = serviceNowAPIClient.getCurrentAppVersion(scope, null);
+
+        // then
+        mockServer.verify(
+                request("/api/now/table/sys_app"), VerificationTimes.exactly(1)
+        );
+        assertThat(version).isEqualTo("1.0.3");
+    }
+
+    @Test
+    public void testGetCurrentAppVersion_byScopeNotFound() {
+        // given
+        String scope = "x_test_app";
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/sys_app")
+                        .withQueryStringParameter("sysparm_query", "scope=" + scope)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": []}")
+                );
+
+        // when
+        String version = serviceNowAPIClient.getCurrentAppVersion(scope, null);
+
+        // then
+        assertThat(version).isEmpty();
+    }
+
+    @Test
+    public void testGetInstalledAppVersion_fromCustomApplication() {
+        // given
+        String sysId = "0123456789abcdef";
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/sys_store_app")
+                        .withQueryStringParameter("sysparm_query", "sys_id=" + sysId + "^active=true")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": []}")
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/sys_app")
+                        .withQueryStringParameter("sysparm_query", "sys_id=" + sysId)
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": [{\"version\": \"2.1.0\"}]}")
+                );
+
+        // when
+        String version = serviceNowAPIClient.getInstalledAppVersion(null, sysId);
+
+        // then
+        mockServer.verify(
+                request("/api/now/table/sys_store_app"), VerificationTimes.exactly(1)
+        );
+        assertThat(version).isEqualTo("2.1.0");
+    }
+
+    @Test
+    public void testForEachTableRecord() {
+        // given
+        String table = "sys_app";
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/" + table)
+                        .withQueryStringParameter("sysparm_query", "active=true^ORDERBYsys_id")
+                        .withQueryStringParameter("sysparm_offset", "0")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": [{\"sys_id\": \"1\"}, {\"sys_id\": \"2\"}]}")
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/" + table)
+                        .withQueryStringParameter("sysparm_query", "active=true^ORDERBYsys_id")
+                        .withQueryStringParameter("sysparm_offset", "2")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": [{\"sys_id\": \"3\"}]}")
+                );
+        List<Object> sysIds = new ArrayList<>();
+
+        // when
+        int count = serviceNowAPIClient.forEachTableRecord(table, "active=true", "sys_id", 2,
+                record -> sysIds.add(record.get("sys_id")));
+
+        // then
+        mockServer.verify(
+                request("/api/now/table/" + table), VerificationTimes.exactly(2)
+        );
+        assertThat(count).isEqualTo(3);
+        assertThat(sysIds).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    public void testForEachTableRecord_failedPage() {
+        // given
+        String table = "sys_app";
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/" + table)
+                        .withQueryStringParameter("sysparm_offset", "0")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": [{\"sys_id\": \"1\"}, {\"sys_id\": \"2\"}]}")
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/" + table)
+                        .withQueryStringParameter("sysparm_offset", "2")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(500)
+                                .withBody("{\"error\": {\"message\": \"Transaction cancelled\", \"detail\": \"\"}}")
+                );
+        List<Object> sysIds = new ArrayList<>();
+
+        // when
+        Throwable thrown = catchThrowable(() -> serviceNowAPIClient.forEachTableRecord(table, "active=true", "sys_id", 2,
+                record -> sysIds.add(record.get("sys_id"))));
+
+        // then
+        assertThat(thrown).isInstanceOf(ServiceNowApiException.class);
+        assertThat(sysIds).containsExactly("1", "2");
+        mockServer.verify(
+                request("/api/now/table/" + table), VerificationTimes.exactly(2)
+        );
+    }
+
+    @Test
+    public void testGetInstalledAppVersions() {
+        // given
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/sys_store_app")
+                        .withQueryStringParameter("sysparm_query", "sys_idINapp1,app2,app3^active=true^ORDERBYsys_id")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": [{\"sys_id\": \"app1\", \"version\": \"1.0.2\"}]}")
+                );
+        mockServer.when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/now/table/sys_app")
+                        .withQueryStringParameter("sysparm_query", "sys_idINapp2,app3^ORDERBYsys_id")
+        )
+                .respond(
+                        response()
+                                .withStatusCode(200)
+                                .withBody("{\"result\": [{\"sys_id\": \"app2\", \"version\": \"3.0.0\"}]}")
+                );
+
+        // when
+        Map<String, String> versions = serviceNowAPIClient.getInstalledAppVersions(Arrays.asList("app1", "app2", "app3", "app1"));
+
+        // then
+        mockServer.verify(
+                request("/api/now/table/sys_store_app"), VerificationTimes.exactly(1)
+        );
+        mockServer.verify(
+                request("/api/now/table/sys_app"), VerificationTimes.exactly(1)
+        );
+        assertThat(versions).containsOnly(entry("app1", "1.0.2"), entry("app2", "3.0.0"));
+    }
+
+    private String getProgressBody(String status, String statusLabel) {
+        return "{\n" +
+                "    \"result\": {\n" +
+                "        \"links\": {\n" +
+                "            \"progress\": {\n" +
+                "                \"id\": \"" + PROGRESS_ID + "\",\n" +
+                "                \"url\": \"http://" + HOST_MOCKED + ":" + PORT + "/api/sn_cicd/progress/" + PROGRESS_ID + "\"\n" +
+                "            }\n" +
+                "        },\n" +
+                "        \"status\": \"" + status + "\",\n" +
+                "        \"status_label\": \"" + statusLabel + "\",\n" +
+                "        \"status_message\": \"\",\n" +
+                "        \"status_detail\": \"\",\n" +
+                "        \"error\": \"\"\n" +
+                "    }\n" +
+                "}";
+    }
 }
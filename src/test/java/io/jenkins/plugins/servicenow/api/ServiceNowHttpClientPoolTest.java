@@ -0,0 +1,58 @@
+package io.jenkins.plugins.servicenow.api;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServiceNowHttpClientPoolTest {
+
+    @After
+    public void tearDown() {
+        ServiceNowHttpClientPool.shutdown();
+    }
+
+    @Test
+    public void testGetClient_sameInstance() {
+        // given
+        final String instanceUrl = "https://test.service-now.com";
+        final String progressUrl = "https://test.service-now.com/api/sn_cicd/progress/1234";
+
+        // when
+        CloseableHttpClient client1 = ServiceNowHttpClientPool.getClient(instanceUrl);
+        CloseableHttpClient client2 = ServiceNowHttpClientPool.getClient(progressUrl);
+
+        // then
+        assertThat(client1).isNotNull();
+        assertThat(client2).isSameAs(client1);
+    }
+
+    @Test
+    public void testGetClient_differentInstances() {
+        // given
+        final String instanceUrl1 = "https://test1.service-now.com";
+        final String instanceUrl2 = "https://test2.service-now.com";
+
+        // when
+        CloseableHttpClient client1 = ServiceNowHttpClientPool.getClient(instanceUrl1);
+        CloseableHttpClient client2 = ServiceNowHttpClientPool.getClient(instanceUrl2);
+
+        // then
+        assertThat(client2).isNotSameAs(client1);
+    }
+
+    @Test
+    public void testShutdown() {
+        // given
+        final String instanceUrl = "https://test.service-now.com";
+        CloseableHttpClient client1 = ServiceNowHttpClientPool.getClient(instanceUrl);
+
+        // when
+        ServiceNowHttpClientPool.shutdown();
+        CloseableHttpClient client2 = ServiceNowHttpClientPool.getClient(instanceUrl);
+
+        // then
+        assertThat(client2).isNotSameAs(client1);
+    }
+}
@@ -1,7 +1,13 @@
 package io.jenkins.plugins.servicenow.application;
 
+import hudson.FilePath;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -13,6 +19,9 @@ public class WorkspaceApplicationVersionTest {
 
     private WorkspaceApplicationVersion applicationVersion = new WorkspaceApplicationVersion();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void shouldGetVersionFromWorkspace_BySysId() {
         // given
@@ -69,4 +78,45 @@ public class WorkspaceApplicationVersionTest {
         assertThat(result).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldGetContentHash_changedWithContent() throws Exception {
+        // given
+        final File workspace = temporaryFolder.newFolder("workspace");
+        FileUtils.copyDirectory(resourceDirectory.resolve("source-control-1").toFile(), workspace);
+        final String originalHash = applicationVersion.getContentHash(new FilePath(workspace), null);
+
+        // when
+        FileUtils.writeStringToFile(new File(workspace, "x_sofse_cicdjenkin/sys_script_include_1.xml"), "<xml/>", StandardCharsets.UTF_8);
+        final String changedHash = applicationVersion.getContentHash(new FilePath(workspace), null);
+
+        // then
+        assertThat(originalHash).hasSize(64)
+                .isEqualTo(applicationVersion.getContentHash(new FilePath(resourceDirectory.resolve("source-control-1").toFile()), null));
+        assertThat(changedHash).hasSize(64).isNotEqualTo(originalHash);
+    }
+
+    @Test
+    public void shouldGetEmptyContentHash_noApplicationData() throws Exception {
+        // given
+        final FilePath workspace = new FilePath(resourceDirectory.resolve("source-control-2").toFile());
+
+        // when
+        final String result = applicationVersion.getContentHash(workspace, "x_sofse_cicdjenkin");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void shouldGetEmptyContentHash_emptyApplicationDirectory() throws Exception {
+        // given
+        final File workspace = temporaryFolder.newFolder("empty-workspace");
+        temporaryFolder.newFolder("empty-workspace", "x_sofse_cicdjenkin");
+
+        // when
+        final String result = applicationVersion.getContentHash(new FilePath(workspace), "x_sofse_cicdjenkin");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+}
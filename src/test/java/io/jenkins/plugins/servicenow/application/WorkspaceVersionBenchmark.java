@@ -0,0 +1,77 @@
+package io.jenkins.plugins.servicenow.application;
+
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Measures reading of the application version from a source control checkout of the application.
+ * The checkout is built from the test resources <code>source-control-1</code> and extended to the size of a real
+ * application: 3,000 records in the directory <code>update</code> and other content next to the application record.
+ */
+@JmhBenchmark
+public class WorkspaceVersionBenchmark {
+
+    private static final String SCOPE = "x_sofse_cicdjenkin";
+    private static final String SYS_ID = "90eb12afdb021010b40a9eb5db9619aa";
+    private static final int UPDATE_RECORDS = 3_000;
+
+    @State(Scope.Benchmark)
+    public static class Checkout {
+
+        private final WorkspaceApplicationVersion applicationVersion = new WorkspaceApplicationVersion();
+        private Path workspace;
+
+        @Setup
+        public void setup() throws IOException {
+            this.workspace = Files.createTempDirectory("source-control");
+            FileUtils.copyDirectory(Paths.get("src", "test", "resources", "source-control-1").toFile(), this.workspace.toFile());
+
+            final Path appDir = this.workspace.resolve(SCOPE);
+            final String record = new String(Files.readAllBytes(appDir.resolve("sys_app_" + SYS_ID + ".xml")), StandardCharsets.UTF_8);
+            final Path updateDir = Files.createDirectories(appDir.resolve("update"));
+            for(int i = 0; i < UPDATE_RECORDS; i++) {
+                Files.write(updateDir.resolve(String.format("sys_script_include_%032x.xml", i)),
+                        record.replace("sys_app", "sys_script_include").getBytes(StandardCharsets.UTF_8));
+            }
+            Files.createDirectories(appDir.resolve("dictionary"));
+            Files.createDirectories(appDir.resolve("checksum"));
+            Files.write(appDir.resolve("checksum.txt"), "0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            FileUtils.deleteDirectory(this.workspace.toFile());
+        }
+
+        String getWorkspace() {
+            return this.workspace.toFile().getAbsolutePath();
+        }
+    }
+
+    @Benchmark
+    public String bySysIdAndScope(Checkout checkout) {
+        return checkout.applicationVersion.getVersion(checkout.getWorkspace(), SYS_ID, SCOPE);
+    }
+
+    @Benchmark
+    public String bySysIdAndSourceControlProperties(Checkout checkout) {
+        return checkout.applicationVersion.getVersion(checkout.getWorkspace(), SYS_ID, null);
+    }
+
+    @Benchmark
+    public String byScope(Checkout checkout) {
+        return checkout.applicationVersion.getVersion(checkout.getWorkspace(), null, SCOPE);
+    }
+}
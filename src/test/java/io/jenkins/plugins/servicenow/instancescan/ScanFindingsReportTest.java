@@ -0,0 +1,74 @@
+package io.jenkins.plugins.servicenow.instancescan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScanFindingsReportTest {
+
+    @Mock
+    private ServiceNowAPIClient restClientMock;
+
+    @Test
+    public void write() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            final Consumer<Map<String, Object>> consumer = invocation.getArgument(4);
+            consumer.accept(getFinding("1", "sys_script_include", "abc"));
+            consumer.accept(getFinding("3", "sys_script", "def"));
+            consumer.accept(getFinding("4", "", ""));
+            consumer.accept(getFinding("unknown", "sys_ui_page", "ghi"));
+            return 4;
+        }).when(restClientMock).forEachTableRecord(eq(ScanFindingsReport.FINDING_TABLE), eq("result=scan1"),
+                eq(ScanFindingsReport.FINDING_FIELDS), eq(50), any());
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        final ScanFindingsReport.Summary summary = new ScanFindingsReport(restClientMock, 50).write("scan1", output);
+
+        // then
+        assertThat(summary.getTotal()).isEqualTo(4);
+        assertThat(summary.getCount(ScanFindingsReport.Priority.CRITICAL)).isEqualTo(1);
+        assertThat(summary.getCount(ScanFindingsReport.Priority.LOW)).isEqualTo(2);
+        assertThat(summary.getCountAtLeast(ScanFindingsReport.Priority.HIGH)).isEqualTo(1);
+        assertThat(summary.getCountAtLeast(ScanFindingsReport.Priority.MODERATE)).isEqualTo(2);
+
+        final JsonNode sarif = new ObjectMapper().readTree(output.toByteArray());
+        assertThat(sarif.get("version").asText()).isEqualTo("2.1.0");
+        final JsonNode results = sarif.get("runs").get(0).get("results");
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).get("ruleId").asText()).isEqualTo("check-1");
+        assertThat(results.get(0).get("level").asText()).isEqualTo("error");
+        assertThat(results.get(0).get("locations").get(0).get("physicalLocation").get("artifactLocation").get("uri").asText())
+                .isEqualTo("sys_script_include/abc");
+        assertThat(results.get(1).get("level").asText()).isEqualTo("warning");
+        assertThat(results.get(2).has("locations")).isFalse();
+        assertThat(results.get(3).get("properties").get("priority").asText()).isEqualTo("low");
+    }
+
+    private static Map<String, Object> getFinding(final String priority, final String sourceTable, final String source) {
+        final Map<String, Object> finding = new HashMap<>();
+        finding.put("sys_id", "finding-" + priority);
+        finding.put("check.name", "check-" + priority);
+        finding.put("check.short_description", "Finding of priority " + priority);
+        finding.put("check.priority", priority);
+        finding.put("source_table", sourceTable);
+        finding.put("source", source);
+        return finding;
+    }
+}
@@ -0,0 +1,15 @@
+package io.jenkins.plugins.servicenow.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DropwizardServiceNowMetricsTest {
+
+    @Test
+    public void testSanitize() {
+        assertThat(DropwizardServiceNowMetrics.sanitize("GET sn_cicd/progress/{id}")).isEqualTo("GET_sn_cicd_progress_id");
+        assertThat(DropwizardServiceNowMetrics.sanitize("dev123.service-now.com")).isEqualTo("dev123_service-now_com");
+        assertThat(DropwizardServiceNowMetrics.sanitize(null)).isEqualTo("unknown");
+    }
+}
@@ -0,0 +1,254 @@
+package io.jenkins.plugins.servicenow.metrics;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.ExtensionList;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.servicenow.ApplyChangesBuilder;
+import io.jenkins.plugins.servicenow.BuildParameters;
+import io.jenkins.plugins.servicenow.api.RetryPolicy;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.api.model.Result;
+import io.jenkins.plugins.servicenow.simulator.InstanceSimulator;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.junit.MockServerRule;
+import org.mockserver.matchers.Times;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockserver.model.HttpError.error;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class ServiceNowMetricsTest {
+
+    private static final String PROGRESS_ID = "1234";
+    private static final String PROGRESS_ENDPOINT = "GET sn_cicd/progress/{id}";
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Rule
+    public MockServerRule mockServerRule = new MockServerRule(this);
+
+    private MockServerClient mockServer;
+    private String url;
+    private RecordingMetrics metrics;
+
+    @Before
+    public void setUp() {
+        this.url = "http://localhost:" + mockServerRule.getPort();
+        // measurements of the Metrics plugin would be published instead of the recorded ones
+        final ExtensionList<ServiceNowMetrics> implementations = ExtensionList.lookup(ServiceNowMetrics.class);
+        implementations.remove(implementations.get(DropwizardServiceNowMetrics.class));
+        this.metrics = ExtensionList.lookupSingleton(RecordingMetrics.class);
+        assertThat(ServiceNowMetrics.get()).isSameAs(this.metrics);
+    }
+
+    @Test
+    public void testRequestsAndRetriesRecorded() throws Exception {
+        // given
+        final ServiceNowAPIClient client = createClient();
+        mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/sc/apply_changes"))
+                .respond(response().withStatusCode(200).withBody(progressBody("1", "Running")));
+        mockServer.when(request().withMethod("GET").withPath("/api/sn_cicd/progress/" + PROGRESS_ID), Times.once())
+                .respond(response().withStatusCode(503).withHeader("Retry-After", "0"));
+        mockServer.when(request().withMethod("GET").withPath("/api/sn_cicd/progress/" + PROGRESS_ID))
+                .respond(response().withStatusCode(200).withBody(progressBody("2", "Successful")));
+
+        // when
+        client.applyChanges(null, "sysId", null);
+        final Result result = client.checkProgress();
+
+        // then
+        assertThat(result).isNotNull();
+        assertThat(this.metrics.requests).extracting(request -> request.endpoint + " " + request.status)
+                .containsExactly("POST sn_cicd/sc/apply_changes 200", PROGRESS_ENDPOINT + " 503", PROGRESS_ENDPOINT + " 200");
+        assertThat(this.metrics.requests).allMatch(request -> request.host.equals("localhost") && request.durationNanos > 0);
+        assertThat(this.metrics.retries).containsExactly(PROGRESS_ENDPOINT);
+    }
+
+    @Test
+    public void testRequestWithoutResponseRecorded() throws Exception {
+        // given
+        final ServiceNowAPIClient client = createClient();
+        mockServer.when(request().withMethod("POST").withPath("/api/sn_cicd/sc/apply_changes"))
+                .respond(response().withStatusCode(200).withBody(progressBody("1", "Running")));
+        mockServer.when(request().withMethod("GET").withPath("/api/sn_cicd/progress/" + PROGRESS_ID), Times.once())
+                .error(error().withDropConnection(true));
+        mockServer.when(request().withMethod("GET").withPath("/api/sn_cicd/progress/" + PROGRESS_ID))
+                .respond(response().withStatusCode(200).withBody(progressBody("2", "Successful")));
+
+        // when
+        client.applyChanges(null, "sysId", null);
+        client.checkProgress();
+
+        // then
+        assertThat(this.metrics.requests).extracting(request -> request.endpoint + " " + request.status)
+                .containsExactly("POST sn_cicd/sc/apply_changes 200", PROGRESS_ENDPOINT + " io_error", PROGRESS_ENDPOINT + " 200");
+        assertThat(this.metrics.retries).containsExactly(PROGRESS_ENDPOINT);
+    }
+
+    @Test
+    public void testActionRecorded() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withActions(300, InstanceSimulator.ProgressCurve.LINEAR)
+                .start()) {
+            // given
+            final ApplyChangesBuilder builder = createBuilder(simulator);
+
+            // when
+            builder.perform(mockBuild(), null, mock(Launcher.class), mockListener());
+
+            // then
+            final Action action = this.metrics.actions.poll(10, TimeUnit.SECONDS);
+            assertThat(action).isNotNull();
+            assertThat(action.host).isEqualTo("localhost");
+            assertThat(action.stepType).isEqualTo("ApplyChanges");
+            assertThat(action.status).isEqualTo("SUCCESSFUL");
+            assertThat(action.polls).isPositive()
+                    .isLessThanOrEqualTo((int) simulator.getRequestsByEndpoint().get("GET progress/{id}").get());
+            // the action is not finished before its duration on the instance passed
+            assertThat(action.durationMillis).isGreaterThanOrEqualTo(200);
+            assertThat(this.metrics.actions).isEmpty();
+        }
+    }
+
+    @Test
+    public void testFailedActionRecorded() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withActions(100, InstanceSimulator.ProgressCurve.LINEAR)
+                .withFailures(1, 0)
+                .start()) {
+            // given
+            final ApplyChangesBuilder builder = createBuilder(simulator);
+
+            // when
+            assertThatThrownBy(() -> builder.perform(mockBuild(), null, mock(Launcher.class), mockListener()))
+                    .isInstanceOf(AbortException.class);
+
+            // then
+            final Action action = this.metrics.actions.poll(10, TimeUnit.SECONDS);
+            assertThat(action).isNotNull();
+            assertThat(action.status).isEqualTo("FAILED");
+            assertThat(action.polls).isPositive();
+        }
+    }
+
+    private ServiceNowAPIClient createClient() {
+        final ServiceNowAPIClient client = new ServiceNowAPIClient(this.url, "user", null);
+        client.setRetryPolicy(new RetryPolicy(3, 1, 10));
+        return client;
+    }
+
+    private String progressBody(final String status, final String statusLabel) {
+        return "{\"result\": {" +
+                "\"links\": {\"progress\": {\"id\": \"" + PROGRESS_ID + "\", \"url\": \"" + this.url + "/api/sn_cicd/progress/" + PROGRESS_ID + "\"}}," +
+                "\"status\": \"" + status + "\", \"status_label\": \"" + statusLabel + "\"," +
+                "\"status_message\": \"\", \"status_detail\": \"\", \"error\": \"\"}}";
+    }
+
+    private static ApplyChangesBuilder createBuilder(final InstanceSimulator simulator) {
+        final ApplyChangesBuilder builder = new ApplyChangesBuilder("credentials");
+        builder.setAppScope("x_app");
+        builder.setUrl(simulator.getUrl());
+        builder.setClientFactory((run, parameters) -> new ServiceNowAPIClient(parameters[0], "user", null));
+        return builder;
+    }
+
+    private static AbstractBuild mockBuild() throws Exception {
+        final AbstractBuild run = mock(AbstractBuild.class);
+        final EnvVars environment = new EnvVars();
+        environment.put(BuildParameters.progressCheckInterval, "50");
+        given(run.getEnvironment(any())).willReturn(environment);
+        return run;
+    }
+
+    private static TaskListener mockListener() {
+        final TaskListener listener = mock(TaskListener.class);
+        given(listener.getLogger()).willReturn(new PrintStream(NullOutputStream.NULL_OUTPUT_STREAM));
+        return listener;
+    }
+
+    /**
+     * Keeps measurements in memory, so tests can check what was recorded.
+     */
+    @TestExtension
+    public static class RecordingMetrics implements ServiceNowMetrics {
+
+        private final List<Request> requests = new ArrayList<>();
+        private final List<String> retries = new ArrayList<>();
+        private final BlockingQueue<Action> actions = new LinkedBlockingQueue<>();
+
+        @Override
+        public synchronized void recordRequest(String host, String endpoint, String status, long durationNanos, long bytesSent) {
+            this.requests.add(new Request(host, endpoint, status, durationNanos));
+        }
+
+        @Override
+        public void recordBytesReceived(String host, String endpoint, long bytes) {
+        }
+
+        @Override
+        public synchronized void recordRetry(String host, String endpoint) {
+            this.retries.add(endpoint);
+        }
+
+        @Override
+        public void recordAction(String host, String stepType, String status, int polls, long durationMillis) {
+            this.actions.add(new Action(host, stepType, status, polls, durationMillis));
+        }
+
+        @Override
+        public void recordQueueWait(String host, String stepType, long waitMillis) {
+        }
+    }
+
+    private static class Request {
+        private final String host;
+        private final String endpoint;
+        private final String status;
+        private final long durationNanos;
+
+        private Request(String host, String endpoint, String status, long durationNanos) {
+            this.host = host;
+            this.endpoint = endpoint;
+            this.status = status;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    private static class Action {
+        private final String host;
+        private final String stepType;
+        private final String status;
+        private final int polls;
+        private final long durationMillis;
+
+        private Action(String host, String stepType, String status, int polls, long durationMillis) {
+            this.host = host;
+            this.stepType = stepType;
+            this.status = status;
+            this.polls = polls;
+            this.durationMillis = durationMillis;
+        }
+    }
+}
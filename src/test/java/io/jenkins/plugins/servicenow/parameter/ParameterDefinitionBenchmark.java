@@ -0,0 +1,49 @@
+package io.jenkins.plugins.servicenow.parameter;
+
+import hudson.model.ParameterValue;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import net.sf.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures creation of the ServiceNow parameter: the default value of a new build, the value submitted by the form
+ * of the build and the definition recreated from the value (done by build steps passing parameters to next steps).
+ */
+@JmhBenchmark
+public class ParameterDefinitionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Parameter {
+
+        private ServiceNowParameterDefinition definition;
+        private String value;
+        private JSONObject submittedForm;
+
+        @Setup
+        public void setup() {
+            this.definition = new ServiceNowParameterDefinition("description", "publish-credentials",
+                    "https://dev.service-now.com", "install-credentials", "https://test.service-now.com",
+                    "90eb8a3adb5d2010b2e1cde0ce9619d7", "x_app", "1.0.42", "1.0.41", "", 5000);
+            this.value = (String) this.definition.createValue(null).getValue();
+            this.submittedForm = JSONObject.fromObject(this.value);
+        }
+    }
+
+    @Benchmark
+    public ParameterValue createDefaultValue(Parameter parameter) {
+        return parameter.definition.createValue(null);
+    }
+
+    @Benchmark
+    public ParameterValue createSubmittedValue(Parameter parameter) {
+        return parameter.definition.createValue(null, parameter.submittedForm);
+    }
+
+    @Benchmark
+    public ServiceNowParameterDefinition createFromValue(Parameter parameter) {
+        return ServiceNowParameterDefinition.createFrom(parameter.value);
+    }
+}
@@ -0,0 +1,87 @@
+package io.jenkins.plugins.servicenow.parameter;
+
+import hudson.util.XStream2;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import net.sf.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders ServiceNow parameters of a job with 5,000 builds (all getters called as by the parameters page of a build),
+ * once with the JSON of the value parsed by every getter (the former approach) and once with the parsed snapshot.
+ * Values are loaded from their persisted form, as Jenkins loads them from <code>build.xml</code>.
+ * Each iteration loads the builds again, so the first parse of every value is measured as well.
+ */
+@JmhBenchmark
+public class ParameterValueRenderingBenchmark {
+
+    private static final int BUILDS = 5_000;
+    private static final String[] FIELDS = {"credentialsForPublishedApp", "instanceForPublishedAppUrl",
+            "credentialsForInstalledApp", "instanceForInstalledAppUrl", "sysId", "appScope", "publishedAppVersion",
+            "rollbackAppVersion", "progressCheckStrategy", "batchRollbackId", "description"};
+
+    @State(Scope.Benchmark)
+    public static class Job {
+
+        private final XStream2 xstream = new XStream2();
+        private final List<String> persistedBuilds = new ArrayList<>(BUILDS);
+
+        @Setup
+        public void setup() {
+            for(int i = 0; i < BUILDS; i++) {
+                final String json = "{\"name\":\"snParam\",\"description\":\"build " + i + "\"," +
+                        "\"credentialsForPublishedApp\":\"publish-credentials\"," +
+                        "\"instanceForPublishedAppUrl\":\"https://dev.service-now.com\"," +
+                        "\"credentialsForInstalledApp\":\"install-credentials\"," +
+                        "\"instanceForInstalledAppUrl\":\"https://test.service-now.com\"," +
+                        "\"sysId\":\"90eb8a3adb5d2010b2e1cde0ce9619d7\",\"appScope\":\"x_app\"," +
+                        "\"publishedAppVersion\":\"1.0." + i + "\",\"rollbackAppVersion\":\"1.0." + (i - 1) + "\"," +
+                        "\"batchRollbackId\":\"\",\"progressCheckInterval\":\"5000\",\"progressCheckStrategy\":\"\"}";
+                this.persistedBuilds.add(this.xstream.toXML(new ServiceNowParameterValue("snParam", json)));
+            }
+        }
+
+        List<ServiceNowParameterValue> loadBuilds() {
+            final List<ServiceNowParameterValue> values = new ArrayList<>(BUILDS);
+            for(String persistedBuild : this.persistedBuilds) {
+                values.add((ServiceNowParameterValue) this.xstream.fromXML(persistedBuild));
+            }
+            return values;
+        }
+    }
+
+    @Benchmark
+    public void parsedByEveryGetter(Job job, Blackhole blackhole) {
+        for(ServiceNowParameterValue value : job.loadBuilds()) {
+            for(String field : FIELDS) {
+                final String json = (String) value.getValue();
+                blackhole.consume(JSONObject.fromObject(json).has(field) ? JSONObject.fromObject(json).getString(field) : "");
+            }
+            blackhole.consume(Integer.parseInt(JSONObject.fromObject(value.getValue()).getString("progressCheckInterval")));
+        }
+    }
+
+    @Benchmark
+    public void parsedSnapshot(Job job, Blackhole blackhole) {
+        for(ServiceNowParameterValue value : job.loadBuilds()) {
+            blackhole.consume(value.getCredentialsForPublishedApp());
+            blackhole.consume(value.getInstanceForPublishedAppUrl());
+            blackhole.consume(value.getCredentialsForInstalledApp());
+            blackhole.consume(value.getInstanceForInstalledAppUrl());
+            blackhole.consume(value.getSysId());
+            blackhole.consume(value.getAppScope());
+            blackhole.consume(value.getPublishedAppVersion());
+            blackhole.consume(value.getRollbackAppVersion());
+            blackhole.consume(value.getProgressCheckStrategy());
+            blackhole.consume(value.getBatchRollbackId());
+            blackhole.consume(value.getDescription());
+            blackhole.consume(value.getProgressCheckInterval());
+        }
+    }
+}
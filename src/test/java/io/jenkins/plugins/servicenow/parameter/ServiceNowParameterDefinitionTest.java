@@ -57,6 +57,7 @@ public class ServiceNowParameterDefinitionTest extends TestCase {
         checkParameter(result, ServiceNowParameterDefinition.PARAMS_NAMES.rollbackAppVersion, TestData.rollbackAppVersion);
         checkParameter(result, ServiceNowParameterDefinition.PARAMS_NAMES.sysId, TestData.systemId);
         checkParameter(result, ServiceNowParameterDefinition.PARAMS_NAMES.progressCheckInterval, TestData.progressCheckInterval);
+        checkParameter(result, ServiceNowParameterDefinition.PARAMS_NAMES.progressCheckStrategy, TestData.progressCheckStrategy);
     }
 
     @Test
@@ -74,6 +75,7 @@ public class ServiceNowParameterDefinitionTest extends TestCase {
         assertThat(parameterDefinition.getRollbackAppVersion()).isEqualTo(TestData.rollbackAppVersion);
         assertThat(parameterDefinition.getSysId()).isEqualTo(TestData.systemId);
         assertThat(parameterDefinition.getProgressCheckInterval()).isEqualTo(TestData.progressCheckInterval);
+        assertThat(parameterDefinition.getProgressCheckStrategy()).isEqualTo(TestData.progressCheckStrategy);
         assertThat(parameterDefinition.getDescription()).isEqualTo(TestData.description);
     }
 
@@ -121,6 +123,7 @@ public class ServiceNowParameterDefinitionTest extends TestCase {
         String systemId = "123erwqe";
         String batchRollbackId = "qwerty";
         Integer progressCheckInterval = 100;
+        String progressCheckStrategy = "adaptive";
 
         static String getJson() {
             return "{\"name\":\"snParam\"," +
@@ -134,7 +137,8 @@ public class ServiceNowParameterDefinitionTest extends TestCase {
                     "\"publishedAppVersion\":\"" + publishedAppVersion + "\"," +
                     "\"rollbackAppVersion\":\"" + rollbackAppVersion + "\"," +
                     "\"batchRollbackId\":\"" + batchRollbackId + "\"," +
-                    "\"progressCheckInterval\":\"" + progressCheckInterval + "\"}";
+                    "\"progressCheckInterval\":\"" + progressCheckInterval + "\"," +
+                    "\"progressCheckStrategy\":\"" + progressCheckStrategy + "\"}";
         }
     }
 }
\ No newline at end of file
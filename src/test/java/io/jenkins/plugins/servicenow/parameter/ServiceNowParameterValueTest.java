@@ -1,6 +1,7 @@
 package io.jenkins.plugins.servicenow.parameter;
 
 import junit.framework.TestCase;
+import net.sf.json.JSONObject;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -158,6 +159,45 @@ public class ServiceNowParameterValueTest extends TestCase {
         assertThat(result).isEqualTo(TestData.batchRollbackId);
     }
 
+    public void testGetSnapshot_parsedOnce() {
+        // given
+        ServiceNowParameterValue parameterValue = new ServiceNowParameterValue("test", TestData.getJson());
+
+        // when
+        ServiceNowParameterValue.Snapshot snapshot1 = parameterValue.getSnapshot();
+        parameterValue.getSysId();
+        ServiceNowParameterValue.Snapshot snapshot2 = parameterValue.getSnapshot();
+
+        // then
+        assertThat(snapshot1).isSameAs(snapshot2);
+    }
+
+    public void testGetSnapshot_parsedAgainWhenValueChanged() {
+        // given
+        ServiceNowParameterValue parameterValue = new ServiceNowParameterValue("test", TestData.getJson());
+        parameterValue.getSysId();
+
+        // when
+        parameterValue.value = TestData.getJson().replace(TestData.systemId, "changed");
+
+        // then
+        assertThat(parameterValue.getSysId()).isEqualTo("changed");
+    }
+
+    public void testFromJson_compact() {
+        // given
+        String json = TestData.getJson().replace("}", ",\"stapler-class\":\"io.jenkins.plugins.servicenow.parameter.ServiceNowParameterValue\"}");
+
+        // when
+        ServiceNowParameterValue parameterValue = ServiceNowParameterValue.fromJson("test", JSONObject.fromObject(json));
+
+        // then
+        assertThat((String) parameterValue.getValue()).doesNotContain("stapler-class");
+        assertThat((String) parameterValue.getValue()).doesNotContain(" ");
+        assertThat(parameterValue.getSysId()).isEqualTo(TestData.systemId);
+        assertThat(parameterValue.getProgressCheckInterval()).isEqualTo(TestData.progressCheckInterval);
+    }
+
     private interface TestData {
         String description = "description";
         String credentialsForInstalledApp = "88dbbe69-0e00-4dd5-838b-2fbd8dfedeb4";
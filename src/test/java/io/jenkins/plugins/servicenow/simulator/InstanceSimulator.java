@@ -0,0 +1,349 @@
+package io.jenkins.plugins.servicenow.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.servicenow.api.ActionStatus;
+import org.apache.commons.lang.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process simulator of the CI/CD API of ServiceNow instance (end-points <code>/api/sn_cicd/*</code>).
+ * <p>
+ * Every action (apply changes, publish, install and rollback of applications, batch install and rollback, test suite run,
+ * instance scans, activation and rollback of plugins) is accepted with the pending status and its progress then follows
+ * the configured {@link ProgressCurve} for the configured duration. Results of test suites are served for finished runs.
+ * The simulator can add latency to every request, fail a part of actions or requests and throttle requests over
+ * the rate limit (HTTP 429 with the header <code>Retry-After</code>), like a busy instance does.
+ * <p>
+ * Unlike canned mock server expectations, the simulator keeps the state of actions, so it can serve concurrent builds.
+ * It is built on the HTTP server of the JDK to keep the overhead of the simulator itself out of measurements.
+ */
+public class InstanceSimulator implements AutoCloseable {
+
+    private static final String API_PATH = "/api/sn_cicd/";
+    private static final Pattern ACTION_PATTERN = Pattern.compile("sc/apply_changes|app_repo/(publish|install|rollback)|" +
+            "app/batch/install|app/batch/rollback/[^/]+|testsuite/run|instance_scan/.+|plugin/[^/]+/(activate|rollback)");
+    private static final Pattern PROGRESS_PATTERN = Pattern.compile("progress/([^/]+)");
+    private static final Pattern CANCEL_PATTERN = Pattern.compile("progress/([^/]+)/cancel");
+    private static final Pattern RESULTS_PATTERN = Pattern.compile("testsuite/results/([^/]+)");
+
+    /**
+     * Progress of an action in time.
+     */
+    public enum ProgressCurve {
+        /**
+         * The progress grows evenly.
+         */
+        LINEAR,
+        /**
+         * The progress grows slowly at the beginning and at the end of the action.
+         */
+        S_CURVE,
+        /**
+         * The progress grows quickly up to 99 % and stays there until the end of the action (e.g. waiting for a lock).
+         */
+        STALLED_AT_END;
+
+        int getPercentComplete(final double elapsedPart) {
+            final double part = Math.max(0, Math.min(1, elapsedPart));
+            switch(this) {
+                case S_CURVE:
+                    return (int) (100 * part * part * (3 - 2 * part));
+                case STALLED_AT_END:
+                    return (int) Math.min(99, 100 * part * 4);
+                default:
+                    return (int) (100 * part);
+            }
+        }
+    }
+
+    private long latency;
+    private long latencyJitter;
+    private long actionDuration = 1000;
+    private ProgressCurve progressCurve = ProgressCurve.LINEAR;
+    private double actionFailureRate;
+    private double requestErrorRate;
+    private int maxRequestsPerSecond;
+    private int threads = 16;
+
+    private final ConcurrentMap<String, Action> actions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> requestsByEndpoint = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final Queue<String> traceParents = new ConcurrentLinkedQueue<>();
+
+    private long rateWindow;
+    private int rateWindowRequests;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param latency Time in milliseconds added to every request.
+     * @param jitter  Maximum random time in milliseconds added to the latency.
+     */
+    public InstanceSimulator withLatency(final long latency, final long jitter) {
+        this.latency = latency;
+        this.latencyJitter = jitter;
+        return this;
+    }
+
+    /**
+     * @param duration Time in milliseconds an action takes on the instance.
+     * @param curve    Progress of the action reported in time.
+     */
+    public InstanceSimulator withActions(final long duration, final ProgressCurve curve) {
+        this.actionDuration = duration;
+        this.progressCurve = curve;
+        return this;
+    }
+
+    /**
+     * @param actionFailureRate Part of actions finished with the status failed (0 - 1).
+     * @param requestErrorRate  Part of requests answered with HTTP 503 (0 - 1).
+     */
+    public InstanceSimulator withFailures(final double actionFailureRate, final double requestErrorRate) {
+        this.actionFailureRate = actionFailureRate;
+        this.requestErrorRate = requestErrorRate;
+        return this;
+    }
+
+    /**
+     * @param maxRequestsPerSecond Requests over the limit are throttled with HTTP 429 (0 - no limit).
+     */
+    public InstanceSimulator withRateLimit(final int maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        return this;
+    }
+
+    /**
+     * @param threads Number of requests served at the same time (like semaphores of the instance).
+     */
+    public InstanceSimulator withThreads(final int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public InstanceSimulator start() throws IOException {
+        this.executor = Executors.newFixedThreadPool(this.threads);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext(API_PATH, this::handle);
+        this.server.setExecutor(this.executor);
+        this.server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if(this.server != null) {
+            this.server.stop(0);
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return URL of the simulated instance.
+     */
+    public String getUrl() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    public long getFailedRequests() {
+        return failedRequests.get();
+    }
+
+    public int getActions() {
+        return actions.size();
+    }
+
+    /**
+     * @return Number of requests by end-point (method and path with identifiers replaced by <code>{id}</code>).
+     */
+    public Map<String, AtomicLong> getRequestsByEndpoint() {
+        return requestsByEndpoint;
+    }
+
+    /**
+     * @return Values of the header <code>traceparent</code> (W3C trace context) of received requests.
+     */
+    public Queue<String> getTraceParents() {
+        return traceParents;
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try(InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        final String traceParent = exchange.getRequestHeaders().getFirst("traceparent");
+        if(traceParent != null) {
+            this.traceParents.add(traceParent);
+        }
+        final String method = exchange.getRequestMethod();
+        final String path = exchange.getRequestURI().getPath().substring(API_PATH.length());
+        this.requests.incrementAndGet();
+        this.requestsByEndpoint.computeIfAbsent(method + " " + getEndpointName(path), key -> new AtomicLong()).incrementAndGet();
+
+        sleep(this.latency + (this.latencyJitter > 0 ? ThreadLocalRandom.current().nextLong(this.latencyJitter + 1) : 0));
+        if(isThrottled()) {
+            this.throttledRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            send(exchange, 429, "{\"error\":{\"message\":\"Too many requests\"}}");
+            return;
+        }
+        if(this.requestErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.requestErrorRate) {
+            this.failedRequests.incrementAndGet();
+            send(exchange, 503, "{\"error\":{\"message\":\"Service unavailable\"}}");
+            return;
+        }
+
+        Matcher matcher;
+        if("POST".equals(method) && (matcher = CANCEL_PATTERN.matcher(path)).matches()) {
+            final Action action = this.actions.get(matcher.group(1));
+            if(action != null) {
+                action.canceled = true;
+            }
+            sendAction(exchange, action, false);
+        } else if("GET".equals(method) && (matcher = PROGRESS_PATTERN.matcher(path)).matches()) {
+            sendAction(exchange, this.actions.get(matcher.group(1)), false);
+        } else if("GET".equals(method) && (matcher = RESULTS_PATTERN.matcher(path)).matches()) {
+            sendTestResults(exchange, this.actions.get(matcher.group(1)));
+        } else if("POST".equals(method) && ACTION_PATTERN.matcher(path).matches()) {
+            final Action action = new Action(path, System.currentTimeMillis(),
+                    this.actionFailureRate > 0 && ThreadLocalRandom.current().nextDouble() < this.actionFailureRate);
+            this.actions.put(action.id, action);
+            sendAction(exchange, action, true);
+        } else {
+            send(exchange, 404, "{\"error\":{\"message\":\"Requested URI does not represent any resource\"}}");
+        }
+    }
+
+    private synchronized boolean isThrottled() {
+        if(this.maxRequestsPerSecond <= 0) {
+            return false;
+        }
+        final long window = System.currentTimeMillis() / 1000;
+        if(window != this.rateWindow) {
+            this.rateWindow = window;
+            this.rateWindowRequests = 0;
+        }
+        return ++this.rateWindowRequests > this.maxRequestsPerSecond;
+    }
+
+    private void sendAction(final HttpExchange exchange, final Action action, final boolean started) throws IOException {
+        if(action == null) {
+            send(exchange, 404, "{\"error\":{\"message\":\"No Record found\"}}");
+            return;
+        }
+        final long elapsed = System.currentTimeMillis() - action.startTime;
+        final ActionStatus status;
+        final int percentComplete;
+        if(started) {
+            status = ActionStatus.PENDING;
+            percentComplete = 0;
+        } else if(action.canceled) {
+            status = ActionStatus.CANCELED;
+            percentComplete = this.progressCurve.getPercentComplete((double) elapsed / this.actionDuration);
+        } else if(elapsed >= this.actionDuration) {
+            status = action.failed ? ActionStatus.FAILED : ActionStatus.SUCCESSFUL;
+            percentComplete = 100;
+        } else {
+            status = ActionStatus.RUNNING;
+            percentComplete = this.progressCurve.getPercentComplete((double) elapsed / this.actionDuration);
+        }
+
+        final StringBuilder links = new StringBuilder()
+                .append("\"progress\":{\"id\":\"").append(action.id).append("\",\"url\":\"")
+                .append(getUrl()).append(API_PATH).append("progress/").append(action.id).append("\"}");
+        if(action.path.equals("testsuite/run")) {
+            links.append(",\"results\":{\"id\":\"").append(action.id).append("\",\"url\":\"")
+                    .append(getUrl()).append(API_PATH).append("testsuite/results/").append(action.id).append("\"}");
+        }
+        if(action.path.equals("app/batch/install")) {
+            links.append(",\"rollback\":{\"id\":\"").append(action.id).append("\"}");
+        }
+        send(exchange, 200, "{\"result\":{\"links\":{" + links + "}," +
+                "\"status\":\"" + status.getStatus() + "\",\"status_label\":\"" + StringUtils.capitalize(status.name().toLowerCase(Locale.ENGLISH)) + "\"," +
+                "\"status_message\":\"Simulated " + action.path + "\",\"status_detail\":\"\"," +
+                "\"error\":\"" + (status == ActionStatus.FAILED ? "Simulated failure" : "") + "\"," +
+                "\"rollback_version\":\"1.0.0\",\"percent_complete\":" + percentComplete + "}}");
+    }
+
+    private void sendTestResults(final HttpExchange exchange, final Action action) throws IOException {
+        if(action == null) {
+            send(exchange, 404, "{\"error\":{\"message\":\"No Record found\"}}");
+            return;
+        }
+        final boolean success = !action.failed;
+        send(exchange, 200, "{\"result\":{" +
+                "\"links\":{\"results\":{\"id\":\"" + action.id + "\"}}," +
+                "\"status\":\"" + ActionStatus.SUCCESSFUL.getStatus() + "\",\"status_label\":\"Successful\"," +
+                "\"test_suite_name\":\"Simulated test suite\",\"test_suite_status\":\"" + (success ? "success" : "failure") + "\"," +
+                "\"test_suite_duration\":\"" + this.actionDuration / 1000 + " Seconds\"," +
+                "\"rolledup_test_success_count\":" + (success ? 10 : 9) + ",\"rolledup_test_failure_count\":" + (success ? 0 : 1) + "," +
+                "\"rolledup_test_error_count\":0,\"rolledup_test_skip_count\":0}}");
+    }
+
+    private static void send(final HttpExchange exchange, final int statusCode, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try(OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static String getEndpointName(final String path) {
+        return path.replaceAll("[0-9a-f]{32}|[0-9a-f-]{36}", "{id}");
+    }
+
+    private static void sleep(final long millis) {
+        if(millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Action {
+        private final String id = UUID.randomUUID().toString().replace("-", "");
+        private final String path;
+        private final long startTime;
+        private final boolean failed;
+        private volatile boolean canceled;
+
+        private Action(final String path, final long startTime, final boolean failed) {
+            this.path = path;
+            this.startTime = startTime;
+            this.failed = failed;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.jenkins.plugins.servicenow.simulator;
+
+import io.jenkins.plugins.servicenow.api.ActionStatus;
+import io.jenkins.plugins.servicenow.api.RetryPolicy;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.api.ServiceNowApiException;
+import io.jenkins.plugins.servicenow.api.model.Result;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstanceSimulatorTest {
+
+    @Test
+    public void testActionProgress() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withActions(300, InstanceSimulator.ProgressCurve.LINEAR)
+                .start()) {
+            // given
+            ServiceNowAPIClient client = new ServiceNowAPIClient(simulator.getUrl(), "user", null);
+
+            // when
+            Result started = client.applyChanges("x_app", null, null);
+            Result running = client.checkProgress();
+            Thread.sleep(400);
+            Result finished = client.checkProgress();
+
+            // then
+            assertThat(started.getStatus()).isEqualTo(ActionStatus.PENDING.getStatus());
+            assertThat(running.getStatus()).isEqualTo(ActionStatus.RUNNING.getStatus());
+            assertThat(running.getPercentComplete()).isLessThan(100);
+            assertThat(finished.getStatus()).isEqualTo(ActionStatus.SUCCESSFUL.getStatus());
+            assertThat(finished.getPercentComplete()).isEqualTo(100);
+            assertThat(simulator.getRequestsByEndpoint()).containsKeys("POST sc/apply_changes", "GET progress/{id}");
+        }
+    }
+
+    @Test
+    public void testCanceledAction() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withActions(60_000, InstanceSimulator.ProgressCurve.STALLED_AT_END)
+                .start()) {
+            // given
+            ServiceNowAPIClient client = new ServiceNowAPIClient(simulator.getUrl(), "user", null);
+            client.activatePlugin("com.snc.cicd");
+
+            // when
+            Result canceled = client.cancelProgress();
+
+            // then
+            assertThat(canceled.getStatus()).isEqualTo(ActionStatus.CANCELED.getStatus());
+            assertThat(client.checkProgress().getStatus()).isEqualTo(ActionStatus.CANCELED.getStatus());
+        }
+    }
+
+    @Test
+    public void testRateLimit() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withRateLimit(1)
+                .start()) {
+            // given
+            ServiceNowAPIClient client = new ServiceNowAPIClient(simulator.getUrl(), "user", null);
+            client.setRetryPolicy(RetryPolicy.NONE);
+
+            // when (3 requests are sent at most in 2 windows of the rate limit)
+            int throttled = 0;
+            for(int i = 0; i < 3; i++) {
+                try {
+                    client.applyChanges("x_app", null, null);
+                } catch(ServiceNowApiException ex) {
+                    throttled++;
+                }
+            }
+
+            // then
+            assertThat(throttled).isPositive();
+            assertThat(simulator.getThrottledRequests()).isPositive();
+        }
+    }
+}
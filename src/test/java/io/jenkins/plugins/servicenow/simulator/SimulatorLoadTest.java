@@ -0,0 +1,176 @@
+package io.jenkins.plugins.servicenow.simulator;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.servicenow.ActivatePluginBuilder;
+import io.jenkins.plugins.servicenow.ApplyChangesBuilder;
+import io.jenkins.plugins.servicenow.BuildParameters;
+import io.jenkins.plugins.servicenow.ProgressBuilder;
+import io.jenkins.plugins.servicenow.RunTestSuiteWithResultsBuilder;
+import io.jenkins.plugins.servicenow.api.InstanceLimiter;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives concurrent pipelines of ServiceNow build steps against {@link InstanceSimulator} and reports throughput,
+ * overhead of build steps (time of the step over the time of the action on the instance) and occupancy of executors.
+ * <p>
+ * The test is skipped by default, run it with: <code>mvn test -Dtest=SimulatorLoadTest -DloadTest</code>.
+ * Optional properties (defaults in brackets): <code>loadTest.pipelines</code> (50), <code>loadTest.actionDuration</code>
+ * in ms (2000), <code>loadTest.latency</code> in ms (20), <code>loadTest.actionFailureRate</code> (0),
+ * <code>loadTest.requestErrorRate</code> (0), <code>loadTest.rateLimit</code> requests per second (0 - no limit),
+ * <code>loadTest.maxConcurrentActions</code> per instance (0 - no limit), <code>loadTest.progressCheckInterval</code> in ms (500).
+ */
+public class SimulatorLoadTest {
+
+    private static final int PIPELINES = Integer.getInteger("loadTest.pipelines", 50);
+    private static final long ACTION_DURATION = Long.getLong("loadTest.actionDuration", 2000);
+    private static final long LATENCY = Long.getLong("loadTest.latency", 20);
+    private static final double ACTION_FAILURE_RATE = Double.parseDouble(System.getProperty("loadTest.actionFailureRate", "0"));
+    private static final double REQUEST_ERROR_RATE = Double.parseDouble(System.getProperty("loadTest.requestErrorRate", "0"));
+    private static final int RATE_LIMIT = Integer.getInteger("loadTest.rateLimit", 0);
+    private static final int MAX_CONCURRENT_ACTIONS = Integer.getInteger("loadTest.maxConcurrentActions", 0);
+    private static final int PROGRESS_CHECK_INTERVAL = Integer.getInteger("loadTest.progressCheckInterval", 500);
+
+    private InstanceSimulator simulator;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue("Load test is run only with the property 'loadTest'", System.getProperty("loadTest") != null);
+        InstanceLimiter.get().configure(MAX_CONCURRENT_ACTIONS, 0);
+        this.simulator = new InstanceSimulator()
+                .withLatency(LATENCY, LATENCY / 2)
+                .withActions(ACTION_DURATION, InstanceSimulator.ProgressCurve.S_CURVE)
+                .withFailures(ACTION_FAILURE_RATE, REQUEST_ERROR_RATE)
+                .withRateLimit(RATE_LIMIT)
+                .withThreads(32)
+                .start();
+    }
+
+    @After
+    public void tearDown() {
+        InstanceLimiter.get().configure(InstanceLimiter.DEFAULT_MAX_CONCURRENT_ACTIONS, InstanceLimiter.DEFAULT_MAX_ACTIONS_PER_MINUTE);
+        if(this.simulator != null) {
+            this.simulator.close();
+        }
+    }
+
+    @Test
+    public void concurrentPipelines() throws Exception {
+        // given (every pipeline holds one executor for all its steps, like a freestyle build)
+        final ExecutorService executors = Executors.newFixedThreadPool(PIPELINES);
+        final ConcurrentLinkedQueue<Long> stepTimes = new ConcurrentLinkedQueue<>();
+        final AtomicInteger failedSteps = new AtomicInteger();
+        final List<Future<?>> pipelines = new ArrayList<>();
+
+        // when
+        final long start = System.nanoTime();
+        for(int i = 0; i < PIPELINES; i++) {
+            pipelines.add(executors.submit(() -> runPipeline(stepTimes, failedSteps)));
+        }
+        for(Future<?> pipeline : pipelines) {
+            pipeline.get(10, TimeUnit.MINUTES);
+        }
+        final long wallTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executors.shutdown();
+
+        // then
+        report(new ArrayList<>(stepTimes), failedSteps.get(), wallTime);
+        assertThat(stepTimes).hasSize(PIPELINES * 3);
+        if(ACTION_FAILURE_RATE == 0) {
+            assertThat(failedSteps).hasValue(0);
+        }
+    }
+
+    private void runPipeline(final ConcurrentLinkedQueue<Long> stepTimes, final AtomicInteger failedSteps) {
+        final ApplyChangesBuilder applyChanges = new ApplyChangesBuilder("credentials");
+        applyChanges.setAppScope("x_app");
+        final RunTestSuiteWithResultsBuilder runTestSuite = new RunTestSuiteWithResultsBuilder("credentials");
+        runTestSuite.setTestSuiteName("Simulated test suite");
+        runTestSuite.setWithResults(true);
+        final ActivatePluginBuilder activatePlugin = new ActivatePluginBuilder("credentials");
+        activatePlugin.setPluginId("com.snc.cicd");
+
+        for(ProgressBuilder step : new ProgressBuilder[]{applyChanges, runTestSuite, activatePlugin}) {
+            step.setUrl(this.simulator.getUrl());
+            step.setClientFactory((run, parameters) -> new ServiceNowAPIClient(parameters[0], "user", null));
+            final long stepStart = System.nanoTime();
+            try {
+                step.perform(mockBuild(), null, mock(Launcher.class), mockListener());
+            } catch(AbortException ex) {
+                failedSteps.incrementAndGet();
+            } catch(Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            stepTimes.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stepStart));
+        }
+    }
+
+    private void report(final List<Long> stepTimes, final int failedSteps, final long wallTime) {
+        final List<Long> overheads = new ArrayList<>();
+        long busyTime = 0;
+        for(Long stepTime : stepTimes) {
+            overheads.add(Math.max(0, stepTime - ACTION_DURATION));
+            busyTime += stepTime;
+        }
+        Collections.sort(overheads);
+
+        System.out.println("\nLoad test: " + PIPELINES + " pipelines x 3 steps, action " + ACTION_DURATION + " ms, latency " + LATENCY + " ms");
+        System.out.printf("Wall time:            %d ms%n", wallTime);
+        System.out.printf("Throughput:           %.2f steps/s (%.2f pipelines/min)%n",
+                stepTimes.size() * 1000.0 / wallTime, PIPELINES * 60_000.0 / wallTime);
+        System.out.printf("Step overhead:        p50 %d ms, p99 %d ms, max %d ms%n",
+                percentile(overheads, 0.5), percentile(overheads, 0.99), overheads.get(overheads.size() - 1));
+        System.out.printf("Executor occupancy:   %.1f %% (%.2f executor seconds per action second)%n",
+                100.0 * busyTime / (PIPELINES * wallTime), (double) busyTime / (stepTimes.size() * ACTION_DURATION));
+        System.out.printf("Failed steps:         %d%n", failedSteps);
+        System.out.printf("Requests:             %d (throttled %d, failed %d)%n",
+                this.simulator.getRequests(), this.simulator.getThrottledRequests(), this.simulator.getFailedRequests());
+        final Map<String, Object> byEndpoint = new TreeMap<>(this.simulator.getRequestsByEndpoint());
+        byEndpoint.forEach((endpoint, count) -> System.out.printf("    %-40s %s%n", endpoint, count));
+    }
+
+    private static long percentile(final List<Long> sortedValues, final double percentile) {
+        final int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, Math.min(index, sortedValues.size() - 1)));
+    }
+
+    private static AbstractBuild mockBuild() throws Exception {
+        final AbstractBuild run = mock(AbstractBuild.class);
+        final EnvVars environment = new EnvVars();
+        environment.put(BuildParameters.progressCheckInterval, String.valueOf(PROGRESS_CHECK_INTERVAL));
+        given(run.getEnvironment(any())).willReturn(environment);
+        return run;
+    }
+
+    private static TaskListener mockListener() {
+        final TaskListener listener = mock(TaskListener.class);
+        given(listener.getLogger()).willReturn(new PrintStream(NullOutputStream.NULL_OUTPUT_STREAM));
+        return listener;
+    }
+}
@@ -0,0 +1,110 @@
+package io.jenkins.plugins.servicenow.testresults;
+
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JUnitReportWriterTest {
+
+    private static final String RESULTS_ID = "results-1";
+
+    @Mock
+    private ServiceNowAPIClient restClientMock;
+
+    private JUnitReportWriter writer;
+
+    @Before
+    public void setUp() {
+        this.writer = new JUnitReportWriter(restClientMock, 2);
+    }
+
+    @Test
+    public void write() throws Exception {
+        // given
+        givenRecords(JUnitReportWriter.TEST_RESULT_TABLE, "parent=" + RESULTS_ID,
+                testResult("t1", "Login", "success", "1970-01-01 00:00:05", ""),
+                testResult("t2", "Create incident", "failure", "1970-01-01 00:01:00", "Assertion failed: <state> is 2"),
+                testResult("t3", "Close incident", "skipped", "", ""));
+        givenRecords(JUnitReportWriter.STEP_RESULT_TABLE, "test_result=t1^ORDERBYstep.order^ORDERBYsys_id",
+                stepResult("1", "success", "Logged in"));
+        givenRecords(JUnitReportWriter.STEP_RESULT_TABLE, "test_result=t2^ORDERBYstep.order^ORDERBYsys_id",
+                stepResult("1", "success", "Opened form"), stepResult("2", "failure", "Field \u0001state is 2"));
+        givenRecords(JUnitReportWriter.STEP_RESULT_TABLE, "test_result=t3^ORDERBYstep.order^ORDERBYsys_id");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        final JUnitReportWriter.Summary summary = writer.write(RESULTS_ID, "Smoke tests", output);
+
+        // then
+        assertThat(summary.getTests()).isEqualTo(3);
+        assertThat(summary.getFailures()).isEqualTo(1);
+        assertThat(summary.getErrors()).isEqualTo(0);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        final String report = output.toString(StandardCharsets.UTF_8);
+        assertThat(report)
+                .contains("<testsuite name=\"Smoke tests\">")
+                .contains("<testcase classname=\"Smoke tests\" name=\"Login\" time=\"5\"><system-out>1. [success] Logged in")
+                .contains("<testcase classname=\"Smoke tests\" name=\"Create incident\" time=\"60\">" +
+                        "<failure type=\"failure\" message=\"Assertion failed: &lt;state")
+                .contains("2. [failure] Field state is 2")
+                .contains("<testcase classname=\"Smoke tests\" name=\"Close incident\" time=\"0\"><skipped message=\"skipped\"")
+                .endsWith("</testsuite>");
+        verify(restClientMock, times(4)).forEachTableRecord(any(), any(), any(), eq(2), any());
+    }
+
+    @Test
+    public void parseDuration() {
+        assertThat(JUnitReportWriter.parseDuration("1970-01-01 01:00:02")).isEqualTo(3602);
+        assertThat(JUnitReportWriter.parseDuration("42")).isEqualTo(42);
+        assertThat(JUnitReportWriter.parseDuration("unknown")).isEqualTo(0);
+        assertThat(JUnitReportWriter.parseDuration(null)).isEqualTo(0);
+    }
+
+    @SafeVarargs
+    private final void givenRecords(final String table, final String query, final Map<String, Object>... records) {
+        doAnswer(invocation -> {
+            final Consumer<Map<String, Object>> consumer = invocation.getArgument(4);
+            for(Map<String, Object> record : records) {
+                consumer.accept(record);
+            }
+            return records.length;
+        }).when(restClientMock).forEachTableRecord(eq(table), eq(query), any(), anyInt(), any());
+    }
+
+    private static Map<String, Object> testResult(final String sysId, final String name, final String status,
+            final String runTime, final String output) {
+        final Map<String, Object> record = new HashMap<>();
+        record.put("sys_id", sysId);
+        record.put("test.name", name);
+        record.put("status", status);
+        record.put("run_time", runTime);
+        record.put("output", output);
+        return record;
+    }
+
+    private static Map<String, Object> stepResult(final String order, final String status, final String summary) {
+        final Map<String, Object> record = new HashMap<>();
+        record.put("step.order", order);
+        record.put("status", status);
+        record.put("summary", summary);
+        return record;
+    }
+}
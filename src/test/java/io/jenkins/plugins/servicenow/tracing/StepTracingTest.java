@@ -0,0 +1,141 @@
+package io.jenkins.plugins.servicenow.tracing;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.servicenow.ApplyChangesBuilder;
+import io.jenkins.plugins.servicenow.BuildParameters;
+import io.jenkins.plugins.servicenow.api.ServiceNowAPIClient;
+import io.jenkins.plugins.servicenow.simulator.InstanceSimulator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class StepTracingTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private OpenTelemetrySdk openTelemetry;
+
+    @Before
+    public void setUp() {
+        this.openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(this.exporter)).build())
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+        ServiceNowTracing.set(this.openTelemetry);
+    }
+
+    @After
+    public void tearDown() {
+        ServiceNowTracing.set(null);
+        this.openTelemetry.close();
+    }
+
+    @Test
+    public void testStepTrace() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withActions(300, InstanceSimulator.ProgressCurve.LINEAR)
+                .start()) {
+            // given
+            final ApplyChangesBuilder builder = createBuilder(simulator);
+
+            // when
+            builder.perform(mockBuild(), null, mock(Launcher.class), mockListener());
+
+            // then
+            final List<SpanData> spans = this.exporter.getFinishedSpanItems();
+            final SpanData step = getSpan(spans, "ServiceNow ApplyChanges");
+            assertThat(step.getAttributes().get(AttributeKey.stringKey(ServiceNowTracing.ACTION))).isEqualTo("ApplyChanges");
+            assertThat(step.getAttributes().get(AttributeKey.stringKey(ServiceNowTracing.INSTANCE))).isEqualTo("localhost");
+            assertThat(step.getAttributes().get(AttributeKey.stringKey(ServiceNowTracing.APP_SCOPE))).isEqualTo("x_app");
+            assertThat(step.getAttributes().get(AttributeKey.stringKey(ServiceNowTracing.ACTION_STATUS))).isEqualTo("SUCCESSFUL");
+            assertThat(step.getStatus().getStatusCode()).isEqualTo(StatusCode.UNSET);
+            assertThat(spans).allMatch(span -> span.getTraceId().equals(step.getTraceId()));
+
+            final SpanData request = getSpan(spans, "POST sn_cicd/sc/apply_changes");
+            assertThat(request.getKind()).isEqualTo(SpanKind.CLIENT);
+            assertThat(request.getParentSpanId()).isEqualTo(step.getSpanId());
+            assertThat(request.getAttributes().get(AttributeKey.longKey("http.response.status_code"))).isEqualTo(200L);
+
+            final List<SpanData> polls = spans.stream().filter(span -> span.getName().equals("ServiceNow poll")).collect(Collectors.toList());
+            assertThat(polls).isNotEmpty().allMatch(poll -> poll.getParentSpanId().equals(step.getSpanId()));
+            final List<String> pollIds = polls.stream().map(SpanData::getSpanId).collect(Collectors.toList());
+            assertThat(spans.stream().filter(span -> span.getName().equals("GET sn_cicd/progress/{id}")))
+                    .hasSameSizeAs(polls)
+                    .allMatch(progressRequest -> pollIds.contains(progressRequest.getParentSpanId()));
+
+            assertThat(simulator.getTraceParents()).hasSize((int) simulator.getRequests())
+                    .allMatch(traceParent -> traceParent.contains(step.getTraceId()));
+        }
+    }
+
+    @Test
+    public void testFailedStepTrace() throws Exception {
+        try(InstanceSimulator simulator = new InstanceSimulator()
+                .withActions(100, InstanceSimulator.ProgressCurve.LINEAR)
+                .withFailures(1, 0)
+                .start()) {
+            // given
+            final ApplyChangesBuilder builder = createBuilder(simulator);
+
+            // when
+            assertThatThrownBy(() -> builder.perform(mockBuild(), null, mock(Launcher.class), mockListener()))
+                    .isInstanceOf(AbortException.class);
+
+            // then
+            final SpanData step = getSpan(this.exporter.getFinishedSpanItems(), "ServiceNow ApplyChanges");
+            assertThat(step.getAttributes().get(AttributeKey.stringKey(ServiceNowTracing.ACTION_STATUS))).isEqualTo("FAILED");
+            assertThat(step.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        }
+    }
+
+    private static ApplyChangesBuilder createBuilder(final InstanceSimulator simulator) {
+        final ApplyChangesBuilder builder = new ApplyChangesBuilder("credentials");
+        builder.setAppScope("x_app");
+        builder.setUrl(simulator.getUrl());
+        builder.setClientFactory((run, parameters) -> new ServiceNowAPIClient(parameters[0], "user", null));
+        return builder;
+    }
+
+    private static SpanData getSpan(final List<SpanData> spans, final String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in " + spans));
+    }
+
+    private static AbstractBuild mockBuild() throws Exception {
+        final AbstractBuild run = mock(AbstractBuild.class);
+        final EnvVars environment = new EnvVars();
+        environment.put(BuildParameters.progressCheckInterval, "50");
+        given(run.getEnvironment(any())).willReturn(environment);
+        return run;
+    }
+
+    private static TaskListener mockListener() {
+        final TaskListener listener = mock(TaskListener.class);
+        given(listener.getLogger()).willReturn(new PrintStream(NullOutputStream.NULL_OUTPUT_STREAM));
+        return listener;
+    }
+}